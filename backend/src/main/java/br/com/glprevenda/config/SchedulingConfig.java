@@ -0,0 +1,16 @@
+package br.com.glprevenda.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuração de tarefas agendadas (@Scheduled).
+ * 
+ * @EnableScheduling - Gravação em lote do último acesso das sessões
+ *                     e limpeza de sessões/tokens expirados
+ *                     e recarga do filtro de identidades
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,14 +1,22 @@
 package br.com.glprevenda.security.config;
 
+import br.com.glprevenda.security.service.AccessTokenDenylist;
+import br.com.glprevenda.security.service.JwtPrincipal;
 import br.com.glprevenda. security.service.JwtService;
+import br.com.glprevenda.security.service.ParsedToken;
+import br.com.glprevenda.security.service.SessionRegistry;
+import br.com.glprevenda.security.service.VerifiedTokenCache;
+import br.com.glprevenda.shared.timing.ServerTiming;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org. springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org. springframework.security.core.userdetails.UserDetailsService;
@@ -17,15 +25,23 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * Filtro JWT que intercepta TODAS as requisições HTTP. 
  * 
  * Responsabilidades:
  * 1. Extrair token JWT do header Authorization
- * 2. Validar o token
- * 3. Carregar usuário do banco
+ * 2. Validar o token (e recusar tokens revogados no logout)
+ * 3. Carregar usuário do banco (ou do próprio token, no modo stateless)
  * 4. Autenticar o usuário no Spring Security
+ * 5. Marcar o último acesso da sessão (SessionRegistry, em memória)
+ * 
+ * Requisições medidas (ServerTimingFilter): trechos auth (token +
+ * revogação) e user (carga do usuário) do header Server-Timing.
  * 
  * Se o token for válido, o usuário fica autenticado para aquela requisição.
  * 
@@ -37,7 +53,35 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtService jwtService;
+    private final VerifiedTokenCache tokenCache;
     private final UserDetailsService userDetailsService;
+    private final AccessTokenDenylist tokenDenylist;
+    private final SessionRegistry sessionRegistry;
+    
+    /**
+     * Modo stateless: monta o principal direto das claims do token,
+     * sem consultar o banco a cada requisição.
+     */
+    @Value("${security.jwt.stateless.enabled:false}")
+    private boolean statelessEnabled;
+    
+    /**
+     * Janela de tolerância (ms) em que os dados do token são aceitos
+     * sem reconfirmar o usuário no banco.
+     */
+    @Value("${security.jwt.stateless.max-staleness:300000}")
+    private long maxStaleness;
+    
+    /**
+     * Última confirmação no banco por token (epoch millis).
+     * Por token, não por usuário: confirmar as roles de um token não
+     * pode renovar a janela de outro token do mesmo usuário (ex: token
+     * antigo com ROLE_ADMIN já removida).
+     * Só guarda tokens de usuários ativos dentro da janela.
+     */
+    private final Map<String, Long> lastVerifiedAt = new ConcurrentHashMap<>();
+    
+    private volatile long lastPruneAt = System.currentTimeMillis();
     
     /**
      * Método executado em TODA requisição HTTP.
@@ -46,7 +90,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      * 1. Verifica se tem header Authorization
      * 2. Extrai token (remove "Bearer ")
      * 3. Valida token e extrai username
-     * 4. Carrega usuário do banco
+     * 4. Carrega usuário do banco (ou do próprio token, no modo stateless)
      * 5. Autentica no Spring Security
      * 6. Passa requisição adiante
      */
@@ -70,17 +114,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // 2. Extrair token (remove "Bearer ")
             final String jwt = authHeader.substring(7);
             
-            // 3. Extrair username do token
-            final String username = jwtService.extractUsername(jwt);
+            // 3. Verificar o token (uma única checagem de assinatura,
+            //    ou nenhuma se o mesmo token já foi verificado antes)
+            long authStart = ServerTiming.start();
+            final ParsedToken token = tokenCache.getOrVerify(jwt, jwtService::parse);
+            final String username = token.getSubject();
+            
+            // 4. Se é access token com username, não revogado,
+            //    E usuário não está autenticado ainda
+            boolean authenticate = username != null && token.isAccessToken()
+                    && SecurityContextHolder.getContext().getAuthentication() == null
+                    && !tokenDenylist.isRevoked(token);
+            ServerTiming.stop(ServerTiming.Metric.AUTH, authStart);
             
-            // 4. Se tem username E usuário não está autenticado ainda
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            if (authenticate) {
                 
-                // 5. Carregar usuário do banco
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                // 5. Carregar usuário (token ou banco)
+                long userStart = ServerTiming.start();
+                UserDetails userDetails = resolveUser(token, username);
+                ServerTiming.stop(ServerTiming.Metric.USER, userStart);
                 
                 // 6. Validar token
-                if (jwtService. isTokenValid(jwt, userDetails)) {
+                if (userDetails != null && jwtService.isTokenValid(token, userDetails)) {
                     
                     // 7. Criar objeto de autenticação
                     UsernamePasswordAuthenticationToken authToken = 
@@ -98,6 +153,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     // 9. Autenticar no Spring Security
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                     
+                    // Último acesso da sessão (gravado em lote, sem banco aqui)
+                    sessionRegistry.touch(token.getSessionId());
+                    
+                    // Requisição armada para usuários marcados: publica se for um deles
+                    ServerTiming timing = ServerTiming.current();
+                    if (timing != null) {
+                        timing.authenticated(username);
+                    }
+                    
                     log.debug("Usuário autenticado via JWT: {}", username);
                 }
             }
@@ -109,4 +173,75 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // 10. Passar requisição adiante (próximo filtro ou controller)
         filterChain. doFilter(request, response);
     }
+    
+    /**
+     * Decide de onde vêm os dados do usuário autenticado.
+     * 
+     * Modo stateless (opt-in):
+     * - Token emitido (ou usuário confirmado no banco) dentro da janela
+     *   max-staleness → principal montado das claims, sem banco
+     * - Janela vencida → recarrega do banco; se ativo e com as mesmas roles
+     *   do token, renova a janela DESTE token
+     * 
+     * Modo padrão: sempre carrega do banco.
+     * 
+     * @param token Token já verificado
+     * @param username Subject do token
+     * @return UserDetails, ou null se o usuário não pode ser autenticado
+     */
+    private UserDetails resolveUser(ParsedToken token, String username) {
+        if (!statelessEnabled) {
+            return userDetailsService.loadUserByUsername(username);
+        }
+        
+        long now = System.currentTimeMillis();
+        long issuedAt = token.getIssuedAt() != null ? token.getIssuedAt().toEpochMilli() : 0L;
+        String confirmationKey = confirmationKey(token, username);
+        long verifiedAt = Math.max(issuedAt, lastVerifiedAt.getOrDefault(confirmationKey, 0L));
+        
+        if (now - verifiedAt <= maxStaleness) {
+            return new JwtPrincipal(
+                    token.getUserId(), username, token.getRoles(), token.getRoleMask(), token.getIssuedAt());
+        }
+        
+        // Janela vencida: reconfirma no banco
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (!userDetails.isEnabled() || !userDetails.isAccountNonLocked()) {
+            lastVerifiedAt.remove(confirmationKey);
+            return null;
+        }
+        
+        Set<String> currentRoles = userDetails.getAuthorities()
+                .stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+        
+        if (currentRoles.equals(Set.copyOf(token.getRoles()))) {
+            lastVerifiedAt.put(confirmationKey, now);
+        } else {
+            // Roles mudaram: este token segue consultando o banco até ser renovado
+            lastVerifiedAt.remove(confirmationKey);
+            log.debug("Roles do token divergem do banco para {}, usando dados do banco", username);
+        }
+        
+        // Remove confirmações vencidas (no máximo uma vez por janela)
+        if (now - lastPruneAt > maxStaleness) {
+            lastPruneAt = now;
+            lastVerifiedAt.values().removeIf(verified -> now - verified > maxStaleness);
+        }
+        
+        return userDetails;
+    }
+    
+    /**
+     * Identifica o token na janela de confirmação: jti, ou (tokens antigos
+     * sem jti) username + emissão + roles
+     */
+    private static String confirmationKey(ParsedToken token, String username) {
+        if (token.getTokenId() != null) {
+            return token.getTokenId();
+        }
+        long issuedAt = token.getIssuedAt() != null ? token.getIssuedAt().toEpochMilli() : 0L;
+        return username + ':' + issuedAt + ':' + token.getRoleMask();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+package br.com.glprevenda.security.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Calibra o custo do BCrypt para o hardware onde a aplicação está rodando.
+ *
+ * Cada +1 no strength dobra o tempo do hash. Com strength fixo (12), trocar
+ * de VM mudava a latência do login. Aqui, na inicialização:
+ * 1. Mede o tempo de um hash no strength mínimo
+ * 2. Escolhe o strength cujo tempo estimado chega mais perto do alvo
+ * 3. Limita entre min-strength e max-strength
+ *
+ * O encoder resultante também sinaliza (upgradeEncoding) hashes gravados
+ * abaixo do piso (min-strength) ou sem prefixo {bcrypt}: o DaoAuthenticationProvider
+ * refaz o hash após um login bem-sucedido e grava via UserDetailsPasswordService.
+ *
+ * Só abaixo do piso, não "diferente do calibrado": cada nó (e cada restart)
+ * pode calibrar um strength diferente, e o mesmo hash seria regravado a
+ * cada login que caísse em outro nó (BCrypt extra + escrita no banco).
+ *
+ * @author Ozeias
+ */
+@Slf4j
+public final class PasswordHashCalibrator {
+
+    private static final String BCRYPT_ID = "bcrypt";
+
+    private static final Pattern BCRYPT_STRENGTH = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private static final String CALIBRATION_PASSWORD = "calibracao-glp-erp";
+
+    private PasswordHashCalibrator() {
+    }
+
+    /**
+     * Escolhe o strength do BCrypt para atingir o tempo alvo por hash.
+     *
+     * @param target Tempo alvo por hash (ex: 250ms)
+     * @param minStrength Menor strength aceito (segurança mínima)
+     * @param maxStrength Maior strength aceito (latência máxima)
+     * @return Strength calibrado
+     */
+    public static int calibrateBCryptStrength(Duration target, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+
+        // Primeiro hash aquece o JIT; vale o menor de duas medições
+        probe.encode(CALIBRATION_PASSWORD);
+        long baseNanos = Math.min(timeEncode(probe), timeEncode(probe));
+
+        double ratio = (double) target.toNanos() / Math.max(baseNanos, 1L);
+        int strength = minStrength + (int) Math.round(Math.log(ratio) / Math.log(2));
+        strength = Math.max(minStrength, Math.min(maxStrength, strength));
+
+        log.info("BCrypt calibrado: strength={} (hash com strength {} levou {} ms, alvo {} ms)",
+                strength, minStrength, baseNanos / 1_000_000, target.toMillis());
+
+        return strength;
+    }
+
+    /**
+     * Encoder com prefixo de algoritmo ({bcrypt}...), sem piso de rehash
+     * além do próprio strength.
+     *
+     * @param strength Strength usado para novos hashes
+     * @return PasswordEncoder delegante
+     */
+    public static PasswordEncoder delegatingEncoder(int strength) {
+        return delegatingEncoder(strength, strength);
+    }
+
+    /**
+     * Encoder com prefixo de algoritmo ({bcrypt}...).
+     *
+     * Hashes antigos sem prefixo continuam sendo aceitos no login.
+     *
+     * @param strength Strength usado para novos hashes
+     * @param minStrength Piso: hashes abaixo dele são regravados no login
+     * @return PasswordEncoder delegante
+     */
+    public static PasswordEncoder delegatingEncoder(int strength, int minStrength) {
+        BCryptPasswordEncoder bcrypt = new MinStrengthBCryptPasswordEncoder(strength, Math.min(strength, minStrength));
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(
+                BCRYPT_ID, Map.of(BCRYPT_ID, bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    private static long timeEncode(BCryptPasswordEncoder encoder) {
+        long start = System.nanoTime();
+        encoder.encode(CALIBRATION_PASSWORD);
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * BCrypt que pede rehash só de hashes abaixo do piso configurado
+     * (o padrão do Spring pede para qualquer strength menor que o atual,
+     * que aqui varia com a calibração de cada nó).
+     */
+    static final class MinStrengthBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+        private final int minStrength;
+
+        MinStrengthBCryptPasswordEncoder(int strength, int minStrength) {
+            super(strength);
+            this.minStrength = minStrength;
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            if (encodedPassword == null) {
+                return false;
+            }
+            Matcher matcher = BCRYPT_STRENGTH.matcher(encodedPassword);
+            return matcher.find() && Integer.parseInt(matcher.group(1)) < minStrength;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.glprevenda.security.config;
+
+import java.util.function.Supplier;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Handler do @PreAuthorize/@PostAuthorize que troca a expression root
+ * padrão pela RoleMaskSecurityExpressionRoot (checagem de role por bitmask).
+ *
+ * Configurado em SecurityConfig.methodSecurityExpressionHandler().
+ *
+ * @author Ozeias
+ */
+public class RoleMaskMethodSecurityExpressionHandler extends DefaultMethodSecurityExpressionHandler {
+
+    /**
+     * Caminho usado pelo @EnableMethodSecurity (Spring Security 6)
+     */
+    @Override
+    public EvaluationContext createEvaluationContext(Supplier<Authentication> authentication, MethodInvocation mi) {
+        StandardEvaluationContext context =
+                (StandardEvaluationContext) super.createEvaluationContext(authentication, mi);
+        MethodSecurityExpressionOperations root =
+                (MethodSecurityExpressionOperations) context.getRootObject().getValue();
+        context.setRootObject(new RoleMaskSecurityExpressionRoot(root));
+        return context;
+    }
+
+    /**
+     * Caminho legado (createEvaluationContext com Authentication já resolvida)
+     */
+    @Override
+    protected MethodSecurityExpressionOperations createSecurityExpressionRoot(
+            Authentication authentication, MethodInvocation invocation) {
+        return new RoleMaskSecurityExpressionRoot(super.createSecurityExpressionRoot(authentication, invocation));
+    }
+}
@@ -0,0 +1,171 @@
+package br.com.glprevenda.security.config;
+
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+
+import br.com.glprevenda.security.service.RoleMaskPrincipal;
+import br.com.glprevenda.security.service.RoleRegistry;
+
+/**
+ * Expression root do @PreAuthorize com checagem de role por bitmask.
+ *
+ * hasRole/hasAnyRole/hasAuthority/hasAnyAuthority viram um teste de bit
+ * sobre o bitmask do principal (RoleMaskPrincipal), sem montar o Set de
+ * authorities nem comparar strings. O bitmask é resolvido uma vez por
+ * avaliação.
+ *
+ * Mesma semântica do Spring: hasRole aceita o nome com ou sem ROLE_;
+ * hasAuthority só a authority exata (hasAuthority('ADMIN') ≠ ROLE_ADMIN).
+ *
+ * Roles fora do RoleRegistry (bit 0) e todas as demais expressões
+ * (isAuthenticated, hasPermission, filterObject...) são delegadas à
+ * expression root padrão do Spring Security.
+ *
+ * SecurityExpressionRoot.hasRole é final, por isso a delegação
+ * em vez de herança.
+ *
+ * @author Ozeias
+ */
+class RoleMaskSecurityExpressionRoot implements MethodSecurityExpressionOperations {
+
+    private final MethodSecurityExpressionOperations delegate;
+
+    private long roleMask;
+    private boolean roleMaskResolved;
+
+    RoleMaskSecurityExpressionRoot(MethodSecurityExpressionOperations delegate) {
+        this.delegate = delegate;
+    }
+
+    // ════════════════════════════════════════════════════
+    // CHECAGENS DE ROLE (bitmask)
+    // ════════════════════════════════════════════════════
+
+    @Override
+    public boolean hasRole(String role) {
+        long bit = RoleRegistry.bitOf(role);
+        return bit != 0 ? (roleMask() & bit) != 0 : delegate.hasRole(role);
+    }
+
+    @Override
+    public boolean hasAnyRole(String... roles) {
+        for (String role : roles) {
+            if (hasRole(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean hasAuthority(String authority) {
+        long bit = RoleRegistry.bitOfAuthority(authority);
+        return bit != 0 ? (roleMask() & bit) != 0 : delegate.hasAuthority(authority);
+    }
+
+    @Override
+    public boolean hasAnyAuthority(String... authorities) {
+        for (String authority : authorities) {
+            if (hasAuthority(authority)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Bitmask do principal; principal sem bitmask (ou token antigo,
+     * sem a claim) → calculado uma vez a partir das authorities
+     */
+    private long roleMask() {
+        if (!roleMaskResolved) {
+            Authentication authentication = getAuthentication();
+            long mask = 0L;
+            if (authentication != null) {
+                if (authentication.getPrincipal() instanceof RoleMaskPrincipal principal) {
+                    mask = principal.getRoleMask();
+                }
+                if (mask == 0L) {
+                    mask = RoleRegistry.maskOf(authentication.getAuthorities());
+                }
+            }
+            roleMask = mask;
+            roleMaskResolved = true;
+        }
+        return roleMask;
+    }
+
+    // ════════════════════════════════════════════════════
+    // DEMAIS EXPRESSÕES (delegadas)
+    // ════════════════════════════════════════════════════
+
+    @Override
+    public Authentication getAuthentication() {
+        return delegate.getAuthentication();
+    }
+
+    @Override
+    public boolean permitAll() {
+        return delegate.permitAll();
+    }
+
+    @Override
+    public boolean denyAll() {
+        return delegate.denyAll();
+    }
+
+    @Override
+    public boolean isAnonymous() {
+        return delegate.isAnonymous();
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return delegate.isAuthenticated();
+    }
+
+    @Override
+    public boolean isRememberMe() {
+        return delegate.isRememberMe();
+    }
+
+    @Override
+    public boolean isFullyAuthenticated() {
+        return delegate.isFullyAuthenticated();
+    }
+
+    @Override
+    public boolean hasPermission(Object target, Object permission) {
+        return delegate.hasPermission(target, permission);
+    }
+
+    @Override
+    public boolean hasPermission(Object targetId, String targetType, Object permission) {
+        return delegate.hasPermission(targetId, targetType, permission);
+    }
+
+    @Override
+    public void setFilterObject(Object filterObject) {
+        delegate.setFilterObject(filterObject);
+    }
+
+    @Override
+    public Object getFilterObject() {
+        return delegate.getFilterObject();
+    }
+
+    @Override
+    public void setReturnObject(Object returnObject) {
+        delegate.setReturnObject(returnObject);
+    }
+
+    @Override
+    public Object getReturnObject() {
+        return delegate.getReturnObject();
+    }
+
+    @Override
+    public Object getThis() {
+        return delegate.getThis();
+    }
+}
@@ -1,29 +1,37 @@
 package br.com.glprevenda.security.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org. springframework.security.config.annotation. web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password. PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework. security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors. UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * Configuração de Segurança do Spring Security. 
  * 
@@ -32,7 +40,7 @@ import java.util.List;
  * - Configurar autenticação JWT
  * - Habilitar CORS
  * - Desabilitar CSRF (não precisa com JWT)
- * - Configurar BCrypt para senhas
+ * - Configurar BCrypt para senhas (custo calibrado na inicialização)
  * 
  * @author Ozeias
  */
@@ -44,6 +52,35 @@ public class SecurityConfig {
     
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final UserDetailsService userDetailsService;
+    private final UserDetailsPasswordService userDetailsPasswordService;
+    private final MeterRegistry meterRegistry;
+    
+    /**
+     * Strength fixo do BCrypt (0 = calibrar na inicialização)
+     */
+    @Value("${security.password.bcrypt-strength:0}")
+    private int bcryptStrength;
+    
+    /**
+     * Tempo alvo de um hash BCrypt usado pela calibração
+     */
+    @Value("${security.password.target-hash-time:250ms}")
+    private Duration targetHashTime;
+    
+    @Value("${security.password.min-strength:10}")
+    private int minStrength;
+    
+    @Value("${security.password.max-strength:14}")
+    private int maxStrength;
+    
+    /**
+     * Porta do Actuator (management.server.port), separada da porta pública
+     */
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+    
+    @Value("${server.port:8080}")
+    private int serverPort;
     
     /**
      * Configura a cadeia de filtros de segurança.
@@ -70,8 +107,7 @@ public class SecurityConfig {
                         // Endpoints PÚBLICOS (não precisa autenticação)
                         .requestMatchers(
                                 "/api/auth/**",              // Login, Register, Refresh
-                                "/actuator/health",          // Health check
-                                "/actuator/info",            // Info
+                                "/.well-known/jwks.json",    // Chaves públicas JWT
                                 "/error",                    // Página de erro
                                 "/swagger-ui/**",            // Swagger UI
                                 "/swagger-ui.html",          // Swagger HTML
@@ -80,6 +116,9 @@ public class SecurityConfig {
                                 "/webjars/**"                // Swagger webjars
                         ).permitAll()
                         
+                        // Actuator (health, info, métricas) só na porta de gerenciamento interna
+                        .requestMatchers(actuatorOnManagementPort()).permitAll()
+                        
                         // Endpoints ADMIN (só ROLE_ADMIN)
                         . requestMatchers("/api/admin/**").hasRole("ADMIN")
                         
@@ -101,6 +140,20 @@ public class SecurityConfig {
         return http.build();
     }
     
+    /**
+     * Endpoints do Actuator recebidos na porta de gerenciamento.
+     *
+     * A porta (management.server.port) fica presa à rede interna; se ela não
+     * estiver separada da porta pública, nada é liberado e o Actuator exige
+     * autenticação como o resto da API.
+     */
+    private RequestMatcher actuatorOnManagementPort() {
+        RequestMatcher onManagementPort = request ->
+                managementPort > 0 && managementPort != serverPort
+                        && request.getLocalPort() == managementPort;
+        return new AndRequestMatcher(EndpointRequest.toAnyEndpoint(), onManagementPort);
+    }
+    
     /**
      * Configura CORS (Cross-Origin Resource Sharing).
      * 
@@ -127,6 +180,9 @@ public class SecurityConfig {
         // Headers permitidos
         configuration.setAllowedHeaders(List.of("*"));
         
+        // Headers de resposta legíveis pelo frontend (DevTools já mostra sem isso)
+        configuration.setExposedHeaders(List.of("Server-Timing"));
+        
         // Permite enviar cookies/credenciais
         configuration.setAllowCredentials(true);
         
@@ -143,15 +199,31 @@ public class SecurityConfig {
      * Responsável por: 
      * - Carregar usuário do banco (UserDetailsService)
      * - Validar senha (PasswordEncoder)
+     * - Regravar hash com parâmetros antigos após login (UserDetailsPasswordService)
      */
     @Bean
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
         return authProvider;
     }
     
+    /**
+     * Handler das expressões do @PreAuthorize.
+     * 
+     * hasRole()/hasAuthority() viram teste de bit sobre o bitmask de roles
+     * do usuário (ver RoleRegistry), sem alocação por checagem.
+     * 
+     * static: o Spring recomenda para beans de infraestrutura da
+     * method security (evita inicializar SecurityConfig cedo demais).
+     */
+    @Bean
+    static MethodSecurityExpressionHandler methodSecurityExpressionHandler() {
+        return new RoleMaskMethodSecurityExpressionHandler();
+    }
+    
     /**
      * Bean do AuthenticationManager.
      * 
@@ -171,10 +243,18 @@ public class SecurityConfig {
      * - Extremamente difícil de reverter
      * - Resistente a rainbow tables
      * 
-     * Strength 12 = bom equilíbrio segurança/performance
+     * Strength calibrado na inicialização para o tempo alvo
+     * (security.password.target-hash-time), ou fixo via bcrypt-strength.
+     * Hashes abaixo de min-strength são regravados no próximo login
+     * (só abaixo do piso: nós calibrados diferente não regravam entre si).
+     * 
+     * Cada encode/matches é medido (auth.password.bcrypt).
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+        int strength = bcryptStrength > 0
+                ? bcryptStrength
+                : PasswordHashCalibrator.calibrateBCryptStrength(targetHashTime, minStrength, maxStrength);
+        return new TimedPasswordEncoder(PasswordHashCalibrator.delegatingEncoder(strength, minStrength), meterRegistry);
     }
 }
\ No newline at end of file
@@ -4,9 +4,11 @@ import br.com.glprevenda.security.dto.AuthResponse;
 import br.com.glprevenda.security.dto. LoginRequest;
 import br.com.glprevenda.security. dto.RegisterRequest;
 import br.com.glprevenda. security.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework. http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -31,6 +33,7 @@ import br.com.glprevenda.security.dto.RefreshTokenRequest;
  * - POST /api/auth/register → Registrar novo usuário
  * - POST /api/auth/login → Fazer login
  * - POST /api/auth/refresh → Renovar token
+ * - POST /api/auth/logout → Revogar tokens da sessão
  * 
  * @author Ozeias
  */
@@ -80,11 +83,13 @@ public class AuthController {
     	    @ApiResponse(responseCode = "400", description = "Dados inválidos (username/email já existe)")
     	})
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
+    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request,
+                                                 HttpServletRequest httpRequest) {
         log.info("Requisição de registro:    username={}, email={}", 
                 request.getUsername(), request.getEmail());
         
-        AuthResponse response = authService.register(request);
+        AuthResponse response = authService.register(
+                request, httpRequest.getRemoteAddr(), httpRequest.getHeader(HttpHeaders.USER_AGENT));
         
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
@@ -119,13 +124,16 @@ public class AuthController {
     	)
     	@ApiResponses({
     	    @ApiResponse(responseCode = "200", description = "Login realizado com sucesso"),
-    	    @ApiResponse(responseCode = "401", description = "Credenciais inválidas")
+    	    @ApiResponse(responseCode = "401", description = "Credenciais inválidas ou conta bloqueada"),
+    	    @ApiResponse(responseCode = "429", description = "Muitas tentativas de login (header Retry-After)")
     	})
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request,
+                                              HttpServletRequest httpRequest) {
         log.info("Tentativa de login:  {}", request.getUsernameOrEmail());
         
-        AuthResponse response = authService. login(request);
+        AuthResponse response = authService.login(
+                request, httpRequest.getRemoteAddr(), httpRequest.getHeader(HttpHeaders.USER_AGENT));
         
         return ResponseEntity.ok(response);
     }
@@ -177,4 +185,32 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Logout: encerra a sessão do access token (header Authorization) e,
+     * se enviado, revoga o refresh token.
+     * 
+     * @param httpRequest Requisição (header Authorization: Bearer ...)
+     * @param request Refresh token (opcional)
+     * @return 204, mesmo para tokens já expirados/inválidos
+     */
+    @Operation(
+            summary = "Fazer logout",
+            description = "Revoga o access token até expirar e a família do refresh token informado"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Tokens revogados"),
+            @ApiResponse(responseCode = "401", description = "Header Authorization ausente")
+    })
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(HttpServletRequest httpRequest,
+                                       @RequestBody(required = false) RefreshTokenRequest request) {
+        String authHeader = httpRequest.getHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
+        authService.logout(authHeader.substring(7), request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.noContent().build();
+    }
+}
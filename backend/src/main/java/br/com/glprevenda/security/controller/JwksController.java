@@ -0,0 +1,95 @@
+package br.com.glprevenda.security.controller;
+
+import br.com.glprevenda.security.service.JwtKeyRing;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Publica as chaves públicas de verificação dos JWT (JWKS, RFC 7517).
+ * 
+ * Endpoint público:
+ * - GET /.well-known/jwks.json → Chaves ES256 ativas
+ * 
+ * Outros serviços (BFF do app do motorista, worker de relatórios) baixam
+ * o JWKS, guardam em cache e verificam os tokens localmente.
+ * 
+ * O corpo é montado UMA vez (as chaves só mudam com restart) e servido
+ * com Cache-Control longo + ETag. Quem encontrar um kid desconhecido
+ * deve recarregar antes de recusar o token (rotação de chave).
+ * 
+ * @author Ozeias
+ */
+@Slf4j
+@RestController
+@Tag(name = "Autenticação", description = "Endpoints para login, registro e refresh token")
+public class JwksController {
+    
+    public static final MediaType JWK_SET_JSON = MediaType.parseMediaType("application/jwk-set+json");
+    
+    private final byte[] body;
+    private final String etag;
+    private final CacheControl cacheControl;
+    
+    public JwksController(
+            JwtKeyRing keyRing,
+            ObjectMapper objectMapper,
+            @Value("${security.jwt.jwks.max-age:24h}") Duration maxAge
+    ) throws JsonProcessingException {
+        this.body = objectMapper.writeValueAsBytes(Map.of("keys", keyRing.getPublicJwks()));
+        this.etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+        
+        log.info("JWKS publicado: {} chaves, max-age={}", keyRing.getPublicJwks().size(), maxAge);
+    }
+    
+    /**
+     * Chaves públicas de verificação.
+     * 
+     * GET /.well-known/jwks.json
+     * 
+     * @param ifNoneMatch ETag já em cache no cliente
+     * @return JWKS, ou 304 se o cliente já tem a versão atual
+     */
+    @Operation(
+            summary = "Chaves públicas JWT (JWKS)",
+            description = "Chaves ES256 para verificar access tokens localmente"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "JWKS"),
+            @ApiResponse(responseCode = "304", description = "JWKS em cache ainda é o atual")
+    })
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<byte[]> jwks(
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        
+        return ResponseEntity.ok()
+                .contentType(JWK_SET_JSON)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(body);
+    }
+}
@@ -1,16 +1,24 @@
 package br.com.glprevenda.security.controller;
 
+import br.com.glprevenda.security.dto.SessionResponse;
 import br.com.glprevenda.security.dto.UserResponse;
 import br.com. glprevenda.security.entity.User;
 import br.com.glprevenda.security. repository.UserRepository;
 import br.com.glprevenda. security.service.AuthService;
+import br.com.glprevenda.security.service.SessionRegistry;
+import br.com.glprevenda.security.service.UserExportService;
+import br.com.glprevenda.shared.dto.CursorPage;
 import br.com.glprevenda. shared.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework. security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web. bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -18,7 +26,7 @@ import io.swagger. v3.oas.annotations. security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.UUID;
 
 /**
  * Controller para gerenciamento de usuários.
@@ -26,7 +34,11 @@ import java.util.stream.Collectors;
  * Endpoints: 
  * - GET /api/users/me → Ver perfil do usuário logado (autenticado)
  * - GET /api/admin/users → Listar todos os usuários (só ADMIN)
+ * - GET /api/admin/users/search → Buscar usuários por nome/email (só ADMIN)
+ * - GET /api/admin/users/export → Exportar usuários em NDJSON/CSV (só ADMIN)
  * - GET /api/admin/users/{id} → Ver usuário específico (só ADMIN)
+ * - GET /api/admin/users/{id}/sessions → Dispositivos logados (só ADMIN)
+ * - DELETE /api/admin/users/{id}/sessions/{sessionId} → Encerrar sessão (só ADMIN)
  * 
  * @author Ozeias
  */
@@ -38,6 +50,15 @@ public class UserController {
     
     private final UserRepository userRepository;
     private final AuthService authService;
+    private final UserExportService userExportService;
+    private final SessionRegistry sessionRegistry;
+    
+    private static final int MAX_PAGE_SIZE = 200;
+    
+    /**
+     * Trigramas só filtram pelo índice a partir de 3 caracteres
+     */
+    private static final int MIN_SEARCH_LENGTH = 3;
     
     /**
      * Ver perfil do usuário logado. 
@@ -74,33 +95,52 @@ public class UserController {
     	})
     @GetMapping("/api/users/me")
     public ResponseEntity<UserResponse> getCurrentUser(
-            @AuthenticationPrincipal User currentUser
+            @AuthenticationPrincipal UserDetails currentUser
     ) {
         log.debug("Buscando perfil do usuário:  {}", currentUser.getUsername());
         
-        UserResponse response = authService.toUserResponse(currentUser);
+        // No modo stateless o principal vem do token (JwtPrincipal), sem email/nome
+        User user = currentUser instanceof User entity
+                ? entity
+                : userRepository.findByUsername(currentUser.getUsername())
+                        .orElseThrow(() -> new ResourceNotFoundException(
+                                "User", "username", currentUser.getUsername()));
+        
+        UserResponse response = authService.toUserResponse(user);
         
         return ResponseEntity.ok(response);
     }
     
     /**
-     * Listar todos os usuários (só ADMIN).
+     * Listar usuários (só ADMIN), paginado por cursor.
      * 
-     * GET /api/admin/users
+     * GET /api/admin/users?size=50
+     * GET /api/admin/users?cursor=50&size=50 → próxima página
      * 
      * Header:
      * Authorization: Bearer {accessToken}
      * 
      * Requer role:  ROLE_ADMIN
      * 
-     * Retorna lista de usuários. 
+     * Retorna:
+     * {
+     *   "success": true,
+     *   "data": {
+     *     "items": [ { "id": 1, "username": "ozeias", "roles": ["ROLE_ADMIN"], ... } ],
+     *     "nextCursor": 50,
+     *     "hasNext": true,
+     *     "size": 50
+     *   }
+     * }
      * 
-     * @return Lista de usuários
+     * @param cursor Último ID da página anterior (ausente = primeira página)
+     * @param size Itens por página (1 a 200)
+     * @return Página de usuários
      */
     
     @Operation(
-    	    summary = "Listar todos os usuários (ADMIN)",
-    	    description = "Retorna lista completa de usuários.  Requer role ROLE_ADMIN.",
+    	    summary = "Listar usuários (ADMIN)",
+    	    description = "Retorna usuários paginados por cursor (nextCursor).  Requer role ROLE_ADMIN.",
     	    security = @SecurityRequirement(name = "Bearer Authentication")
     	)
     	@ApiResponses({
@@ -110,15 +150,120 @@ public class UserController {
     	})
     @GetMapping("/api/admin/users")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        log.info("Admin listando todos os usuários");
+    public ResponseEntity<br.com.glprevenda.shared.dto.ApiResponse<CursorPage<UserResponse>>> getAllUsers(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        log.info("Admin listando usuários: cursor={}, size={}", cursor, size);
+        
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        
+        // Busca 1 a mais para saber se existe próxima página
+        List<UserResponse> users = userRepository.findPageAfter(
+                cursor != null ? cursor : 0L, PageRequest.ofSize(pageSize + 1));
+        
+        // ApiResponse do Swagger já está importado: DTO com nome completo
+        return ResponseEntity.ok(br.com.glprevenda.shared.dto.ApiResponse.success(
+                CursorPage.of(users, pageSize, UserResponse::getId)));
+    }
+    
+    /**
+     * Buscar usuários por parte do nome ou email (só ADMIN).
+     * 
+     * GET /api/admin/users/search?q=silva&page=0&size=20
+     * 
+     * Header:
+     * Authorization: Bearer {accessToken}
+     * 
+     * Resultados mais parecidos primeiro (similaridade de trigramas).
+     * 
+     * Requer role: ROLE_ADMIN
+     * 
+     * @param q Texto buscado (mínimo 3 caracteres)
+     * @param page Página (0 = primeira)
+     * @param size Tamanho da página (máximo 200)
+     * @return Usuários encontrados, em ordem de relevância
+     */
+    
+    @Operation(
+    	    summary = "Buscar usuários (ADMIN)",
+    	    description = "Busca por parte do nome ou email, ordenada por similaridade.  Requer role ROLE_ADMIN.",
+    	    security = @SecurityRequirement(name = "Bearer Authentication")
+    	)
+    	@ApiResponses({
+    	    @ApiResponse(responseCode = "200", description = "Busca realizada"),
+    	    @ApiResponse(responseCode = "400", description = "Texto com menos de 3 caracteres"),
+    	    @ApiResponse(responseCode = "401", description = "Não autenticado"),
+    	    @ApiResponse(responseCode = "403", description = "Sem permissão (não é ADMIN)")
+    	})
+    @GetMapping("/api/admin/users/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<br.com.glprevenda.shared.dto.ApiResponse<List<UserResponse>>> searchUsers(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        String search = q.trim();
+        if (search.length() < MIN_SEARCH_LENGTH) {
+            return ResponseEntity.badRequest().body(br.com.glprevenda.shared.dto.ApiResponse.error(
+                    "Informe pelo menos " + MIN_SEARCH_LENGTH + " caracteres para buscar"));
+        }
+        
+        log.info("Admin buscando usuários: q={}, page={}, size={}", search, page, size);
+        
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<UserResponse> users = userRepository.searchRanked(
+                search, PageRequest.of(Math.max(page, 0), pageSize));
+        
+        return ResponseEntity.ok(br.com.glprevenda.shared.dto.ApiResponse.success(users));
+    }
+    
+    /**
+     * Exportar todos os usuários (só ADMIN).
+     * 
+     * GET /api/admin/users/export?format=ndjson
+     * GET /api/admin/users/export?format=csv
+     * 
+     * Header:
+     * Authorization: Bearer {accessToken}
+     * 
+     * Resposta em streaming (download): as linhas são escritas
+     * conforme saem do banco, sem montar a lista em memória.
+     * 
+     * Requer role: ROLE_ADMIN
+     * 
+     * @param format ndjson (padrão) ou csv
+     * @return Arquivo users.ndjson / users.csv
+     */
+    
+    @Operation(
+    	    summary = "Exportar usuários (ADMIN)",
+    	    description = "Exporta todos os usuários e roles em NDJSON ou CSV (streaming).  Requer role ROLE_ADMIN.",
+    	    security = @SecurityRequirement(name = "Bearer Authentication")
+    	)
+    	@ApiResponses({
+    	    @ApiResponse(responseCode = "200", description = "Exportação iniciada"),
+    	    @ApiResponse(responseCode = "400", description = "Formato inválido"),
+    	    @ApiResponse(responseCode = "401", description = "Não autenticado"),
+    	    @ApiResponse(responseCode = "403", description = "Sem permissão (não é ADMIN)")
+    	})
+    @GetMapping("/api/admin/users/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(defaultValue = "ndjson") String format
+    ) {
+        UserExportService.Format exportFormat = UserExportService.Format.from(format).orElse(null);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest().build();
+        }
         
-        List<UserResponse> users = userRepository.findAll()
-                .stream()
-                .map(authService::toUserResponse)
-                .collect(Collectors.toList());
+        log.info("Admin exportando usuários: format={}", exportFormat);
         
-        return ResponseEntity.ok(users);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"users." + exportFormat.getExtension() + "\"")
+                .body(userExportService.export(exportFormat));
     }
     
     /**
@@ -158,4 +303,83 @@ public class UserController {
         
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Sessões ativas de um usuário (só ADMIN).
+     * 
+     * GET /api/admin/users/{id}/sessions
+     * 
+     * Retorna (mais recentes primeiro):
+     * [
+     *   {
+     *     "id": "0b6c2d1e-...",
+     *     "device": "GLP Motorista/2.3 (Android 14)",
+     *     "ipAddress": "10.0.0.1",
+     *     "createdAt": "2024-01-01T08:00:00",
+     *     "lastSeenAt": "2024-01-01T10:15:30",
+     *     "expiresAt": "2024-01-08T10:00:00"
+     *   }
+     * ]
+     * 
+     * lastSeenAt tem atraso de alguns segundos (gravação em lote).
+     * 
+     * @param id ID do usuário
+     * @return Sessões ativas
+     */
+    @Operation(
+            summary = "Listar sessões do usuário (ADMIN)",
+            description = "Dispositivos logados com IP e último acesso. Requer role ROLE_ADMIN.",
+            security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Sessões retornadas"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Sem permissão"),
+            @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
+    })
+    @GetMapping("/api/admin/users/{id}/sessions")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<SessionResponse>> getUserSessions(@PathVariable Long id) {
+        log.info("Admin listando sessões: userId={}", id);
+        
+        if (!userRepository.existsById(id)) {
+            throw new ResourceNotFoundException("User", id);
+        }
+        
+        return ResponseEntity.ok(sessionRegistry.list(id));
+    }
+    
+    /**
+     * Encerrar uma sessão (só ADMIN): o dispositivo perde o acesso na hora
+     * (access tokens recusados, refresh token revogado). Nos demais nós,
+     * em até security.jwt.revocation.poll-interval.
+     * 
+     * DELETE /api/admin/users/{id}/sessions/{sessionId}
+     * 
+     * @param id ID do usuário
+     * @param sessionId ID da sessão
+     * @return 204 No Content
+     */
+    @Operation(
+            summary = "Encerrar sessão do usuário (ADMIN)",
+            description = "Revoga a sessão e todos os tokens dela. Requer role ROLE_ADMIN.",
+            security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Sessão encerrada"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Sem permissão"),
+            @ApiResponse(responseCode = "404", description = "Sessão ativa não encontrada para o usuário")
+    })
+    @DeleteMapping("/api/admin/users/{id}/sessions/{sessionId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> revokeUserSession(@PathVariable Long id, @PathVariable UUID sessionId) {
+        log.info("Admin encerrando sessão: userId={}, sessão={}", id, sessionId);
+        
+        if (!sessionRegistry.revoke(id, sessionId)) {
+            throw new ResourceNotFoundException("Session", sessionId.toString());
+        }
+        
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.glprevenda.security.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO de resposta com uma sessão ativa (dispositivo logado).
+ * 
+ * Usado em:
+ * - GET /api/admin/users/{id}/sessions
+ * 
+ * @author Ozeias
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionResponse {
+    
+    private UUID id;
+    private String device;
+    private String ipAddress;
+    private LocalDateTime createdAt;
+    private LocalDateTime lastSeenAt;
+    private LocalDateTime expiresAt;
+}
@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
@@ -13,7 +15,7 @@ import java.util.Set;
  * 
  * Usado em: 
  * - GET /api/users/me (ver perfil)
- * - GET /api/admin/users (listar usuários)
+ * - GET /api/admin/users (listar usuários, paginado por cursor)
  * 
  * NÃO expõe a senha (segurança!)
  * 
@@ -33,4 +35,19 @@ public class UserResponse {
     private Set<String> roles;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    
+    /**
+     * Construtor da projeção JPQL (UserRepository.USER_RESPONSE_PROJECTION):
+     * roles chegam agregadas em uma string separada por vírgula
+     * 
+     * @param roleNames Ex: "ROLE_ADMIN,ROLE_VENDEDOR" (null = sem roles)
+     */
+    public UserResponse(Long id, String username, String email, String fullName, Boolean active,
+                        String roleNames, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, username, email, fullName, active,
+                roleNames == null || roleNames.isEmpty()
+                        ? new LinkedHashSet<>()
+                        : new LinkedHashSet<>(Arrays.asList(roleNames.split(","))),
+                createdAt, updatedAt);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package br.com.glprevenda.security.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Registro de um refresh token emitido (tabela refresh_tokens).
+ * 
+ * O JWT carrega só o jti; aqui fica o estado do token:
+ * - usedAt → já foi trocado por outro (rotação)
+ * - revokedAt → família revogada (reuso de token detectado)
+ * 
+ * Família = todos os tokens gerados a partir do mesmo login.
+ * 
+ * @author Ozeias
+ */
+@Entity
+@Table(name = "refresh_tokens")
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshToken {
+    
+    /**
+     * Claim jti do JWT
+     */
+    @Id
+    private UUID jti;
+    
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    @Column(name = "used_at")
+    private LocalDateTime usedAt;
+    
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+}
@@ -0,0 +1,61 @@
+package br.com.glprevenda.security.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Access token revogado antes de expirar (tabela revoked_tokens).
+ * 
+ * Também guarda sessões revogadas (whole_session = true, jti = ID da sessão).
+ * 
+ * Fonte exata da AccessTokenDenylist: os filtros de Bloom em memória
+ * só dizem "talvez revogado"; a confirmação é feita aqui.
+ * 
+ * @author Ozeias
+ */
+@Entity
+@Table(name = "revoked_tokens")
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+    
+    /**
+     * Claim jti do JWT
+     */
+    @Id
+    private UUID jti;
+    
+    @Column(name = "user_id")
+    private Long userId;
+    
+    /**
+     * Expiração original do token
+     */
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+    
+    /**
+     * true = jti é o ID de uma sessão (claim sid): derruba todos os
+     * access tokens da sessão
+     */
+    @Column(name = "whole_session", nullable = false)
+    private boolean wholeSession;
+}
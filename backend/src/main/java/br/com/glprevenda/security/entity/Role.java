@@ -43,7 +43,7 @@ import lombok.ToString;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, RoleEntityListener.class})
 public class Role {
     
     @Id
@@ -72,6 +72,8 @@ public class Role {
      * 
      * ⚠️ Usar Set (não List) para evitar duplicatas
      * ⚠️ @Builder. Default para inicializar vazio
+     * ⚠️ Somente leitura: inicializar carrega TODOS os usuários da role.
+     *    Vínculos são gravados pelo lado dono (User.addRole/removeRole)
      */
     @ManyToMany(mappedBy = "roles")
     @Builder.Default
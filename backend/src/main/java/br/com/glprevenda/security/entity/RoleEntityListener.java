@@ -0,0 +1,32 @@
+package br.com.glprevenda.security.entity;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import br.com.glprevenda.security.event.RoleChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Listener JPA da entidade Role.
+ *
+ * Publica RoleChangedEvent após INSERT/UPDATE/DELETE para que o
+ * RoleRegistry recarregue as roles em memória.
+ *
+ * @author Ozeias
+ */
+@Component
+@RequiredArgsConstructor
+public class RoleEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onRoleChanged(Role role) {
+        eventPublisher.publishEvent(new RoleChangedEvent(role.getId(), role.getName()));
+    }
+}
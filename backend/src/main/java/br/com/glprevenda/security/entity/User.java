@@ -4,15 +4,15 @@ import java.time.LocalDateTime;
 import java. util.Collection;
 import java.util.HashSet;
 import java.util. Set;
-import java.util. stream.Collectors;
 
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import br.com.glprevenda.security.service.RoleMaskPrincipal;
+import br.com.glprevenda.security.service.RoleRegistry;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
@@ -48,8 +48,8 @@ import lombok.ToString;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
-public class User implements UserDetails {
+@EntityListeners({AuditingEntityListener.class, UserEntityListener.class})
+public class User implements UserDetails, RoleMaskPrincipal {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -75,6 +75,23 @@ public class User implements UserDetails {
     @Builder.Default
     private Boolean active = true;
     
+    // ════════════════════════════════════════════════════
+    // BLOQUEIO POR TENTATIVAS DE LOGIN
+    // ════════════════════════════════════════════════════
+    
+    /**
+     * Senhas erradas seguidas (zerado no login bem-sucedido ou ao bloquear)
+     */
+    @Column(name = "failed_login_attempts", nullable = false)
+    @Builder.Default
+    private Integer failedLoginAttempts = 0;
+    
+    /**
+     * Conta bloqueada até este instante (null = não bloqueada)
+     */
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+    
     // ════════════════════════════════════════════════════
     // RELACIONAMENTO COM ROLES (N:N)
     // ════════════════════════════════════════════════════
@@ -118,13 +135,28 @@ public class User implements UserDetails {
      * Retorna as permissões (authorities) do usuário
      * Converte Set<Role> em Collection<GrantedAuthority>
      * 
+     * Vem pronto do RoleRegistry: o Set imutável do bitmask das roles
+     * (sem alocar um HashSet e SimpleGrantedAuthority novos a cada chamada).
+     * 
      * Spring Security usa isso para verificar @PreAuthorize, hasRole(), etc.
      */
     @Override
-    public Collection<? extends GrantedAuthority> getAuthorities() { // Converte roles em GrantedAuthority
-        return roles.stream() // Stream de roles
-                .map(role -> new SimpleGrantedAuthority(role.getName())) // Converte cada Role em SimpleGrantedAuthority
-                .collect(Collectors.toSet()); // Coleta em um Set
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return RoleRegistry.authoritiesOf(roles);
+    }
+    
+    /**
+     * Bitmask das roles (bit = ID da role, ver RoleRegistry)
+     * 
+     * Vai para o JWT (claim roleMask) e é usado nas checagens do @PreAuthorize.
+     */
+    @Override
+    public long getRoleMask() {
+        long mask = 0L;
+        for (Role role : roles) {
+            mask |= RoleRegistry.bitOf(role.getId());
+        }
+        return mask;
     }
     
     /**
@@ -138,11 +170,12 @@ public class User implements UserDetails {
     
     /**
      * A conta está bloqueada?
-     * Retornamos true = nunca bloqueia
+     * Bloqueada enquanto locked_until estiver no futuro
+     * (gravado pelo AccountLockoutService após falhas seguidas)
      */
     @Override
     public boolean isAccountNonLocked() {
-        return true;
+        return lockedUntil == null || !lockedUntil.isAfter(LocalDateTime.now());
     }
     
     /**
@@ -171,24 +204,36 @@ public class User implements UserDetails {
     
     /**
      * Adiciona uma role ao usuário
+     * 
+     * Só altera o lado dono (User.roles → linha em user_roles).
+     * Role.users NÃO é tocado: acessar essa coleção faz o Hibernate
+     * carregar todos os usuários da role (ex: todos os vendedores).
+     * 
+     * Não dispara o @PostUpdate (só a coleção muda): quem alterar roles
+     * publica o UserChangedEvent. O cadastro não passa por aqui: o vínculo
+     * é gravado no mesmo insert do usuário (UserRepository.insertWithRole).
      */
     public void addRole(Role role) {
         this.roles.add(role); // Adiciona a role ao conjunto de roles do usuário
-        role.getUsers().add(this); // Adiciona o usuário ao conjunto de usuários da role
     }
     
     /**
-     * Remove uma role do usuário
+     * Remove uma role do usuário (apenas o lado dono, ver addRole)
      */
     public void removeRole(Role role) {
         this.roles.remove(role);
-        role.getUsers().remove(this);
     }
     
     /**
      * Verifica se o usuário tem uma role específica
+     * 
+     * Role conhecida pelo RoleRegistry → teste de bit; senão, busca pelo nome.
      */
     public boolean hasRole(String roleName) {
+        long bit = RoleRegistry.bitOf(roleName);
+        if (bit != 0) {
+            return (getRoleMask() & bit) != 0;
+        }
         return roles. stream()
                 .anyMatch(role -> role.getName().equals(roleName)); // Verifica se alguma role tem o nome especificado
     }
@@ -0,0 +1,34 @@
+package br.com.glprevenda.security.entity;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import br.com.glprevenda.security.event.UserChangedEvent;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Listener JPA da entidade User.
+ *
+ * Publica UserChangedEvent após UPDATE/DELETE para que os caches de
+ * usuário sejam invalidados (ex: motorista desativado perde acesso na hora).
+ *
+ * É um bean Spring: o Hibernate obtém a instância pelo SpringBeanContainer
+ * configurado pelo Spring Boot.
+ *
+ * @author Ozeias
+ */
+@Component
+@RequiredArgsConstructor
+public class UserEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        eventPublisher.publishEvent(
+                new UserChangedEvent(user.getId(), user.getUsername(), user.getEmail()));
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.glprevenda.security.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Sessão de um usuário em um dispositivo (tabela user_sessions).
+ * 
+ * Uma sessão = uma família de refresh tokens: o ID é o mesmo
+ * refresh_tokens.family_id e vai no access token (claim sid).
+ * 
+ * @author Ozeias
+ */
+@Entity
+@Table(name = "user_sessions")
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSession {
+    
+    @Id
+    private UUID id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    /**
+     * User-Agent do login
+     */
+    @Column(length = 255)
+    private String device;
+    
+    @Column(name = "ip_address", length = 45)
+    private String ipAddress;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    /**
+     * Última requisição autenticada (write-behind, ver SessionRegistry)
+     */
+    @Column(name = "last_seen_at", nullable = false)
+    private LocalDateTime lastSeenAt;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+}
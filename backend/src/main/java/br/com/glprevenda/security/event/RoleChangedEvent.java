@@ -0,0 +1,16 @@
+package br.com.glprevenda.security.event;
+
+/**
+ * Evento publicado quando uma role é criada, alterada ou removida.
+ *
+ * Consumido pelo RoleRegistry para recarregar o mapa de roles.
+ *
+ * Publicado automaticamente pelo RoleEntityListener em operações via JPA.
+ *
+ * @param roleId ID da role
+ * @param name Nome atual da role
+ *
+ * @author Ozeias
+ */
+public record RoleChangedEvent(Long roleId, String name) {
+}
@@ -0,0 +1,24 @@
+package br.com.glprevenda.security.event;
+
+/**
+ * Evento publicado quando dados de um usuário que afetam a autenticação
+ * mudam (active, roles, senha, username/email) ou o usuário é removido.
+ *
+ * Consumido pelos caches de usuário para invalidar as entradas na hora.
+ *
+ * Publicado automaticamente pelo UserEntityListener em updates via JPA.
+ * Updates em lote (JPQL/SQL nativo) não passam pelo listener: quem fizer
+ * esse tipo de update deve publicar o evento manualmente.
+ *
+ * O evento é local ao nó. Os outros nós percebem a alteração por
+ * users.updated_at (UserDetailsCache.pollChanges): quem altera active,
+ * senha ou bloqueio fora do JPA também avança updated_at.
+ *
+ * @param userId ID do usuário
+ * @param username Username atual
+ * @param email Email atual
+ *
+ * @author Ozeias
+ */
+public record UserChangedEvent(Long userId, String username, String email) {
+}
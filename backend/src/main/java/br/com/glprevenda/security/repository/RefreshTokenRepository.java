@@ -0,0 +1,112 @@
+package br.com.glprevenda.security.repository;
+
+import br.com.glprevenda.security.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository dos refresh tokens emitidos (rotação e revogação).
+ * 
+ * @author Ozeias
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
+    
+    /**
+     * Resultado da rotação: família e dono do token trocado
+     */
+    interface RotatedToken {
+        UUID getFamilyId();
+        Long getUserId();
+    }
+    
+    /**
+     * Registra um refresh token emitido
+     * 
+     * SQL executado:
+     * INSERT INTO refresh_tokens (jti, family_id, user_id, expires_at) VALUES (?, ?, ?, ?)
+     * 
+     * (Sem save(): com ID atribuído, save() faria um SELECT antes do INSERT)
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO refresh_tokens (jti, family_id, user_id, expires_at) " +
+                   "VALUES (:jti, :familyId, :userId, :expiresAt)",
+           nativeQuery = true)
+    int insert(@Param("jti") UUID jti,
+               @Param("familyId") UUID familyId,
+               @Param("userId") Long userId,
+               @Param("expiresAt") LocalDateTime expiresAt);
+    
+    /**
+     * Troca o token usado por um novo da mesma família em UM comando (CTE).
+     * 
+     * O UPDATE só pega token ainda não usado, não revogado e não expirado,
+     * e trava a linha: duas trocas simultâneas do mesmo token → só uma vence.
+     * 
+     * SQL executado:
+     * WITH used AS (UPDATE refresh_tokens SET used_at = ? WHERE jti = ? AND ... RETURNING family_id, user_id)
+     *    , extended AS (UPDATE user_sessions SET expires_at = ?, last_seen_at = ? WHERE id = family_id)
+     * INSERT INTO refresh_tokens (...) SELECT ?, family_id, user_id, ? FROM used RETURNING family_id, user_id
+     * 
+     * A sessão (user_sessions) tem a validade estendida no mesmo comando.
+     * 
+     * @param jti Token apresentado
+     * @param newJti Token novo
+     * @param newExpiresAt Expiração do token novo
+     * @param now Instante da troca
+     * @return Família e usuário, se a troca aconteceu
+     */
+    @Transactional
+    @Query(value = "WITH used AS ( " +
+                   "  UPDATE refresh_tokens SET used_at = :now " +
+                   "  WHERE jti = :jti AND used_at IS NULL AND revoked_at IS NULL AND expires_at > :now " +
+                   "  RETURNING family_id, user_id " +
+                   "), extended AS ( " +
+                   "  UPDATE user_sessions SET expires_at = :newExpiresAt, last_seen_at = :now " +
+                   "  WHERE id = (SELECT family_id FROM used) " +
+                   ") " +
+                   "INSERT INTO refresh_tokens (jti, family_id, user_id, expires_at) " +
+                   "SELECT :newJti, family_id, user_id, :newExpiresAt FROM used " +
+                   "RETURNING family_id AS familyId, user_id AS userId",
+           nativeQuery = true)
+    Optional<RotatedToken> rotate(@Param("jti") UUID jti,
+                                  @Param("newJti") UUID newJti,
+                                  @Param("newExpiresAt") LocalDateTime newExpiresAt,
+                                  @Param("now") LocalDateTime now);
+    
+    /**
+     * Revoga todos os tokens ainda não revogados da família
+     * 
+     * @param familyId Família do token reutilizado
+     * @param now Instante da revogação
+     * @return Quantidade de tokens revogados
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now " +
+           "WHERE t.familyId = :familyId AND t.revokedAt IS NULL")
+    int revokeFamily(@Param("familyId") UUID familyId, @Param("now") LocalDateTime now);
+    
+    /**
+     * Apaga até :batchSize refresh tokens expirados (um lote = uma transação curta)
+     * 
+     * @return Quantidade apagada (< batchSize → acabou)
+     * @see UserSessionRepository#deleteExpiredBatch
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM refresh_tokens WHERE jti IN ( " +
+                   "  SELECT jti FROM refresh_tokens WHERE expires_at < :now " +
+                   "  LIMIT :batchSize FOR UPDATE SKIP LOCKED)",
+           nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+}
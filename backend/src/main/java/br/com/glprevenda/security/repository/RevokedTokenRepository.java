@@ -0,0 +1,71 @@
+package br.com.glprevenda.security.repository;
+
+import br.com.glprevenda.security.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository dos access tokens revogados.
+ * 
+ * @author Ozeias
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, UUID> {
+    
+    /**
+     * Registra a revogação (idempotente: revogar de novo não faz nada)
+     * 
+     * SQL executado:
+     * INSERT INTO revoked_tokens (...) VALUES (...) ON CONFLICT (jti) DO NOTHING
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO revoked_tokens (jti, user_id, expires_at, revoked_at, whole_session) " +
+                   "VALUES (:jti, :userId, :expiresAt, :now, :wholeSession) " +
+                   "ON CONFLICT (jti) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("jti") UUID jti,
+                       @Param("userId") Long userId,
+                       @Param("expiresAt") LocalDateTime expiresAt,
+                       @Param("now") LocalDateTime now,
+                       @Param("wholeSession") boolean wholeSession);
+    
+    /**
+     * Revogações ainda relevantes (token não expirou)
+     * 
+     * SQL gerado:
+     * SELECT * FROM revoked_tokens WHERE expires_at > ?
+     */
+    List<RevokedToken> findByExpiresAtAfter(LocalDateTime now);
+    
+    /**
+     * Revogações novas, ainda relevantes (leitura periódica de cada nó)
+     * 
+     * SQL gerado:
+     * SELECT * FROM revoked_tokens WHERE revoked_at > ? AND expires_at > ?
+     */
+    List<RevokedToken> findByRevokedAtAfterAndExpiresAtAfter(LocalDateTime revokedAfter, LocalDateTime now);
+    
+    /**
+     * Apaga até :batchSize revogações de tokens que já expiraram
+     * (um lote = uma transação curta)
+     * 
+     * @return Quantidade apagada (< batchSize → acabou)
+     * @see UserSessionRepository#deleteExpiredBatch
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM revoked_tokens WHERE jti IN ( " +
+                   "  SELECT jti FROM revoked_tokens WHERE expires_at <= :now " +
+                   "  LIMIT :batchSize FOR UPDATE SKIP LOCKED)",
+           nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+}
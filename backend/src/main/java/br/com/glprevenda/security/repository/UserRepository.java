@@ -1,13 +1,30 @@
 package br.com.glprevenda. security.repository;
 
+import br.com.glprevenda.security.dto.UserResponse;
 import br. com.glprevenda.security.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa. repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype. Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util. List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util. Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Repository para operações de banco de dados com a entidade User.
@@ -43,6 +60,53 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByEmail(String email);
     
+    /**
+     * Busca por username OU email, sem diferenciar maiúsculas, em UMA consulta
+     * (roles carregadas no mesmo SELECT)
+     * 
+     * SQL gerado:
+     * SELECT ... FROM users u LEFT JOIN user_roles ... LEFT JOIN roles ...
+     * WHERE lower(u.username) = ? OR lower(u.email) = ?
+     * 
+     * Atendido pelos índices funcionais lower() (V5, UNIQUE desde a V10).
+     * Pode retornar 2 usuários (username de um = email de outro):
+     * use findByIdentity, que escolhe pela prioridade.
+     * 
+     * @param lowerIdentity Username ou email JÁ em minúsculas
+     * @return Usuários que casam com o identificador
+     */
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles " +
+           "WHERE lower(u.username) = :identity OR lower(u.email) = :identity")
+    List<User> findAllByLowerIdentity(@Param("identity") String lowerIdentity);
+    
+    /**
+     * Busca usado no login: username OU email, sem diferenciar maiúsculas
+     * 
+     * Prioridade quando mais de um usuário casa:
+     * username exato → username (maiúsculas diferentes) → email exato → email
+     * 
+     * @param usernameOrEmail Identificador digitado no login
+     * @return Usuário encontrado
+     */
+    default Optional<User> findByIdentity(String usernameOrEmail) {
+        List<User> matches = findAllByLowerIdentity(usernameOrEmail.toLowerCase(Locale.ROOT));
+        if (matches.size() <= 1) {
+            return matches.stream().findFirst();
+        }
+        return matches.stream()
+                .min(Comparator.comparingInt(user -> identityRank(user, usernameOrEmail)));
+    }
+    
+    private static int identityRank(User user, String identity) {
+        if (identity.equals(user.getUsername())) {
+            return 0;
+        }
+        if (identity.equalsIgnoreCase(user.getUsername())) {
+            return 1;
+        }
+        return identity.equals(user.getEmail()) ? 2 : 3;
+    }
+    
     /**
      * Verifica se existe usuário com determinado username
      * 
@@ -65,6 +129,56 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     boolean existsByEmail(String email);
     
+    /**
+     * Verifica username sem diferenciar maiúsculas (índice UNIQUE lower() da V10)
+     * 
+     * @param lowerUsername Username JÁ em minúsculas
+     * @return true se existir
+     */
+    @Query("SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END FROM User u " +
+           "WHERE lower(u.username) = :username")
+    boolean existsByLowerUsername(@Param("username") String lowerUsername);
+    
+    /**
+     * Verifica email sem diferenciar maiúsculas (índice UNIQUE lower() da V10)
+     * 
+     * @param lowerEmail Email JÁ em minúsculas
+     * @return true se existir
+     */
+    @Query("SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END FROM User u " +
+           "WHERE lower(u.email) = :email")
+    boolean existsByLowerEmail(@Param("email") String lowerEmail);
+    
+    /**
+     * Todos os usernames e emails em minúsculas, lidos em lotes
+     * (carga do IdentityFilter na inicialização)
+     * 
+     * Precisa de transação aberta enquanto o Stream é consumido.
+     * 
+     * @return Stream de identificadores (2 por usuário)
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query(value = "SELECT lower(username) FROM users " +
+                   "UNION ALL " +
+                   "SELECT lower(email) FROM users",
+           nativeQuery = true)
+    Stream<String> streamLowerIdentities();
+    
+    /**
+     * IDs dos usuários alterados depois do instante informado
+     * (UserDetailsCache: alterações feitas em outros nós)
+     * 
+     * SQL gerado:
+     * SELECT id FROM users WHERE updated_at > ?
+     * 
+     * Atendido pelo índice de updated_at (V11).
+     * 
+     * @param since Instante da última leitura
+     * @return IDs alterados
+     */
+    @Query("SELECT u.id FROM User u WHERE u.updatedAt > :since")
+    List<Long> findIdsUpdatedAfter(@Param("since") LocalDateTime since);
+    
     /**
      * Lista apenas usuários ativos
      * 
@@ -99,24 +213,218 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByRoleName(@Param("roleName") String roleName);
     
     /**
-     * Busca usuários por parte do nome ou email (busca flexível)
+     * Busca usuários por parte do nome ou email, mais parecidos primeiro
      * 
-     * JPQL com LOWER() e LIKE para busca case-insensitive
+     * ILIKE '%texto%' usa os índices GIN de trigramas (V4, pg_trgm)
+     * em vez de ler a tabela inteira como LOWER(...) LIKE fazia.
+     * Ordenação pela maior similarity() entre nome e email; empate → ID.
      * 
-     * SQL gerado: 
-     * SELECT * FROM users 
-     * WHERE LOWER(full_name) LIKE LOWER(?)
-     *    OR LOWER(email) LIKE LOWER(?)
+     * Retorna só os IDs: as linhas completas (com roles) vêm de
+     * findResponsesByIds, apenas para a página pedida.
      * 
      * Exemplo de uso:
-     * findByFullNameOrEmailContaining("silva")
-     * → Encontra:  "João Silva", "silva@email.com", "Maria SILVA"
+     * searchRankedIds("silva", "%silva%", PageRequest.of(0, 20))
+     * → "Silva", "João Silva", "silva@email.com", "Maria SILVA"...
+     * 
+     * @param search Texto buscado (para similarity)
+     * @param pattern Padrão ILIKE já escapado (ver likePattern)
+     * @param pageable Página e tamanho (LIMIT/OFFSET, sem count)
+     * @return IDs da página, do mais para o menos parecido
+     */
+    @Query(value = "SELECT u.id FROM users u " +
+                   "WHERE u.full_name ILIKE :pattern ESCAPE '!' " +
+                   "   OR u.email ILIKE :pattern ESCAPE '!' " +
+                   "ORDER BY GREATEST(similarity(u.full_name, :search), similarity(u.email, :search)) DESC, u.id",
+           nativeQuery = true)
+    List<Long> searchRankedIds(@Param("search") String search,
+                               @Param("pattern") String pattern,
+                               Pageable pageable);
+    
+    /**
+     * Projeção UserResponse para um conjunto de IDs (ordem não garantida)
+     * 
+     * @param ids IDs dos usuários
+     * @return Usuários encontrados
+     */
+    @Query(USER_RESPONSE_PROJECTION +
+           "WHERE u.id IN :ids " +
+           USER_RESPONSE_GROUP_BY)
+    List<UserResponse> findResponsesByIds(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Busca ranqueada por nome/email já projetada em UserResponse
+     * (duas consultas: IDs ranqueados + dados só da página)
+     * 
+     * @param search Texto buscado (sem curingas)
+     * @param pageable Página e tamanho
+     * @return Usuários na ordem de relevância
+     */
+    default List<UserResponse> searchRanked(String search, Pageable pageable) {
+        List<Long> ids = searchRankedIds(search, likePattern(search), pageable);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        
+        Map<Long, UserResponse> byId = findResponsesByIds(ids).stream()
+                .collect(Collectors.toMap(UserResponse::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+    
+    /**
+     * Padrão '%texto%' com os curingas do usuário escapados
+     * ('%' e '_' digitados são procurados literalmente)
+     * 
+     * @param search Texto buscado
+     * @return Padrão para ILIKE ... ESCAPE '!'
+     */
+    static String likePattern(String search) {
+        String escaped = search
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return "%" + escaped + "%";
+    }
+    
+    /**
+     * Projeção direta em UserResponse com as roles agregadas no SQL
+     * (uma linha por usuário, sem carregar entidades nem user_roles em N+1)
+     * 
+     * SQL gerado (PostgreSQL):
+     * SELECT u.id, ..., string_agg(r.name, ',' ORDER BY r.name)
+     * FROM users u LEFT JOIN user_roles ur ... LEFT JOIN roles r ...
+     * GROUP BY u.id, ...
+     */
+    String USER_RESPONSE_PROJECTION =
+            "SELECT new br.com.glprevenda.security.dto.UserResponse(" +
+            "u.id, u.username, u.email, u.fullName, u.active, " +
+            "LISTAGG(r.name, ',') WITHIN GROUP (ORDER BY r.name), u.createdAt, u.updatedAt) " +
+            "FROM User u LEFT JOIN u.roles r ";
+    
+    String USER_RESPONSE_GROUP_BY =
+            "GROUP BY u.id, u.username, u.email, u.fullName, u.active, u.createdAt, u.updatedAt ";
+    
+    /**
+     * Página de usuários por keyset (cursor = último ID da página anterior)
+     * 
+     * WHERE id > :afterId ORDER BY id LIMIT n usa o índice da PK:
+     * o custo é o mesmo na primeira ou na milésima página (sem OFFSET).
+     * 
+     * Exemplo de uso:
+     * findPageAfter(0L, PageRequest.ofSize(51)) → primeira página (50 + 1 para saber se há próxima)
+     * 
+     * @param afterId Último ID já retornado (0 = início)
+     * @param pageable Apenas o tamanho é usado (sem count)
+     * @return Usuários com ID maior que afterId, em ordem de ID
+     */
+    @Query(USER_RESPONSE_PROJECTION +
+           "WHERE u.id > :afterId " +
+           USER_RESPONSE_GROUP_BY +
+           "ORDER BY u.id")
+    List<UserResponse> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * Todos os usuários como Stream, lidos do banco em lotes (exportação)
+     * 
+     * Fetch size: o driver do PostgreSQL usa cursor e traz 500 linhas por vez
+     * (sem o hint ele carrega o resultado inteiro na memória).
+     * Projeção em DTO: nada fica no contexto de persistência.
+     * 
+     * Precisa de transação aberta enquanto o Stream é consumido,
+     * e o Stream deve ser fechado (try-with-resources).
+     * 
+     * @return Stream de usuários em ordem de ID
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(USER_RESPONSE_PROJECTION +
+           USER_RESPONSE_GROUP_BY +
+           "ORDER BY u.id")
+    Stream<UserResponse> streamAll();
+    
+    /**
+     * Atualiza apenas o hash da senha (rehash após login)
+     * 
+     * SQL gerado:
+     * UPDATE users SET password = ?, updated_at = ? WHERE id = ?
+     * 
+     * @param id ID do usuário
+     * @param password Novo hash
+     * @return Quantidade de linhas alteradas
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password, u.updatedAt = CURRENT_TIMESTAMP WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+    
+    /**
+     * Registra uma senha errada em um único UPDATE atômico.
+     * Ao atingir o limite, bloqueia a conta, zera o contador e avança
+     * updated_at (os outros nós tiram o usuário do cache).
+     * 
+     * (As expressões CASE leem o valor ANTIGO de failed_login_attempts)
+     * 
+     * @param id ID do usuário
+     * @param maxAttempts Falhas seguidas que bloqueiam a conta
+     * @param lockedUntil Fim do bloqueio, se aplicado agora
+     * @return Quantidade de linhas alteradas
+     */
+    @Modifying
+    @Query("UPDATE User u SET " +
+           "u.failedLoginAttempts = CASE WHEN u.failedLoginAttempts + 1 >= :maxAttempts " +
+           "THEN 0 ELSE u.failedLoginAttempts + 1 END, " +
+           "u.lockedUntil = CASE WHEN u.failedLoginAttempts + 1 >= :maxAttempts " +
+           "THEN :lockedUntil ELSE u.lockedUntil END, " +
+           "u.updatedAt = CASE WHEN u.failedLoginAttempts + 1 >= :maxAttempts " +
+           "THEN CURRENT_TIMESTAMP ELSE u.updatedAt END " +
+           "WHERE u.id = :id")
+    int registerFailedLogin(@Param("id") Long id,
+                            @Param("maxAttempts") int maxAttempts,
+                            @Param("lockedUntil") LocalDateTime lockedUntil);
+    
+    /**
+     * Zera falhas e bloqueio (login bem-sucedido)
+     * 
+     * @param id ID do usuário
+     * @return Quantidade de linhas alteradas
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.failedLoginAttempts = 0, u.lockedUntil = NULL WHERE u.id = :id")
+    int resetFailedLogins(@Param("id") Long id);
+    
+    /**
+     * Cria o usuário e o vínculo com a role em UM único comando (CTE).
+     * 
+     * Sem SELECT prévio de username/email: as constraints UNIQUE da tabela
+     * (users_username_key, users_email_key e os lower() da V10) recusam
+     * duplicados, inclusive variações de maiúsculas e cadastros
+     * concorrentes → DataIntegrityViolationException.
+     * 
+     * SQL executado:
+     * WITH new_user AS (INSERT INTO users ... RETURNING id)
+     * INSERT INTO user_roles (user_id, role_id) SELECT id, ? FROM new_user RETURNING user_id
+     * 
+     * @Transactional explícito: consultas do repository são readOnly por padrão
      * 
-     * @param fullName Parte do nome
-     * @param email Parte do email
-     * @return Lista de usuários encontrados
+     * @return ID do usuário criado
      */
-    @Query("SELECT u FROM User u WHERE LOWER(u.fullName) LIKE LOWER(CONCAT('%', :search, '%')) " +
-           "OR LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%'))")
-    List<User> searchByNameOrEmail(@Param("search") String search);
-}
\ No newline at end of file
+    @Transactional
+    @Query(value = "WITH new_user AS ( " +
+                   "  INSERT INTO users (username, email, password, full_name, active, created_at, updated_at) " +
+                   "  VALUES (:username, :email, :password, :fullName, TRUE, :now, :now) " +
+                   "  RETURNING id " +
+                   ") " +
+                   "INSERT INTO user_roles (user_id, role_id) " +
+                   "SELECT id, :roleId FROM new_user " +
+                   "RETURNING user_id",
+           nativeQuery = true)
+    Long insertWithRole(@Param("username") String username,
+                        @Param("email") String email,
+                        @Param("password") String password,
+                        @Param("fullName") String fullName,
+                        @Param("roleId") Long roleId,
+                        @Param("now") LocalDateTime now);
+}
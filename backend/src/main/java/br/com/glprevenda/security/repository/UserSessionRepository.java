@@ -0,0 +1,90 @@
+package br.com.glprevenda.security.repository;
+
+import br.com.glprevenda.security.dto.SessionResponse;
+import br.com.glprevenda.security.entity.UserSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository das sessões (dispositivos logados).
+ * 
+ * @author Ozeias
+ */
+@Repository
+public interface UserSessionRepository extends JpaRepository<UserSession, UUID> {
+    
+    /**
+     * Abre uma sessão (login)
+     * 
+     * SQL executado:
+     * INSERT INTO user_sessions (...) VALUES (...)
+     * 
+     * (Sem save(): com ID atribuído, save() faria um SELECT antes do INSERT)
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO user_sessions " +
+                   "(id, user_id, device, ip_address, created_at, last_seen_at, expires_at) " +
+                   "VALUES (:id, :userId, :device, :ipAddress, :now, :now, :expiresAt)",
+           nativeQuery = true)
+    int insert(@Param("id") UUID id,
+               @Param("userId") Long userId,
+               @Param("device") String device,
+               @Param("ipAddress") String ipAddress,
+               @Param("now") LocalDateTime now,
+               @Param("expiresAt") LocalDateTime expiresAt);
+    
+    /**
+     * Sessões ativas do usuário, mais recentes primeiro
+     * 
+     * SQL gerado:
+     * SELECT ... FROM user_sessions
+     * WHERE user_id = ? AND revoked_at IS NULL AND expires_at > ?
+     * ORDER BY last_seen_at DESC
+     */
+    @Query("SELECT new br.com.glprevenda.security.dto.SessionResponse(" +
+           "s.id, s.device, s.ipAddress, s.createdAt, s.lastSeenAt, s.expiresAt) " +
+           "FROM UserSession s " +
+           "WHERE s.userId = :userId AND s.revokedAt IS NULL AND s.expiresAt > :now " +
+           "ORDER BY s.lastSeenAt DESC")
+    List<SessionResponse> findActiveByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+    
+    /**
+     * Revoga a sessão, se for do usuário e ainda estiver ativa
+     * 
+     * @return 1 se revogou, 0 se não existe/é de outro usuário/já revogada
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserSession s SET s.revokedAt = :now " +
+           "WHERE s.id = :id AND s.userId = :userId AND s.revokedAt IS NULL")
+    int revoke(@Param("id") UUID id, @Param("userId") Long userId, @Param("now") LocalDateTime now);
+    
+    /**
+     * Apaga até :batchSize sessões expiradas (um lote = uma transação curta).
+     * 
+     * SKIP LOCKED: linhas travadas por outra transação (ou pelo mesmo job
+     * rodando em outro nó) ficam para o próximo lote, sem espera.
+     * 
+     * SQL executado:
+     * DELETE FROM user_sessions WHERE id IN (
+     *   SELECT id FROM user_sessions WHERE expires_at < ? LIMIT ? FOR UPDATE SKIP LOCKED)
+     * 
+     * @return Quantidade apagada (< batchSize → acabou)
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM user_sessions WHERE id IN ( " +
+                   "  SELECT id FROM user_sessions WHERE expires_at < :now " +
+                   "  LIMIT :batchSize FOR UPDATE SKIP LOCKED)",
+           nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+}
@@ -0,0 +1,293 @@
+package br.com.glprevenda.security.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.com.glprevenda.security.entity.RevokedToken;
+import br.com.glprevenda.security.repository.RevokedTokenRepository;
+import br.com.glprevenda.shared.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lista de access tokens revogados (logout, revogação forçada).
+ * Também revoga sessões inteiras (claim sid): todos os access tokens
+ * emitidos para a sessão são recusados.
+ *
+ * Access tokens valem security.jwt.expiration (24h) e não passam pelo banco
+ * na validação. Para revogar antes disso, o jti vai para:
+ * - revoked_tokens (fonte exata, sobrevive a restart)
+ * - um filtro de Bloom do "balde" de tempo em que o token expira
+ *
+ * Baldes por expiração (bucket-width, ex: 1h):
+ * - Token que expira às 14:37 → balde 14:00–15:00
+ * - Passadas as 15:00 todos os tokens do balde já expiraram sozinhos:
+ *   o balde é descartado (o slot do anel é reaproveitado)
+ * - Memória limitada: (expiration / bucket-width + 2) baldes no máximo
+ *
+ * Sessão revogada: o sid entra em todos os baldes de agora até
+ * agora + expiration (nenhum token da sessão expira depois disso).
+ *
+ * isRevoked() em toda requisição: índice do balde + k leituras de bits,
+ * sem lock e sem alocação. Banco só quando o filtro acusa o jti
+ * (token revogado de fato ou falso positivo ≈ false-positive-rate).
+ *
+ * Linhas expiradas de revoked_tokens são apagadas pelo ExpiredSessionCleanup.
+ *
+ * Várias instâncias: cada nó lê as revogações novas de revoked_tokens a
+ * cada poll-interval (revoked_at depois da última vista) e as põe nos
+ * próprios filtros. Logout/revogação feitos em outro nó valem aqui em
+ * até poll-interval. A leitura volta poll-overlap no tempo: cobre
+ * relógios diferentes entre os nós (revoked_at vem do nó que revogou).
+ *
+ * Métricas: auth.token.denylist{result=filter_hit|revoked}
+ *
+ * @author Ozeias
+ */
+@Slf4j
+@Component
+public class AccessTokenDenylist {
+
+    /**
+     * Filtro de um balde: tokens com expiração em [number·width, (number+1)·width)
+     */
+    private record Bucket(long number, BloomFilter filter) {
+    }
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long jwtExpiration;
+    private final long bucketWidthMillis;
+    private final long bucketCapacity;
+    private final double falsePositiveRate;
+    private final AtomicReferenceArray<Bucket> ring;
+    private final Duration pollOverlap;
+    private final Counter filterHits;
+    private final Counter revokedHits;
+
+    /**
+     * Maior revoked_at já lido do banco (null antes da carga)
+     */
+    private volatile LocalDateTime lastSeenRevokedAt;
+
+    public AccessTokenDenylist(
+            RevokedTokenRepository revokedTokenRepository,
+            MeterRegistry meterRegistry,
+            @Value("${security.jwt.expiration}") long jwtExpiration,
+            @Value("${security.jwt.revocation.bucket-width:1h}") Duration bucketWidth,
+            @Value("${security.jwt.revocation.bucket-capacity:10000}") long bucketCapacity,
+            @Value("${security.jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+            @Value("${security.jwt.revocation.poll-overlap:PT1M}") Duration pollOverlap
+    ) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.jwtExpiration = jwtExpiration;
+        this.bucketWidthMillis = bucketWidth.toMillis();
+        this.bucketCapacity = bucketCapacity;
+        this.falsePositiveRate = falsePositiveRate;
+        this.pollOverlap = pollOverlap;
+
+        // Baldes vivos cobrem de "agora" até "agora + expiration", +1 de folga
+        int slots = (int) (jwtExpiration / bucketWidthMillis) + 2;
+        this.ring = new AtomicReferenceArray<>(slots);
+
+        this.filterHits = Counter.builder("auth.token.denylist")
+                .description("Consultas à lista de tokens revogados que foram ao banco")
+                .tag("result", "filter_hit")
+                .register(meterRegistry);
+        this.revokedHits = Counter.builder("auth.token.denylist")
+                .description("Tokens recusados por estarem revogados")
+                .tag("result", "revoked")
+                .register(meterRegistry);
+
+        log.info("Lista de tokens revogados: {} baldes de {} (capacidade {} por balde)",
+                slots, bucketWidth, bucketCapacity);
+    }
+
+    /**
+     * Recarrega as revogações ainda válidas
+     */
+    @PostConstruct
+    public void load() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<RevokedToken> revocations = revokedTokenRepository.findByExpiresAtAfter(startedAt);
+        apply(revocations, startedAt);
+
+        log.info("Tokens revogados carregados: {}", revocations.size());
+    }
+
+    /**
+     * Revogações feitas por outros nós desde a última leitura
+     */
+    @Scheduled(initialDelayString = "${security.jwt.revocation.poll-interval:PT5S}",
+               fixedDelayString = "${security.jwt.revocation.poll-interval:PT5S}")
+    public void pollRevocations() {
+        LocalDateTime since = lastSeenRevokedAt;
+        if (since == null) {
+            return;
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<RevokedToken> revocations = revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(
+                since.minus(pollOverlap), startedAt);
+        apply(revocations, since);
+        dropExpiredBuckets();
+
+        log.debug("Revogações lidas do banco: {}", revocations.size());
+    }
+
+    /**
+     * Põe as revogações nos filtros e avança a marca de leitura
+     */
+    private void apply(List<RevokedToken> revocations, LocalDateTime watermark) {
+        LocalDateTime latest = watermark;
+        for (RevokedToken revoked : revocations) {
+            long expiresAtMillis = toEpochMillis(revoked.getExpiresAt());
+            if (revoked.isWholeSession()) {
+                addUntil(revoked.getJti().toString(), expiresAtMillis);
+            } else {
+                add(revoked.getJti().toString(), expiresAtMillis);
+            }
+            if (revoked.getRevokedAt() != null && revoked.getRevokedAt().isAfter(latest)) {
+                latest = revoked.getRevokedAt();
+            }
+        }
+        lastSeenRevokedAt = latest;
+    }
+
+    /**
+     * Revoga um access token até a expiração dele.
+     *
+     * @param tokenId jti do token
+     * @param userId Dono do token (pode ser null)
+     * @param expiresAt Expiração do token
+     */
+    public void revoke(UUID tokenId, Long userId, Instant expiresAt) {
+        if (!expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        revokedTokenRepository.insertIfAbsent(
+                tokenId, userId, LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()), LocalDateTime.now(), false);
+        add(tokenId.toString(), expiresAt.toEpochMilli());
+        dropExpiredBuckets();
+
+        log.info("Access token revogado: jti={}, userId={}", tokenId, userId);
+    }
+
+    /**
+     * Revoga todos os access tokens de uma sessão (claim sid).
+     *
+     * Vale por expiration a partir de agora: tokens da sessão emitidos
+     * antes da revogação expiram até lá, e a sessão não emite novos
+     * (a família de refresh tokens é revogada junto, em SessionRegistry).
+     *
+     * @param sessionId ID da sessão
+     * @param userId Dono da sessão
+     */
+    public void revokeSession(UUID sessionId, Long userId) {
+        long expiresAtMillis = System.currentTimeMillis() + jwtExpiration;
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.insertIfAbsent(
+                sessionId, userId, now.plus(Duration.ofMillis(jwtExpiration)), now, true);
+        addUntil(sessionId.toString(), expiresAtMillis);
+        dropExpiredBuckets();
+
+        log.info("Sessão revogada: sid={}, userId={}", sessionId, userId);
+    }
+
+    /**
+     * O token foi revogado?
+     *
+     * @param token Token já verificado (tokens sem jti/sid nunca estão revogados)
+     * @return true se revogado
+     */
+    public boolean isRevoked(ParsedToken token) {
+        if (token.getExpiration() == null) {
+            return false;
+        }
+
+        long number = token.getExpiration().toEpochMilli() / bucketWidthMillis;
+        Bucket bucket = ring.get(slotOf(number));
+        if (bucket == null || bucket.number() != number) {
+            return false;
+        }
+        return isListed(bucket, token.getTokenId()) || isListed(bucket, token.getSessionId());
+    }
+
+    /**
+     * Filtro do balde e, se ele acusar, a fonte exata
+     */
+    private boolean isListed(Bucket bucket, String id) {
+        if (id == null || !bucket.filter().mightContain(id)) {
+            return false;
+        }
+
+        filterHits.increment();
+        boolean revoked = revokedTokenRepository.existsById(UUID.fromString(id));
+        if (revoked) {
+            revokedHits.increment();
+        }
+        return revoked;
+    }
+
+    private void add(String tokenId, long expiresAtMillis) {
+        long number = expiresAtMillis / bucketWidthMillis;
+        int slot = slotOf(number);
+
+        Bucket bucket = ring.get(slot);
+        while (bucket == null || bucket.number() != number) {
+            if (bucket != null && bucket.number() > number) {
+                // Slot já é de um balde mais novo: este token já expirou
+                return;
+            }
+            // Slot vazio ou com balde cujos tokens já expiraram → balde novo
+            Bucket fresh = new Bucket(number, new BloomFilter(bucketCapacity, falsePositiveRate));
+            if (ring.compareAndSet(slot, bucket, fresh)) {
+                bucket = fresh;
+            } else {
+                bucket = ring.get(slot);
+            }
+        }
+        bucket.filter().put(tokenId);
+    }
+
+    /**
+     * Adiciona o ID em todos os baldes de agora até expiresAtMillis
+     */
+    private void addUntil(String id, long expiresAtMillis) {
+        long last = expiresAtMillis / bucketWidthMillis;
+        for (long number = System.currentTimeMillis() / bucketWidthMillis; number <= last; number++) {
+            add(id, number * bucketWidthMillis);
+        }
+    }
+
+    /**
+     * Libera os baldes cujos tokens já expiraram todos
+     */
+    private void dropExpiredBuckets() {
+        long current = System.currentTimeMillis() / bucketWidthMillis;
+        for (int slot = 0; slot < ring.length(); slot++) {
+            Bucket bucket = ring.get(slot);
+            if (bucket != null && bucket.number() < current) {
+                ring.compareAndSet(slot, bucket, null);
+            }
+        }
+    }
+
+    private int slotOf(long bucketNumber) {
+        return (int) Math.floorMod(bucketNumber, (long) ring.length());
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.glprevenda.security.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.glprevenda.security.entity.User;
+import br.com.glprevenda.security.event.UserChangedEvent;
+import br.com.glprevenda.security.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bloqueio persistente de conta após falhas de login seguidas.
+ *
+ * - Cada senha errada incrementa users.failed_login_attempts (UPDATE atômico)
+ * - Ao atingir max-failed-attempts, grava users.locked_until = agora + lock-duration
+ *   e zera o contador
+ * - Login bem-sucedido zera contador e bloqueio
+ *
+ * User.isAccountNonLocked() lê locked_until, então o DaoAuthenticationProvider
+ * recusa a conta bloqueada (LockedException) ANTES de verificar a senha:
+ * nenhuma rodada de BCrypt é gasta enquanto durar o bloqueio.
+ *
+ * Toda alteração publica UserChangedEvent para o UserDetailsCache
+ * não servir o estado antigo do bloqueio.
+ *
+ * @author Ozeias
+ */
+@Slf4j
+@Service
+public class AccountLockoutService {
+
+    private final CustomUserDetailsService userDetailsService;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxFailedAttempts;
+    private final Duration lockDuration;
+
+    public AccountLockoutService(
+            CustomUserDetailsService userDetailsService,
+            UserRepository userRepository,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${security.lockout.max-failed-attempts:5}") int maxFailedAttempts,
+            @Value("${security.lockout.lock-duration:15m}") Duration lockDuration
+    ) {
+        this.userDetailsService = userDetailsService;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.maxFailedAttempts = maxFailedAttempts;
+        this.lockDuration = lockDuration;
+    }
+
+    /**
+     * Registra uma senha errada (usuário inexistente é ignorado).
+     *
+     * @param usernameOrEmail Identificador informado no login
+     */
+    @Transactional
+    public void recordFailure(String usernameOrEmail) {
+        userDetailsService.findUser(usernameOrEmail).ifPresent(user -> {
+            LocalDateTime lockedUntil = LocalDateTime.now().plus(lockDuration);
+            userRepository.registerFailedLogin(user.getId(), maxFailedAttempts, lockedUntil);
+
+            if (user.getFailedLoginAttempts() + 1 >= maxFailedAttempts) {
+                log.warn("Conta bloqueada até {} por excesso de falhas: ID={}, Username={}",
+                        lockedUntil, user.getId(), user.getUsername());
+            }
+
+            publishChange(user);
+        });
+    }
+
+    /**
+     * Zera contador e bloqueio após login bem-sucedido.
+     * Só escreve no banco se havia algo a zerar.
+     *
+     * @param user Usuário autenticado
+     */
+    @Transactional
+    public void recordSuccess(User user) {
+        if (user.getFailedLoginAttempts() == 0 && user.getLockedUntil() == null) {
+            return;
+        }
+
+        userRepository.resetFailedLogins(user.getId());
+        publishChange(user);
+    }
+
+    private void publishChange(User user) {
+        eventPublisher.publishEvent(
+                new UserChangedEvent(user.getId(), user.getUsername(), user.getEmail()));
+    }
+}
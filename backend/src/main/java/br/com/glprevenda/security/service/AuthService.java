@@ -1,19 +1,23 @@
 package br.com.glprevenda.security.service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.HashSet;
+import java.util.List;
 import java.util. Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org. springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework. security.authentication.UsernamePasswordAuthenticationToken;
 import org. springframework.security.core.Authentication;
 import org.springframework.security. core. GrantedAuthority;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import br.com.glprevenda.security.dto.AuthResponse;
 import br.com.glprevenda.security.dto. LoginRequest;
@@ -22,9 +26,7 @@ import br.com.glprevenda.security. dto.RegisterRequest;
 import br.com. glprevenda.security.dto.UserResponse;
 import br.com.glprevenda.security.entity. Role;
 import br.com.glprevenda.security.entity. User;
-import br.com. glprevenda.security.repository.RoleRepository;
 import br.com.glprevenda. security.repository.UserRepository;
-import br.com.glprevenda. shared.exception.ResourceNotFoundException;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
@@ -37,6 +39,7 @@ import lombok.extern.slf4j. Slf4j;
  * - Registrar novos usuários
  * - Fazer login (autenticação)
  * - Gerar tokens JWT
+ * - Abrir/encerrar sessões (um login = uma sessão por dispositivo)
  * - Criptografar senhas
  * 
  * @author Ozeias
@@ -47,107 +50,243 @@ import lombok.extern.slf4j. Slf4j;
 public class AuthService {
     
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final LoginThrottle loginThrottle;
+    private final AccountLockoutService accountLockoutService;
+    private final RoleRegistry roleRegistry;
+    private final IdentityFilter identityFilter;
+    private final RefreshTokenStore refreshTokenStore;
+    private final CustomUserDetailsService userDetailsService;
+    private final AccessTokenDenylist tokenDenylist;
+    private final SessionRegistry sessionRegistry;
+    
+    private static final String DEFAULT_ROLE = "ROLE_VENDEDOR";
+    
+    /**
+     * UNIQUE da V1 (nome gerado pelo PostgreSQL, tabela_coluna_key) e
+     * UNIQUE sem diferenciar maiúsculas da V10 (lower(coluna))
+     */
+    private static final List<String> USERNAME_CONSTRAINTS =
+            List.of("users_username_key", "users_username_lower_key");
+    private static final List<String> EMAIL_CONSTRAINTS =
+            List.of("users_email_key", "users_email_lower_key");
     
     /**
      * Registra um novo usuário no sistema.
      * 
      * Passos:
-     * 1. Valida se username/email já existem
+     * 1. Recusa username/email já usados (sem diferenciar maiúsculas);
+     *    o banco só é consultado se o IdentityFilter disser "talvez"
      * 2. Criptografa a senha (BCrypt)
-     * 3. Atribui role padrão (ROLE_VENDEDOR)
-     * 4. Salva no banco
-     * 5. Gera token JWT
-     * 6. Retorna dados do usuário + token
+     * 3. Insere usuário + role padrão (ROLE_VENDEDOR) em um único comando;
+     *    cadastros concorrentes duplicados são recusados pelas constraints UNIQUE
+     * 4. Gera token JWT
+     * 5. Retorna dados do usuário + token
+     * 
+     * Sem @Transactional: o insert é um único comando (atômico) e o BCrypt
+     * não deve segurar uma conexão do pool enquanto espera no executor.
      * 
      * @param request Dados do novo usuário
      * @return AuthResponse com token e dados do usuário
+     * @throws IllegalArgumentException Se username ou email já estão em uso
      */
-    @Transactional
     public AuthResponse register(RegisterRequest request) {
+        return register(request, null, null);
+    }
+    
+    /**
+     * Registra um novo usuário e abre a sessão do dispositivo.
+     * 
+     * @param request Dados do novo usuário
+     * @param clientIp IP do cliente (sessão)
+     * @param device User-Agent do cliente (sessão)
+     * @return AuthResponse com token e dados do usuário
+     * @see #register(RegisterRequest)
+     */
+    public AuthResponse register(RegisterRequest request, String clientIp, String device) {
         log.info("Registrando novo usuário: {}", request.getUsername());
         
-        // Validar se já existe
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new IllegalArgumentException("Username já está em uso");
-        }
+        // Duplicado conhecido: recusa antes de gastar um hash BCrypt
+        checkIdentityAvailable(request.getUsername(), request.getEmail());
         
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new IllegalArgumentException("Email já está em uso");
-        }
+        // Role padrão (ROLE_VENDEDOR) direto do registro em memória
+        Role defaultRole = roleRegistry.require(DEFAULT_ROLE).toRole();
+        
+        // Criptografa senha (BCrypt no executor dedicado)
+        String encodedPassword = passwordHashingExecutor.execute(
+                "register", () -> passwordEncoder.encode(request.getPassword()));
         
-        // Buscar role padrão (ROLE_VENDEDOR)
-        Role defaultRole = roleRepository.findByName("ROLE_VENDEDOR")
-                .orElseThrow(() -> new ResourceNotFoundException("Role", "ROLE_VENDEDOR"));
+        // Inserir usuário + vínculo com a role (1 ida ao banco)
+        LocalDateTime now = LocalDateTime.now();
+        Long userId;
+        try {
+            userId = userRepository.insertWithRole(
+                    request.getUsername(),
+                    request.getEmail(),
+                    encodedPassword,
+                    request.getFullName(),
+                    defaultRole.getId(),
+                    now);
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicate(e);
+        }
+        identityFilter.add(request.getUsername(), request.getEmail());
         
-        // Criar usuário
         User user = User.builder()
+                .id(userId)
                 .username(request.getUsername())
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword())) // Criptografa senha
+                .password(encodedPassword)
                 .fullName(request.getFullName())
                 .active(true)
-                .roles(new HashSet<>())
+                .roles(Set.of(defaultRole))
+                .createdAt(now)
+                .updatedAt(now)
                 .build();
         
-        // Adicionar role padrão
-        user.addRole(defaultRole);
-        
-        // Salvar no banco
-        user = userRepository.save(user);
-        
         log.info("Usuário registrado com sucesso: ID={}, Username={}", 
                 user.getId(), user.getUsername());
         
-        // Gerar tokens
-        String accessToken = jwtService.generateToken(user);
-        String refreshToken = jwtService.generateRefreshToken(user);
+        // Abrir sessão e gerar tokens
+        return startSession(user, clientIp, device);
+    }
+    
+    /**
+     * Username/email livres? "Não existe" do IdentityFilter dispensa o SELECT.
+     */
+    private void checkIdentityAvailable(String username, String email) {
+        if (identityFilter.mightExist(username)
+                && userRepository.existsByLowerUsername(IdentityFilter.normalize(username))) {
+            throw new IllegalArgumentException("Username já está em uso");
+        }
+        if (identityFilter.mightExist(email)
+                && userRepository.existsByLowerEmail(IdentityFilter.normalize(email))) {
+            throw new IllegalArgumentException("Email já está em uso");
+        }
+    }
+    
+    /**
+     * Converte violação de constraint UNIQUE na mensagem do campo duplicado.
+     */
+    private RuntimeException translateDuplicate(DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                ? violation.getConstraintName()
+                : String.valueOf(e.getMostSpecificCause().getMessage());
         
-        // Retornar resposta
-        return buildAuthResponse(user, accessToken, refreshToken);
+        if (USERNAME_CONSTRAINTS.stream().anyMatch(constraint::contains)) {
+            return new IllegalArgumentException("Username já está em uso");
+        }
+        if (EMAIL_CONSTRAINTS.stream().anyMatch(constraint::contains)) {
+            return new IllegalArgumentException("Email já está em uso");
+        }
+        return e;
+    }
+    
+    /**
+     * Autentica um usuário (login) sem limite por IP.
+     * 
+     * @param request Credenciais de login
+     * @return AuthResponse com token e dados do usuário
+     * @see #login(LoginRequest, String)
+     */
+    public AuthResponse login(LoginRequest request) {
+        return login(request, null);
     }
     
     /**
      * Autentica um usuário (login).
      * 
      * Passos:
-     * 1. Valida credenciais (username/email + senha)
-     * 2. Se válido, carrega usuário do banco
-     * 3. Gera tokens JWT
-     * 4. Retorna dados do usuário + tokens
+     * 1. Limite de tentativas por IP e por usuário (sem BCrypt)
+     * 2. Valida credenciais (username/email + senha); conta bloqueada
+     *    é recusada antes da verificação da senha
+     * 3. Registra falha (pode bloquear a conta) ou zera o contador
+     * 4. Gera tokens JWT
+     * 5. Retorna dados do usuário + tokens
+     * 
+     * Sem @Transactional: a verificação BCrypt pode esperar na fila do
+     * executor e não deve segurar uma conexão do pool enquanto isso.
      * 
      * @param request Credenciais de login
+     * @param clientIp IP do cliente (null = sem limite por IP)
      * @return AuthResponse com token e dados do usuário
+     * @throws br.com.glprevenda.shared.exception.TooManyRequestsException 
+     *         Se o limite de tentativas estourou (HTTP 429)
+     * @throws br.com.glprevenda.shared.exception.ServiceOverloadedException 
+     *         Se o executor de hash estiver saturado (HTTP 503)
      */
-    @Transactional(readOnly = true)
-    public AuthResponse login(LoginRequest request) {
+    public AuthResponse login(LoginRequest request, String clientIp) {
+        return login(request, clientIp, null);
+    }
+    
+    /**
+     * Autentica um usuário (login) e abre a sessão do dispositivo.
+     * 
+     * @param request Credenciais de login
+     * @param clientIp IP do cliente (null = sem limite por IP)
+     * @param device User-Agent do cliente (sessão)
+     * @return AuthResponse com token e dados do usuário
+     * @see #login(LoginRequest, String)
+     */
+    public AuthResponse login(LoginRequest request, String clientIp, String device) {
         log.info("Tentativa de login:   {}", request.getUsernameOrEmail());
         
-        // Autenticar (Spring Security valida a senha automaticamente)
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getUsernameOrEmail(),
-                        request.getPassword()
-                )
-        );
+        // 1. Throttling: recusa custa microssegundos, antes de qualquer BCrypt
+        loginThrottle.checkAllowed(clientIp, request.getUsernameOrEmail());
+        
+        // 2. Autenticar (Spring Security valida a senha automaticamente)
+        // BCrypt roda no executor dedicado, fora das threads do Tomcat
+        Authentication authentication;
+        try {
+            authentication = passwordHashingExecutor.execute("login", () ->
+                    authenticationManager.authenticate(
+                            new UsernamePasswordAuthenticationToken(
+                                    request.getUsernameOrEmail(),
+                                    request.getPassword()
+                            )
+                    ));
+        } catch (BadCredentialsException e) {
+            // 3. Senha errada conta para o bloqueio da conta
+            accountLockoutService.recordFailure(request.getUsernameOrEmail());
+            throw e;
+        }
         
         // Usuário autenticado
         User user = (User) authentication.getPrincipal();
+        accountLockoutService.recordSuccess(user);
         
         log.info("Login bem-sucedido:   ID={}, Username={}", 
                 user.getId(), user.getUsername());
         
-        // Gerar tokens
-        String accessToken = jwtService.generateToken(user);
-        String refreshToken = jwtService.generateRefreshToken(user);
+        // Abrir sessão e gerar tokens
+        return startSession(user, clientIp, device);
+    }
+    
+    /**
+     * Abre uma sessão: primeiro refresh token de uma família nova
+     * (jti em refresh_tokens), registro do dispositivo em user_sessions
+     * e access token com a claim sid.
+     */
+    private AuthResponse startSession(User user, String clientIp, String device) {
+        UUID tokenId = UUID.randomUUID();
+        LocalDateTime expiresAt = refreshExpiresAt();
+        
+        UUID sessionId = refreshTokenStore.issue(tokenId, user.getId(), expiresAt);
+        sessionRegistry.open(sessionId, user.getId(), device, clientIp, expiresAt);
         
-        // Retornar resposta
+        String accessToken = jwtService.generateToken(user, sessionId);
+        String refreshToken = jwtService.generateRefreshToken(user, tokenId);
         return buildAuthResponse(user, accessToken, refreshToken);
     }
     
+    private LocalDateTime refreshExpiresAt() {
+        return LocalDateTime.now().plus(Duration.ofMillis(jwtService.getRefreshExpiration()));
+    }
+    
     /**
      * Constrói a resposta de autenticação (login/register).
      * 
@@ -200,51 +339,78 @@ public class AuthService {
     }
     
     /**
-     * Renova tokens JWT usando Refresh Token
+     * Renova tokens JWT usando Refresh Token (rotação)
+     * 
+     * Cada refresh token vale UMA vez: é trocado por um novo da mesma
+     * família (RefreshTokenStore). Reapresentar um token já usado revoga
+     * a família inteira (token vazado → todas as sessões dele caem).
+     * 
+     * Caminho comum: usuário vem do UserDetailsCache e a rotação é
+     * um único comando no banco. Tokens sem jti (emitidos antes da
+     * rotação) são recusados: o usuário faz login novamente.
      * 
      * @param request DTO com refresh token
      * @return Novos tokens (access + refresh)
-     * @throws BadCredentialsException se refresh token inválido
+     * @throws BadCredentialsException se refresh token inválido ou já usado
      */
-    @Transactional(readOnly = true)
     public AuthResponse refreshToken(RefreshTokenRequest request) {
         log.info("Requisição de refresh token");
         
         try {
-            // 1. Extrair username do refresh token
-            String username = jwtService.extractUsername(request.getRefreshToken());
+            // 1. Verificar o refresh token (uma única checagem de assinatura)
+            ParsedToken token = jwtService.parse(request.getRefreshToken());
+            String username = token.getSubject();
             
             if (username == null) {
                 log.error("Refresh token inválido:  username não encontrado");
                 throw new BadCredentialsException("Refresh token inválido");
             }
             
-            // 2. Buscar usuário no banco
-            User user = userRepository.findByUsername(username)
+            // 2. Buscar usuário (cache; banco só em cache miss)
+            User user = userDetailsService.findUser(username)
                     .orElseThrow(() -> {
                         log.error("Usuário não encontrado: {}", username);
                         return new UsernameNotFoundException("Usuário não encontrado");
                     });
             
-            // 3. Verificar se usuário está ativo
+            // 3. Verificar se usuário está ativo e não bloqueado (lockout)
             if (!user.isEnabled()) {
                 log.error("Usuário inativo tentou renovar token:  {}", username);
                 throw new BadCredentialsException("Usuário inativo");
             }
+            if (!user.isAccountNonLocked()) {
+                log.warn("Usuário bloqueado tentou renovar token: {}", username);
+                throw new LockedException("Conta bloqueada temporariamente");
+            }
             
             // 4. Validar refresh token
-            if (!jwtService.isRefreshTokenValid(request.getRefreshToken(), user)) {
+            if (!jwtService.isRefreshTokenValid(token, user)) {
                 log.error("Refresh token inválido para usuário: {}", username);
                 throw new BadCredentialsException("Refresh token inválido ou expirado");
             }
             
-            // 5. Gerar novos tokens
-            String newAccessToken = jwtService. generateToken(user);
-            String newRefreshToken = jwtService.generateRefreshToken(user);
+            // 5. Trocar o token usado por um novo (1 comando no banco)
+            UUID newTokenId = UUID.randomUUID();
+            RefreshTokenStore.Rotation rotation = refreshTokenStore.rotate(
+                    tokenIdOf(token), newTokenId, refreshExpiresAt());
+            
+            if (rotation.outcome() == RefreshTokenStore.Outcome.REUSED) {
+                log.warn("Refresh token reutilizado, sessões revogadas: {}", username);
+                throw new BadCredentialsException("Refresh token já utilizado");
+            }
+            if (rotation.outcome() != RefreshTokenStore.Outcome.ROTATED
+                    || !user.getId().equals(rotation.userId())) {
+                log.error("Refresh token não registrado ou revogado: {}", username);
+                throw new BadCredentialsException("Refresh token inválido ou expirado");
+            }
+            
+            // 6. Gerar novos tokens
+            String newAccessToken = jwtService.generateToken(user, rotation.familyId());
+            String newRefreshToken = jwtService.generateRefreshToken(user, newTokenId);
             
             log.info("Tokens renovados com sucesso para usuário: {}", username);
             
-            // 6. Montar resposta
+            // 7. Montar resposta
             return AuthResponse. builder()
                     .accessToken(newAccessToken)
                     .refreshToken(newRefreshToken)
@@ -268,4 +434,53 @@ public class AuthService {
             throw new BadCredentialsException("Refresh token inválido");
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Logout: encerra a sessão do access token (claim sid: todos os tokens
+     * dela) ou, em tokens sem sessão, revoga só o access token até ele
+     * expirar. Se informado, revoga também a família do refresh token.
+     * 
+     * Tokens inválidos ou expirados são ignorados (logout idempotente).
+     * 
+     * @param accessToken Access token em uso (header Authorization)
+     * @param refreshToken Refresh token da sessão (opcional)
+     */
+    public void logout(String accessToken, String refreshToken) {
+        try {
+            ParsedToken token = jwtService.parse(accessToken);
+            if (token.isAccessToken() && token.getSessionId() != null && token.getUserId() != null) {
+                sessionRegistry.revoke(token.getUserId(), UUID.fromString(token.getSessionId()));
+            } else if (token.isAccessToken() && token.getTokenId() != null) {
+                tokenDenylist.revoke(UUID.fromString(token.getTokenId()), token.getUserId(), token.getExpiration());
+            }
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Logout com access token inválido: {}", e.getMessage());
+        }
+        
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return;
+        }
+        try {
+            ParsedToken token = jwtService.parse(refreshToken);
+            if (token.isRefreshToken() && token.getTokenId() != null) {
+                refreshTokenStore.revokeFamilyOf(UUID.fromString(token.getTokenId()));
+            }
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Logout com refresh token inválido: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * jti do refresh token (tokens antigos, sem jti, são recusados)
+     */
+    private UUID tokenIdOf(ParsedToken token) {
+        if (token.getTokenId() == null) {
+            throw new BadCredentialsException("Refresh token sem identificador: faça login novamente");
+        }
+        try {
+            return UUID.fromString(token.getTokenId());
+        } catch (IllegalArgumentException e) {
+            throw new BadCredentialsException("Refresh token inválido");
+        }
+    }
+}
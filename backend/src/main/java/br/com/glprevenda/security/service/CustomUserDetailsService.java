@@ -1,14 +1,22 @@
 package br.com.glprevenda.security.service;
 
+import br.com.glprevenda.security.entity.User;
+import br.com.glprevenda.security.event.UserChangedEvent;
 import br.com.glprevenda. security.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security. core.userdetails.UserDetailsService;
 import org.springframework. security.core.userdetails. UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Serviço customizado para carregar dados do usuário do banco. 
  * 
@@ -19,37 +27,114 @@ import org.springframework.transaction.annotation.Transactional;
  * 2. Verificar senha
  * 3. Carregar roles (permissões)
  * 
+ * Métricas: auth.user_details.load{result=found|not_found}
+ * 
  * @author Ozeias
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Timer foundTimer;
+    private final Timer notFoundTimer;
+    
+    public CustomUserDetailsService(
+            UserRepository userRepository,
+            UserDetailsCache userDetailsCache,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
+        this.eventPublisher = eventPublisher;
+        this.foundTimer = loadTimer(meterRegistry, "found");
+        this.notFoundTimer = loadTimer(meterRegistry, "not_found");
+    }
+    
+    private static Timer loadTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("auth.user_details.load")
+                .description("Tempo de carga do usuário no login (cache e banco)")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
     
     /**
      * Carrega usuário pelo username ou email.
      * 
      * Chamado automaticamente pelo Spring Security durante autenticação.
      * 
+     * Passa pelo UserDetailsCache; o banco só é consultado em cache miss, com UMA consulta (username ou email,
+     * sem diferenciar maiúsculas). Sem @Transactional: em cache hit nenhuma conexão
+     * é tirada do pool (cada consulta do repository já é transacional).
+     * 
      * @param usernameOrEmail Username ou email do usuário
      * @return UserDetails (dados do usuário + roles)
      * @throws UsernameNotFoundException Se usuário não existe
      */
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
         log. debug("Carregando usuário:   {}", usernameOrEmail);
         
-        // Busca por username OU email
-        return userRepository.findByUsername(usernameOrEmail)
-                .or(() -> userRepository.findByEmail(usernameOrEmail))
-                .orElseThrow(() -> {
+        long start = System.nanoTime();
+        Optional<User> user = findUser(usernameOrEmail);
+        (user.isPresent() ? foundTimer : notFoundTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        
+        return user.orElseThrow(() -> {
                     log.warn("Usuário não encontrado: {}", usernameOrEmail);
                     return new UsernameNotFoundException(
                             "Usuário não encontrado:   " + usernameOrEmail
                     );
                 });
     }
+    
+    /**
+     * Mesma busca do loadUserByUsername (com cache), sem exceção
+     * para usuário inexistente.
+     * 
+     * @param usernameOrEmail Username ou email do usuário
+     * @return Usuário destacado, se existir
+     */
+    public Optional<User> findUser(String usernameOrEmail) {
+        return userDetailsCache.get(usernameOrEmail, this::findSnapshot)
+                .map(UserSnapshot::toUser);
+    }
+    
+    /**
+     * Grava o novo hash de senha (rehash transparente).
+     * 
+     * Chamado pelo DaoAuthenticationProvider após login bem-sucedido quando
+     * o hash gravado usa parâmetros antigos (ex: strength diferente do calibrado).
+     * 
+     * @param user Usuário autenticado
+     * @param newPassword Novo hash (já codificado)
+     * @return Usuário com o novo hash
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User entity = (User) user;
+        
+        userRepository.updatePassword(entity.getId(), newPassword);
+        
+        // Update em lote não passa pelo UserEntityListener
+        eventPublisher.publishEvent(
+                new UserChangedEvent(entity.getId(), entity.getUsername(), entity.getEmail()));
+        
+        log.info("Hash de senha atualizado para novos parâmetros: ID={}", entity.getId());
+        
+        entity.setPassword(newPassword);
+        return entity;
+    }
+    
+    /**
+     * Busca por username OU email em uma consulta (username tem prioridade)
+     */
+    private Optional<UserSnapshot> findSnapshot(String usernameOrEmail) {
+        return userRepository.findByIdentity(usernameOrEmail)
+                .map(UserSnapshot::from);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package br.com.glprevenda.security.service;
+
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.com.glprevenda.security.repository.RefreshTokenRepository;
+import br.com.glprevenda.security.repository.RevokedTokenRepository;
+import br.com.glprevenda.security.repository.UserSessionRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Limpeza agendada de sessões e tokens expirados.
+ *
+ * Tabelas: user_sessions, refresh_tokens, revoked_tokens.
+ *
+ * Apaga em lotes pequenos (batch-size), cada um em uma transação curta:
+ * - Nunca trava a tabela nem segura muitas linhas de uma vez
+ * - FOR UPDATE SKIP LOCKED: linhas em uso ficam para depois, e o job
+ *   rodando em vários nós ao mesmo tempo não se bloqueia
+ * - Pausa entre lotes (batch-pause) para não competir com o tráfego
+ * - Limite de lotes por execução (max-batches): o resto fica para a próxima
+ *
+ * @author Ozeias
+ */
+@Slf4j
+@Component
+public class ExpiredSessionCleanup {
+
+    /**
+     * Um DELETE em lote: (agora, tamanho do lote) → linhas apagadas
+     */
+    @FunctionalInterface
+    interface BatchDelete {
+        int delete(LocalDateTime now, int batchSize);
+    }
+
+    private final UserSessionRepository sessionRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int batchSize;
+    private final int maxBatches;
+    private final long batchPauseMillis;
+
+    public ExpiredSessionCleanup(
+            UserSessionRepository sessionRepository,
+            RefreshTokenRepository refreshTokenRepository,
+            RevokedTokenRepository revokedTokenRepository,
+            @Value("${security.sessions.cleanup.batch-size:1000}") int batchSize,
+            @Value("${security.sessions.cleanup.max-batches:100}") int maxBatches,
+            @Value("${security.sessions.cleanup.batch-pause:50}") long batchPauseMillis
+    ) {
+        this.sessionRepository = sessionRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.batchPauseMillis = batchPauseMillis;
+    }
+
+    /**
+     * Execução agendada (após a primeira, a cada interval)
+     */
+    @Scheduled(initialDelayString = "${security.sessions.cleanup.initial-delay:PT1M}",
+               fixedDelayString = "${security.sessions.cleanup.interval:PT10M}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int sessions = purge("user_sessions", now, sessionRepository::deleteExpiredBatch);
+        int refreshTokens = purge("refresh_tokens", now, refreshTokenRepository::deleteExpiredBatch);
+        int revokedTokens = purge("revoked_tokens", now, revokedTokenRepository::deleteExpiredBatch);
+
+        if (sessions + refreshTokens + revokedTokens > 0) {
+            log.info("Limpeza de expirados: {} sessões, {} refresh tokens, {} revogações",
+                    sessions, refreshTokens, revokedTokens);
+        }
+    }
+
+    /**
+     * Apaga lote a lote até um lote vir incompleto (ou o limite por execução)
+     *
+     * @return Total apagado
+     */
+    int purge(String table, LocalDateTime now, BatchDelete batchDelete) {
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int deleted = batchDelete.delete(now, batchSize);
+            total += deleted;
+            if (deleted < batchSize) {
+                return total;
+            }
+            if (!pause()) {
+                break;
+            }
+        }
+        log.warn("Limpeza de {} parou no limite de {} lotes ({} linhas); continua na próxima execução",
+                table, maxBatches, total);
+        return total;
+    }
+
+    private boolean pause() {
+        if (batchPauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(batchPauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package br.com.glprevenda.security.service;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.glprevenda.security.event.UserChangedEvent;
+import br.com.glprevenda.security.repository.UserRepository;
+import br.com.glprevenda.shared.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Filtro em memória de identidades conhecidas (usernames e emails).
+ *
+ * Usado SÓ na pré-checagem do cadastro: username/email novo → sem SELECT
+ * de duplicidade. Nunca para negar autenticação (login, refresh, JWT):
+ * o "não" do filtro pode estar desatualizado neste nó.
+ *
+ * Bloom filter: "não" vale para o que este nó já viu, "talvez" é
+ * confirmado no banco. Valores em minúsculas (mesma regra da busca no login).
+ *
+ * Ciclo de vida:
+ * 1. Até terminar a carga inicial, mightExist() responde sempre true (vai ao banco)
+ * 2. ApplicationReadyEvent → lê todos os usernames/emails em lotes
+ * 3. Cadastros (AuthService.register) e alterações (UserChangedEvent) entram na hora
+ * 4. rebuild() agendado (rebuild-interval) traz o que entrou por fora:
+ *    outra instância, migration, carga em lote
+ *
+ * Entre um rebuild e outro, um "não" desatualizado só pula o SELECT do
+ * cadastro: o insert ainda esbarra nos índices UNIQUE de lower(username)
+ * e lower(email) (V10), inclusive para variações de maiúsculas.
+ *
+ * Métricas: security.identity_filter{result=rejected|passed}
+ *
+ * @author Ozeias
+ */
+@Slf4j
+@Component
+public class IdentityFilter {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final Counter rejected;
+    private final Counter passed;
+
+    /**
+     * null até a carga inicial terminar
+     */
+    private volatile BloomFilter filter;
+    
+    /**
+     * Filtro em montagem (durante rebuild), também recebe add()
+     */
+    private volatile BloomFilter loading;
+
+    public IdentityFilter(
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${security.identity-filter.enabled:true}") boolean enabled,
+            @Value("${security.identity-filter.expected-insertions:2000000}") long expectedInsertions,
+            @Value("${security.identity-filter.false-positive-rate:0.01}") double falsePositiveRate
+    ) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rejected = Counter.builder("security.identity_filter")
+                .description("Buscas de identidade respondidas pelo filtro em memória")
+                .tag("result", "rejected")
+                .register(meterRegistry);
+        this.passed = Counter.builder("security.identity_filter")
+                .description("Buscas de identidade respondidas pelo filtro em memória")
+                .tag("result", "passed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Carga inicial, depois que o contexto subiu (não atrasa a inicialização)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Recarga periódica: identidades inseridas fora deste nó
+     */
+    @Scheduled(initialDelayString = "${security.identity-filter.rebuild-interval:PT1H}",
+               fixedDelayString = "${security.identity-filter.rebuild-interval:PT1H}")
+    public void scheduledRebuild() {
+        if (enabled && filter != null) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Monta um filtro novo com todas as identidades do banco e troca o atual.
+     *
+     * Identidades adicionadas durante a leitura entram nos dois filtros:
+     * loading é publicado ANTES de abrir a transação de leitura, então
+     * um add() que não o viu veio de um commit que a leitura enxerga.
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        long users = userRepository.count();
+
+        // Folga para crescer sem degradar a taxa de falso positivo
+        BloomFilter next = new BloomFilter(Math.max(expectedInsertions, users * 4), falsePositiveRate);
+        AtomicLong loaded = new AtomicLong();
+        loading = next;
+
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<String> identities = userRepository.streamLowerIdentities()) {
+                identities.forEach(identity -> {
+                    next.put(identity);
+                    loaded.incrementAndGet();
+                });
+            }
+        });
+
+        filter = next;
+        loading = null;
+
+        log.info("Filtro de identidades carregado: {} identidades, {} KB, {} hashes, {} ms",
+                loaded.get(), next.bitSize() / 8 / 1024, next.hashCount(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * @param usernameOrEmail Username ou email (qualquer capitalização)
+     * @return false se com certeza não existe usuário com esse identificador
+     */
+    public boolean mightExist(String usernameOrEmail) {
+        BloomFilter current = filter;
+        if (!enabled || current == null || usernameOrEmail == null) {
+            return true;
+        }
+        if (current.mightContain(normalize(usernameOrEmail))) {
+            passed.increment();
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Registra identidades de um usuário criado/alterado.
+     */
+    public void add(String username, String email) {
+        put(filter, username, email);
+        put(loading, username, email);
+    }
+
+    /**
+     * Username/email alterados pela entidade (UserEntityListener)
+     */
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        add(event.username(), event.email());
+    }
+
+    private static void put(BloomFilter target, String username, String email) {
+        if (target == null) {
+            return;
+        }
+        if (username != null) {
+            target.put(normalize(username));
+        }
+        if (email != null) {
+            target.put(normalize(email));
+        }
+    }
+
+    /**
+     * Mesma regra do lower() usado no banco (sem trim: o valor precisa
+     * bater com o que streamLowerIdentities devolve)
+     */
+    public static String normalize(String usernameOrEmail) {
+        return usernameOrEmail.toLowerCase(Locale.ROOT);
+    }
+}
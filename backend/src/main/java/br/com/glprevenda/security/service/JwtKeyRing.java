@@ -0,0 +1,322 @@
+package br.com.glprevenda.security.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.crypto.SecretKey;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.EcPublicJwk;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Chaveiro de assinatura JWT.
+ *
+ * As chaves são decodificadas UMA vez na inicialização (antes era a cada
+ * assinatura/verificação) e indexadas pelo "kid" (key id) do header do token.
+ *
+ * Assinatura ES256 (ECDSA P-256):
+ * - Assina sempre com a chave privada atual (security.jwt.signing.private-key)
+ * - Chaves públicas (atual + security.jwt.signing.previous-public-keys) são
+ *   publicadas em /.well-known/jwks.json → outros serviços verificam os
+ *   tokens localmente, sem segredo compartilhado e sem chamar este backend
+ * - kid = thumbprint RFC 7638 da chave pública (igual em todos os nós)
+ *
+ * Legado HMAC: security.jwt.secret-key/previous-secret-keys verificam
+ * (nunca assinam) os tokens HS512 emitidos antes da troca, só até
+ * security.jwt.legacy-accept-until (ISO-8601, ex.: 2026-11-15T00:00:00Z).
+ * Esses tokens não têm jti/sid (logout e denylist não os alcançam), então o
+ * prazo deve ser a troca + refresh-expiration. Sem prazo, ou com prazo
+ * vencido, as chaves HMAC são ignoradas.
+ *
+ * Rotação:
+ * 1. Novo par em signing.private-key/public-key, pública antiga em previous-public-keys
+ * 2. Verificadores que virem kid desconhecido recarregam o JWKS
+ * 3. Após o refresh-expiration, remover a pública antiga
+ *
+ * Chaves em base64 (DER): privada PKCS#8, pública X.509.
+ * Sem chave configurada a inicialização falha. Par efêmero (tokens
+ * deixam de valer no restart e nos outros nós) só com
+ * security.jwt.signing.allow-ephemeral-key=true (desenvolvimento).
+ *
+ * @author Ozeias
+ */
+@Slf4j
+@Component
+public class JwtKeyRing extends LocatorAdapter<Key> {
+
+    private final String currentKeyId;
+    private final PrivateKey currentKey;
+    private final Map<String, Key> keysById;
+    private final List<EcPublicJwk> publicJwks;
+
+    /**
+     * Chave HMAC de tokens legados sem kid (null se não configurada)
+     */
+    private final SecretKey legacyKey;
+    private final Map<String, SecretKey> legacyKeysById;
+
+    /**
+     * Fim da aceitação de tokens HMAC legados (null se não há chave legada)
+     */
+    private final Instant legacyAcceptUntil;
+
+    public JwtKeyRing(
+            @Value("${security.jwt.signing.private-key:}") String signingPrivateKey,
+            @Value("${security.jwt.signing.public-key:}") String signingPublicKey,
+            @Value("${security.jwt.signing.previous-public-keys:}") List<String> previousPublicKeys,
+            @Value("${security.jwt.secret-key:}") String secretKey,
+            @Value("${security.jwt.previous-secret-keys:}") List<String> previousSecretKeys,
+            @Value("${security.jwt.legacy-accept-until:}") String legacyAcceptUntil,
+            @Value("${security.jwt.signing.allow-ephemeral-key:false}") boolean allowEphemeralKey
+    ) {
+        KeyPair signing = signingKeyPair(signingPrivateKey, signingPublicKey, allowEphemeralKey);
+        Map<String, Key> keys = new LinkedHashMap<>();
+        List<EcPublicJwk> jwks = new ArrayList<>();
+
+        EcPublicJwk currentJwk = publicJwk(signing.getPublic());
+        this.currentKeyId = currentJwk.getId();
+        this.currentKey = signing.getPrivate();
+        keys.put(currentKeyId, signing.getPublic());
+        jwks.add(currentJwk);
+
+        for (String previous : previousPublicKeys) {
+            if (previous != null && !previous.isBlank()) {
+                EcPublicJwk jwk = publicJwk(decodePublic(previous));
+                if (keys.putIfAbsent(jwk.getId(), jwk.toKey()) == null) {
+                    jwks.add(jwk);
+                }
+            }
+        }
+
+        SecretKey legacy = null;
+        Map<String, SecretKey> legacyKeys = new LinkedHashMap<>();
+        Instant acceptUntil = legacyDeadline(secretKey, previousSecretKeys, legacyAcceptUntil);
+        if (acceptUntil != null) {
+            if (secretKey != null && !secretKey.isBlank()) {
+                legacy = decodeSecret(secretKey);
+                legacyKeys.putIfAbsent(secretKeyId(secretKey), legacy);
+            }
+            for (String previous : previousSecretKeys) {
+                if (previous != null && !previous.isBlank()) {
+                    legacyKeys.putIfAbsent(secretKeyId(previous), decodeSecret(previous));
+                }
+            }
+        }
+
+        this.legacyKey = legacy;
+        this.legacyKeysById = Collections.unmodifiableMap(legacyKeys);
+        this.legacyAcceptUntil = acceptUntil;
+        this.keysById = Collections.unmodifiableMap(keys);
+        this.publicJwks = List.copyOf(jwks);
+
+        log.info("Chaveiro JWT carregado: kid atual={}, chaves públicas={}, chaves HMAC legadas={}",
+                currentKeyId, publicJwks.size(), legacyKeysById.size());
+    }
+
+    /**
+     * Key id da chave usada para assinar novos tokens
+     */
+    public String getCurrentKeyId() {
+        return currentKeyId;
+    }
+
+    /**
+     * Chave privada (ES256) usada para assinar novos tokens
+     */
+    public PrivateKey getCurrentKey() {
+        return currentKey;
+    }
+
+    /**
+     * Chaves públicas de verificação (JWKS), atual primeiro
+     */
+    public List<EcPublicJwk> getPublicJwks() {
+        return publicJwks;
+    }
+
+    /**
+     * Localiza a chave de verificação pelo kid do header.
+     *
+     * Tokens emitidos antes do chaveiro não têm kid → chave HMAC legada,
+     * só até legacy-accept-until.
+     */
+    @Override
+    protected Key locate(JwsHeader header) {
+        String kid = header.getKeyId();
+        if (kid == null) {
+            if (legacyKey == null) {
+                throw new SignatureException("Token sem kid");
+            }
+            return checkLegacyDeadline(legacyKey);
+        }
+
+        Key key = keysById.get(kid);
+        if (key != null) {
+            return key;
+        }
+        SecretKey legacy = legacyKeysById.get(kid);
+        if (legacy == null) {
+            throw new SignatureException("Chave de assinatura desconhecida: kid=" + kid);
+        }
+        return checkLegacyDeadline(legacy);
+    }
+
+    private Key checkLegacyDeadline(SecretKey key) {
+        if (!Instant.now().isBefore(legacyAcceptUntil)) {
+            throw new SignatureException("Tokens HMAC legados aceitos só até " + legacyAcceptUntil);
+        }
+        return key;
+    }
+
+    /**
+     * Prazo das chaves HMAC legadas; null (chaves ignoradas) sem chave,
+     * sem prazo ou com prazo já vencido.
+     */
+    private static Instant legacyDeadline(String secretKey, List<String> previousSecretKeys, String acceptUntil) {
+        boolean configured = (secretKey != null && !secretKey.isBlank())
+                || previousSecretKeys.stream().anyMatch(previous -> previous != null && !previous.isBlank());
+        if (!configured) {
+            return null;
+        }
+        if (acceptUntil == null || acceptUntil.isBlank()) {
+            log.warn("security.jwt.secret-key configurada sem security.jwt.legacy-accept-until: "
+                    + "tokens HMAC legados recusados");
+            return null;
+        }
+
+        Instant deadline;
+        try {
+            deadline = Instant.parse(acceptUntil.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalStateException("security.jwt.legacy-accept-until inválido (esperado ISO-8601, "
+                    + "ex.: 2026-11-15T00:00:00Z)", e);
+        }
+        if (!Instant.now().isBefore(deadline)) {
+            log.info("security.jwt.legacy-accept-until vencido ({}): chaves HMAC legadas podem ser removidas",
+                    deadline);
+            return null;
+        }
+        log.warn("Tokens HMAC legados aceitos até {}", deadline);
+        return deadline;
+    }
+
+    private static KeyPair signingKeyPair(String privateKey, String publicKey, boolean allowEphemeralKey) {
+        if (privateKey == null || privateKey.isBlank()) {
+            if (!allowEphemeralKey) {
+                throw new IllegalStateException("security.jwt.signing.private-key não configurada "
+                        + "(par efêmero só com security.jwt.signing.allow-ephemeral-key=true)");
+            }
+            log.warn("security.jwt.signing.private-key não configurada: usando par ES256 efêmero "
+                    + "(tokens invalidados no restart, não use com mais de um nó)");
+            return Jwts.SIG.ES256.keyPair().build();
+        }
+        if (publicKey == null || publicKey.isBlank()) {
+            throw new IllegalStateException("security.jwt.signing.public-key é obrigatória com a chave privada");
+        }
+
+        KeyPair pair = new KeyPair(decodePublic(publicKey), decodePrivate(privateKey));
+        checkPair(pair);
+        return pair;
+    }
+
+    /**
+     * Falha na inicialização se a pública publicada não verifica a privada
+     * (senão todo token emitido seria recusado pelos outros serviços)
+     */
+    private static void checkPair(KeyPair pair) {
+        try {
+            byte[] probe = "glp-erp".getBytes(StandardCharsets.UTF_8);
+            Signature signer = Signature.getInstance("SHA256withECDSA");
+            signer.initSign(pair.getPrivate());
+            signer.update(probe);
+            byte[] signature = signer.sign();
+
+            Signature verifier = Signature.getInstance("SHA256withECDSA");
+            verifier.initVerify(pair.getPublic());
+            verifier.update(probe);
+            if (!verifier.verify(signature)) {
+                throw new IllegalStateException("security.jwt.signing.public-key não corresponde à chave privada");
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Par de chaves ES256 inválido", e);
+        }
+    }
+
+    private static EcPublicJwk publicJwk(PublicKey publicKey) {
+        if (!(publicKey instanceof ECPublicKey ecKey)) {
+            throw new IllegalStateException("Chave pública de assinatura precisa ser EC (P-256)");
+        }
+        return Jwks.builder()
+                .key(ecKey)
+                .algorithm(Jwts.SIG.ES256.getId())
+                .publicKeyUse("sig")
+                .idFromThumbprint()
+                .build();
+    }
+
+    private static PublicKey decodePublic(String publicKey) {
+        try {
+            return KeyFactory.getInstance("EC")
+                    .generatePublic(new X509EncodedKeySpec(Base64.getMimeDecoder().decode(publicKey)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Chave pública ES256 inválida (esperado X.509 DER em base64)", e);
+        }
+    }
+
+    private static PrivateKey decodePrivate(String privateKey) {
+        try {
+            return KeyFactory.getInstance("EC")
+                    .generatePrivate(new PKCS8EncodedKeySpec(Base64.getMimeDecoder().decode(privateKey)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Chave privada ES256 inválida (esperado PKCS#8 DER em base64)", e);
+        }
+    }
+
+    private static SecretKey decodeSecret(String secretKey) {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+    }
+
+    /**
+     * Primeiros 8 bytes (hex) do SHA-256 do segredo: identifica a chave
+     * sem expor o segredo.
+     */
+    private static String secretKeyId(String secretKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(secretKey.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
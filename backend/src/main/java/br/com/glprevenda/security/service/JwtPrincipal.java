@@ -0,0 +1,82 @@
+package br.com.glprevenda.security.service;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Usuário autenticado reconstruído a partir das claims de um JWT já verificado.
+ *
+ * Usado pelo modo stateless do JwtAuthenticationFilter: em vez de carregar
+ * a entidade User do banco a cada requisição, o principal é montado direto
+ * do token (subject, userId e roles).
+ *
+ * Imutável: não carrega senha e não é uma entidade JPA.
+ *
+ * @author Ozeias
+ */
+@Getter
+@EqualsAndHashCode(of = {"userId", "username"})
+@ToString(of = {"userId", "username"})
+public final class JwtPrincipal implements UserDetails, RoleMaskPrincipal {
+
+    private final Long userId;
+    private final String username;
+    private final List<GrantedAuthority> authorities;
+    private final long roleMask;
+    private final Instant issuedAt;
+
+    public JwtPrincipal(Long userId, String username, Collection<String> roles, long roleMask, Instant issuedAt) {
+        this.userId = userId;
+        this.username = username;
+        this.roleMask = roleMask;
+        // Authorities compartilhadas do RoleRegistry (sem alocar por requisição)
+        this.authorities = roles.stream()
+                .map(role -> RoleRegistry.authorityOf(null, role))
+                .toList();
+        this.issuedAt = issuedAt;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    /**
+     * Principal vindo do token não tem senha (nunca é usado para login)
+     */
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    // O token só é aceito depois de assinado e dentro da validade,
+    // então as flags abaixo são sempre verdadeiras.
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
@@ -1,19 +1,24 @@
 package br.com.glprevenda.security. service;
 
+import br.com.glprevenda.security.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken. Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j. Slf4j;
 import org. springframework.beans.factory.annotation. Value;
 import org.springframework. security.core. GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework. stereotype.Service;
 
-import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream. Collectors;
 
@@ -27,13 +32,22 @@ import java.util.stream. Collectors;
  * 
  * Estrutura JWT:  HEADER.PAYLOAD.SIGNATURE
  * 
+ * Assinatura ES256 (chave privada só neste backend); outros serviços
+ * verificam com as chaves públicas de /.well-known/jwks.json.
+ * 
  * @author Ozeias
  */
 @Slf4j
 @Service
 public class JwtService {
     
-    @Value("${security.jwt.secret-key}")
+    private static final String ROLES_CLAIM = "roles";
+    private static final String USER_ID_CLAIM = "userId";
+    private static final String TYPE_CLAIM = "type";
+    private static final String ROLE_MASK_CLAIM = "roleMask";
+    private static final String SESSION_ID_CLAIM = "sid";
+    
+    @Value("${security.jwt.secret-key:}")
     private String secretKey;
     
     @Value("${security.jwt.expiration}")
@@ -42,6 +56,51 @@ public class JwtService {
     @Value("${security.jwt.refresh-expiration}")
     private long refreshExpiration;
     
+    private final JwtKeyRing keyRing;
+    
+    /**
+     * Métricas: auth.jwt.sign{type}, auth.jwt.verify{outcome}
+     */
+    private final Timer signAccessTimer;
+    private final Timer signRefreshTimer;
+    private final Timer verifyValidTimer;
+    private final Timer verifyExpiredTimer;
+    private final Timer verifyInvalidTimer;
+    
+    /**
+     * Parser reutilizável (thread-safe): a chave de verificação é
+     * escolhida pelo kid do token via JwtKeyRing.
+     */
+    private final JwtParser parser;
+    
+    public JwtService(JwtKeyRing keyRing, MeterRegistry meterRegistry) {
+        this.keyRing = keyRing;
+        this.parser = Jwts.parser()
+                .keyLocator(keyRing)
+                .build();
+        this.signAccessTimer = signTimer(meterRegistry, "access");
+        this.signRefreshTimer = signTimer(meterRegistry, "refresh");
+        this.verifyValidTimer = verifyTimer(meterRegistry, "valid");
+        this.verifyExpiredTimer = verifyTimer(meterRegistry, "expired");
+        this.verifyInvalidTimer = verifyTimer(meterRegistry, "invalid");
+    }
+    
+    private static Timer signTimer(MeterRegistry meterRegistry, String type) {
+        return Timer.builder("auth.jwt.sign")
+                .description("Tempo de assinatura de um JWT")
+                .tag("type", type)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+    
+    private static Timer verifyTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.jwt.verify")
+                .description("Tempo de verificação (assinatura + parse) de um JWT")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+    
     /**
      * Retorna o tempo de expiração do access token em milissegundos
      * 
@@ -61,7 +120,7 @@ public class JwtService {
     }
 
     /**
-     * Retorna a secret key utilizada para assinar tokens
+     * Retorna a secret key HMAC legada (só verificação de tokens antigos)
      * 
      * @return Secret key
      */
@@ -79,6 +138,51 @@ public class JwtService {
         return extractClaim(token, Claims::getSubject);
     }
     
+    /**
+     * Verifica a assinatura UMA vez e extrai todas as informações do token.
+     * 
+     * Preferir este método a chamar extractUsername/isTokenValid em sequência,
+     * que reverificam o mesmo token a cada chamada.
+     * 
+     * @param token Token JWT
+     * @return Token verificado (subject, userId, roles, datas e tipo)
+     * @throws io.jsonwebtoken.JwtException Se o token for inválido ou expirado
+     */
+    public ParsedToken parse(String token) {
+        final Claims claims = extractAllClaims(token);
+        
+        @SuppressWarnings("unchecked")
+        List<String> roles = claims.get(ROLES_CLAIM, List.class);
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        Number roleMask = claims.get(ROLE_MASK_CLAIM, Number.class);
+        
+        return ParsedToken.builder()
+                .subject(claims.getSubject())
+                .tokenId(claims.getId())
+                .sessionId(claims.get(SESSION_ID_CLAIM, String.class))
+                .userId(userId != null ? userId.longValue() : null)
+                .roles(roles != null ? List.copyOf(roles) : List.of())
+                .roleMask(roleMask != null ? roleMask.longValue() : 0L)
+                .issuedAt(claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null)
+                .expiration(claims.getExpiration() != null ? claims.getExpiration().toInstant() : null)
+                .type(resolveType(claims))
+                .build();
+    }
+    
+    /**
+     * Tipo do token pela claim "type".
+     * Tokens antigos (sem a claim): refresh token é o que NÃO tem roles.
+     */
+    private ParsedToken.TokenType resolveType(Claims claims) {
+        String type = claims.get(TYPE_CLAIM, String.class);
+        if (type != null) {
+            return ParsedToken.TokenType.valueOf(type.toUpperCase());
+        }
+        return claims.containsKey(ROLES_CLAIM) 
+                ? ParsedToken.TokenType.ACCESS 
+                : ParsedToken.TokenType.REFRESH;
+    }
+    
     /**
      * Extrai uma claim específica do token
      * 
@@ -98,14 +202,41 @@ public class JwtService {
      * @return Token JWT gerado
      */
     public String generateToken(UserDetails userDetails) {
+        return generateToken(userDetails, null);
+    }
+    
+    /**
+     * Gera token JWT para o usuário, vinculado a uma sessão
+     * 
+     * @param userDetails Dados do usuário (Spring Security)
+     * @param sessionId Sessão (claim sid; null = sem sessão)
+     * @return Token JWT gerado
+     */
+    public String generateToken(UserDetails userDetails, UUID sessionId) {
         Map<String, Object> extraClaims = new HashMap<>();
         
+        // Sessão: permite listar/revogar o dispositivo (SessionRegistry)
+        if (sessionId != null) {
+            extraClaims.put(SESSION_ID_CLAIM, sessionId.toString());
+        }
+        
         // Adicionar roles ao token
-        extraClaims.put("roles", userDetails.getAuthorities()
+        extraClaims.put(ROLES_CLAIM, userDetails.getAuthorities()
                 .stream()
                 .map(GrantedAuthority:: getAuthority)
                 .collect(Collectors.toList()));
         
+        // Adicionar ID do usuário (permite montar o principal sem ir ao banco)
+        if (userDetails instanceof User user && user.getId() != null) {
+            extraClaims.put(USER_ID_CLAIM, user.getId());
+        }
+        
+        // Bitmask das roles: checagens do @PreAuthorize sem comparar strings
+        long roleMask = userDetails instanceof RoleMaskPrincipal principal
+                ? principal.getRoleMask()
+                : RoleRegistry.maskOf(userDetails.getAuthorities());
+        extraClaims.put(ROLE_MASK_CLAIM, roleMask);
+        
         return generateToken(extraClaims, userDetails);
     }
     
@@ -117,17 +248,38 @@ public class JwtService {
      * @return Token JWT gerado
      */
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return buildToken(extraClaims, userDetails, jwtExpiration);
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        claims.put(TYPE_CLAIM, "access");
+        // jti: permite revogar este token (logout) via AccessTokenDenylist
+        claims.putIfAbsent(Claims.ID, UUID.randomUUID().toString());
+        return buildToken(claims, userDetails, jwtExpiration, signAccessTimer);
     }
     
     /**
-     * Gera refresh token (validade maior)
+     * Gera refresh token (validade maior) com jti aleatório
+     * 
+     * Só é aceito no refresh se o jti estiver registrado
+     * (AuthService registra via RefreshTokenStore).
      * 
      * @param userDetails Dados do usuário
      * @return Refresh token gerado
      */
     public String generateRefreshToken(UserDetails userDetails) {
-        return buildToken(new HashMap<>(), userDetails, refreshExpiration);
+        return generateRefreshToken(userDetails, UUID.randomUUID());
+    }
+    
+    /**
+     * Gera refresh token (validade maior) com o jti informado
+     * 
+     * @param userDetails Dados do usuário
+     * @param tokenId jti do token (chave em refresh_tokens)
+     * @return Refresh token gerado
+     */
+    public String generateRefreshToken(UserDetails userDetails, UUID tokenId) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(TYPE_CLAIM, "refresh");
+        claims.put(Claims.ID, tokenId.toString());
+        return buildToken(claims, userDetails, refreshExpiration, signRefreshTimer);
     }
     
     /**
@@ -147,9 +299,7 @@ public class JwtService {
      */
     public boolean isRefreshToken(String token) {
         try {
-            Claims claims = extractAllClaims(token);
-            // Refresh token NÃO tem roles
-            return ! claims.containsKey("roles");
+            return parse(token).isRefreshToken();
         } catch (Exception e) {
             log.error("Erro ao verificar tipo de token: {}", e.getMessage());
             return false;
@@ -165,32 +315,47 @@ public class JwtService {
      */
     public boolean isRefreshTokenValid(String token, UserDetails userDetails) {
         try {
-            final String username = extractUsername(token);
-            boolean isUsernameValid = username.equals(userDetails.getUsername());
-            boolean isTokenNotExpired = !isTokenExpired(token);
-            boolean isRefresh = isRefreshToken(token);
-            
-            return isUsernameValid && isTokenNotExpired && isRefresh;
+            return isRefreshTokenValid(parse(token), userDetails);
         } catch (Exception e) {
             log.error("Erro ao validar refresh token: {}", e.getMessage());
             return false;
         }
     }
     
+    /**
+     * Valida Refresh Token já verificado (sem nova checagem de assinatura)
+     * 
+     * @param token Refresh token verificado por parse()
+     * @param userDetails Dados do usuário
+     * @return true se refresh token é válido
+     */
+    public boolean isRefreshTokenValid(ParsedToken token, UserDetails userDetails) {
+        return token.getSubject() != null
+                && token.getSubject().equals(userDetails.getUsername())
+                && !token.isExpired()
+                && token.isRefreshToken();
+    }
+    
     private String buildToken(
             Map<String, Object> extraClaims,
             UserDetails userDetails,
-            long expiration
+            long expiration,
+            Timer timer
     ) {
+        long start = System.nanoTime();
         long currentTimeMillis = System.currentTimeMillis();
         
-        return Jwts.builder()
+        String token = Jwts.builder()
                 .claims(extraClaims)
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(currentTimeMillis))
                 .expiration(new Date(currentTimeMillis + expiration))
-                .signWith(getSignInKey())
+                .header().keyId(keyRing.getCurrentKeyId()).and()
+                .signWith(keyRing.getCurrentKey(), Jwts.SIG.ES256)
                 .compact();
+        
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return token;
     }
     
     /**
@@ -201,28 +366,20 @@ public class JwtService {
      * @return true se válido, false caso contrário
      */
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && ! isTokenExpired(token);
+        return isTokenValid(parse(token), userDetails);
     }
     
     /**
-     * Verifica se o token está expirado
+     * Valida token já verificado (sem nova checagem de assinatura)
      * 
-     * @param token Token JWT
-     * @return true se expirado, false caso contrário
-     */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-    
-    /**
-     * Extrai a data de expiração do token
-     * 
-     * @param token Token JWT
-     * @return Data de expiração
+     * @param token Token verificado por parse()
+     * @param userDetails Dados do usuário
+     * @return true se válido, false caso contrário
      */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public boolean isTokenValid(ParsedToken token, UserDetails userDetails) {
+        return token.getSubject() != null
+                && token.getSubject().equals(userDetails.getUsername())
+                && !token.isExpired();
     }
     
     /**
@@ -232,21 +389,20 @@ public class JwtService {
      * @return Claims do token
      */
     private Claims extractAllClaims(String token) {
-        return Jwts. parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-    
-    /**
-     * Obtém a chave de assinatura do token
-     * 
-     * @return Chave de assinatura
-     */
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        long start = System.nanoTime();
+        try {
+            Claims claims = parser
+                    .parseSignedClaims(token)
+                    .getPayload();
+            verifyValidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return claims;
+        } catch (ExpiredJwtException e) {
+            verifyExpiredTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        } catch (RuntimeException e) {
+            verifyInvalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
     }
     
     /**
@@ -0,0 +1,102 @@
+package br.com.glprevenda.security.service;
+
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import br.com.glprevenda.shared.exception.TooManyRequestsException;
+import br.com.glprevenda.shared.util.StripedTokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Limite de tentativas de login, checado ANTES do AuthenticationManager.
+ *
+ * Dois conjuntos de token buckets (StripedTokenBucket, sem lock):
+ * - Por IP do cliente → segura rajadas de credential stuffing de uma origem
+ * - Por username/email → segura ataques distribuídos contra uma mesma conta
+ *
+ * Tentativa recusada custa alguns CAS (microssegundos), nunca um BCrypt:
+ * a requisição volta 429 + Retry-After sem ir para o PasswordHashingExecutor.
+ *
+ * Os buckets ficam em memória (por nó). O bloqueio persistente da conta
+ * fica no AccountLockoutService.
+ *
+ * Métricas:
+ * - auth.login.throttled {scope="ip"|"username"} → tentativas recusadas
+ *
+ * @author Ozeias
+ */
+@Slf4j
+@Component
+public class LoginThrottle {
+
+    private static final double MILLIS_PER_MINUTE = 60_000.0;
+
+    private final boolean enabled;
+    private final StripedTokenBucket ipBuckets;
+    private final StripedTokenBucket usernameBuckets;
+    private final Counter ipRejections;
+    private final Counter usernameRejections;
+
+    public LoginThrottle(
+            @Value("${security.login-throttle.enabled:true}") boolean enabled,
+            @Value("${security.login-throttle.stripes:4096}") int stripes,
+            @Value("${security.login-throttle.ip.capacity:20}") int ipCapacity,
+            @Value("${security.login-throttle.ip.per-minute:20}") int ipPerMinute,
+            @Value("${security.login-throttle.username.capacity:5}") int usernameCapacity,
+            @Value("${security.login-throttle.username.per-minute:5}") int usernamePerMinute,
+            MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        this.ipBuckets = new StripedTokenBucket(stripes, ipCapacity, ipPerMinute / MILLIS_PER_MINUTE);
+        this.usernameBuckets = new StripedTokenBucket(
+                stripes, usernameCapacity, usernamePerMinute / MILLIS_PER_MINUTE);
+        this.ipRejections = Counter.builder("auth.login.throttled")
+                .tag("scope", "ip")
+                .register(meterRegistry);
+        this.usernameRejections = Counter.builder("auth.login.throttled")
+                .tag("scope", "username")
+                .register(meterRegistry);
+
+        log.info("Login throttling: enabled={}, ip={}/min (rajada {}), username={}/min (rajada {})",
+                enabled, ipPerMinute, ipCapacity, usernamePerMinute, usernameCapacity);
+    }
+
+    /**
+     * Consome uma tentativa do IP e do usuário.
+     *
+     * @param clientIp IP do cliente (null = não limita por IP)
+     * @param usernameOrEmail Identificador informado no login
+     * @throws TooManyRequestsException Se algum dos limites estourou (HTTP 429)
+     */
+    public void checkAllowed(String clientIp, String usernameOrEmail) {
+        if (!enabled) {
+            return;
+        }
+
+        if (clientIp != null) {
+            long waitMillis = ipBuckets.tryAcquire(clientIp);
+            if (waitMillis > 0) {
+                ipRejections.increment();
+                log.warn("Login bloqueado por excesso de tentativas do IP: {}", clientIp);
+                throw new TooManyRequestsException(
+                        "Muitas tentativas de login. Tente novamente mais tarde.", toSeconds(waitMillis));
+            }
+        }
+
+        long waitMillis = usernameBuckets.tryAcquire(usernameOrEmail.trim().toLowerCase(Locale.ROOT));
+        if (waitMillis > 0) {
+            usernameRejections.increment();
+            log.warn("Login bloqueado por excesso de tentativas para: {}", usernameOrEmail);
+            throw new TooManyRequestsException(
+                    "Muitas tentativas de login. Tente novamente mais tarde.", toSeconds(waitMillis));
+        }
+    }
+
+    private static long toSeconds(long millis) {
+        return Math.max(1, (millis + 999) / 1000);
+    }
+}
@@ -0,0 +1,84 @@
+package br.com.glprevenda.security.service;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Resultado imutável de um JWT já verificado (assinatura conferida uma única vez).
+ *
+ * Produzido por JwtService.parse(token). Evita reparsear e reverificar
+ * o mesmo token para cada claim consultada.
+ *
+ * @author Ozeias
+ */
+@Value
+@Builder
+public class ParsedToken {
+
+    /**
+     * Tipo do token: access (acesso à API) ou refresh (renovação)
+     */
+    public enum TokenType {
+        ACCESS,
+        REFRESH
+    }
+
+    String subject;
+
+    /**
+     * Claim jti (refresh tokens registrados em refresh_tokens; null em tokens antigos)
+     */
+    String tokenId;
+
+    /**
+     * Claim sid: sessão (user_sessions) do access token; null em tokens antigos
+     */
+    String sessionId;
+
+    /**
+     * ID do usuário (null em tokens antigos, emitidos sem a claim userId)
+     */
+    Long userId;
+
+    /**
+     * Roles do usuário (vazia em refresh tokens)
+     */
+    @Builder.Default
+    List<String> roles = List.of();
+
+    /**
+     * Bitmask das roles (bit = ID da role); 0 em tokens sem a claim roleMask
+     */
+    long roleMask;
+
+    Instant issuedAt;
+
+    Instant expiration;
+
+    TokenType type;
+
+    /**
+     * Verifica se o token está expirado no instante informado
+     */
+    public boolean isExpired(Instant now) {
+        return expiration != null && expiration.isBefore(now);
+    }
+
+    /**
+     * Verifica se o token está expirado agora
+     */
+    public boolean isExpired() {
+        return isExpired(Instant.now());
+    }
+
+    public boolean isAccessToken() {
+        return type == TokenType.ACCESS;
+    }
+
+    public boolean isRefreshToken() {
+        return type == TokenType.REFRESH;
+    }
+}
@@ -0,0 +1,143 @@
+package br.com.glprevenda.security.service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import br.com.glprevenda.shared.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executor dedicado para o trabalho de BCrypt (hash e verificação de senha).
+ * 
+ * BCrypt custa centenas de ms de CPU por chamada. Rodando nas threads do
+ * Tomcat, a troca de turno (todos os motoristas logando juntos) deixava
+ * os outros endpoints sem CPU. Aqui o trabalho fica limitado a um pool
+ * próprio com fila limitada:
+ * 
+ * - pool-size threads fazendo hash ao mesmo tempo
+ * - queue-capacity tarefas esperando; acima disso → 503 na hora
+ * - timeout: tempo máximo de espera pelo resultado → 503
+ * 
+ * Métricas:
+ * - executor.queued / executor.active {name="password-hashing"} → fila
+ * - auth.password.hash {operation} → latência do hash
+ * 
+ * @author Ozeias
+ */
+@Slf4j
+@Component
+public class PasswordHashingExecutor {
+    
+    private static final String EXECUTOR_NAME = "password-hashing";
+    
+    private final ThreadPoolExecutor threadPool;
+    private final ExecutorService executor;
+    private final MeterRegistry meterRegistry;
+    private final Duration timeout;
+    private final long retryAfterSeconds;
+    
+    public PasswordHashingExecutor(
+            @Value("${security.password-hashing.pool-size:0}") int poolSize,
+            @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password-hashing.timeout:5s}") Duration timeout,
+            @Value("${security.password-hashing.retry-after:2}") long retryAfterSeconds,
+            MeterRegistry meterRegistry
+    ) {
+        // 0 = metade dos núcleos (sobra CPU para o resto da API)
+        int threads = poolSize > 0
+                ? poolSize
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        
+        this.threadPool = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, threadPool, EXECUTOR_NAME);
+        this.meterRegistry = meterRegistry;
+        this.timeout = timeout;
+        this.retryAfterSeconds = retryAfterSeconds;
+        
+        log.info("Executor de hash de senha: threads={}, fila={}, timeout={}", 
+                threads, queueCapacity, timeout);
+    }
+    
+    /**
+     * Executa trabalho de hash/verificação de senha no pool dedicado
+     * e aguarda o resultado.
+     * 
+     * Exceções da tarefa (ex: BadCredentialsException) são relançadas como estão.
+     * 
+     * @param operation Nome da operação para métricas (ex: "login", "register")
+     * @param task Trabalho que usa o PasswordEncoder
+     * @return Resultado da tarefa
+     * @throws ServiceOverloadedException Se a fila estiver cheia ou o timeout estourar
+     */
+    public <T> T execute(String operation, Callable<T> task) {
+        Timer timer = Timer.builder("auth.password.hash")
+                .description("Tempo de execução do hash/verificação de senha")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            log.warn("Fila de hash de senha cheia ({}), recusando {}", threadPool.getQueue().size(), operation);
+            throw overloaded();
+        }
+        
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Timeout aguardando hash de senha ({})", operation);
+            throw overloaded();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw overloaded();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Falha no hash de senha", cause);
+        }
+    }
+    
+    private ServiceOverloadedException overloaded() {
+        return new ServiceOverloadedException(
+                "Serviço de autenticação sobrecarregado. Tente novamente em instantes.",
+                retryAfterSeconds);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        threadPool.shutdown();
+    }
+}
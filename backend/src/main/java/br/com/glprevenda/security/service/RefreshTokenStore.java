@@ -0,0 +1,174 @@
+package br.com.glprevenda.security.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import br.com.glprevenda.security.entity.RefreshToken;
+import br.com.glprevenda.security.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Estado dos refresh tokens emitidos: rotação a cada uso e detecção de reuso.
+ *
+ * Cada refresh token tem um jti registrado em refresh_tokens:
+ * - Login/cadastro → issue(): token novo em uma família nova
+ * - Refresh → rotate(): o token apresentado é marcado como usado e
+ *   trocado por outro da mesma família, em UM comando no banco
+ * - Token já usado apresentado de novo (roubado e usado por outra pessoa,
+ *   ou pelo dono depois do ladrão) → a família inteira é revogada e
+ *   todos precisam fazer login novamente
+ *
+ * Cache em memória (limitado) dos tokens já trocados por este nó:
+ * o reuso é reconhecido e a família revogada sem a busca pelo jti.
+ * Caminho comum do refresh = 1 consulta (a rotação).
+ *
+ * Métricas: cache.* {cache="security.refresh-tokens"}
+ *
+ * @author Ozeias
+ */
+@Slf4j
+@Component
+public class RefreshTokenStore {
+
+    private static final String CACHE_NAME = "security.refresh-tokens";
+
+    /**
+     * Resultado da rotação
+     */
+    public enum Outcome {
+        /** Token trocado pelo novo */
+        ROTATED,
+        /** Token já usado: família revogada */
+        REUSED,
+        /** Token desconhecido, expirado ou revogado */
+        INVALID
+    }
+
+    /**
+     * @param outcome Resultado
+     * @param userId Dono do token (apenas em ROTATED)
+     * @param familyId Família = sessão do token (apenas em ROTATED)
+     */
+    public record Rotation(Outcome outcome, Long userId, UUID familyId) {
+
+        static Rotation rotated(Long userId, UUID familyId) {
+            return new Rotation(Outcome.ROTATED, userId, familyId);
+        }
+
+        static Rotation rejected(Outcome outcome) {
+            return new Rotation(outcome, null, null);
+        }
+    }
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    /**
+     * jti já trocado → família
+     */
+    private final Cache<UUID, UUID> rotatedTokens;
+
+    public RefreshTokenStore(
+            RefreshTokenRepository refreshTokenRepository,
+            @Value("${security.jwt.refresh-expiration}") long refreshExpiration,
+            @Value("${security.jwt.refresh-store.cache-size:100000}") long cacheSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.rotatedTokens = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(refreshExpiration))
+                .maximumSize(cacheSize)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, rotatedTokens, CACHE_NAME);
+    }
+
+    /**
+     * Registra o primeiro refresh token de um login (família nova).
+     *
+     * @param jti ID do token
+     * @param userId Dono do token
+     * @param expiresAt Expiração (igual à do JWT)
+     * @return ID da família (= ID da sessão em user_sessions)
+     */
+    public UUID issue(UUID jti, Long userId, LocalDateTime expiresAt) {
+        UUID familyId = UUID.randomUUID();
+        refreshTokenRepository.insert(jti, familyId, userId, expiresAt);
+        return familyId;
+    }
+
+    /**
+     * Revoga a família inteira (sessão encerrada pelo admin ou no logout)
+     *
+     * @param familyId Família = ID da sessão
+     */
+    public void revokeFamily(UUID familyId) {
+        refreshTokenRepository.revokeFamily(familyId, LocalDateTime.now());
+    }
+
+    /**
+     * Revoga a família do token (logout): nenhum token dela renova mais.
+     *
+     * @param jti Token apresentado no logout
+     * @return true se o token era conhecido
+     */
+    public boolean revokeFamilyOf(UUID jti) {
+        UUID familyId = rotatedTokens.getIfPresent(jti);
+        if (familyId == null) {
+            familyId = refreshTokenRepository.findById(jti)
+                    .map(RefreshToken::getFamilyId)
+                    .orElse(null);
+        }
+        if (familyId == null) {
+            return false;
+        }
+        revokeFamily(familyId);
+        return true;
+    }
+
+    /**
+     * Troca o token apresentado pelo novo, ou revoga a família em caso de reuso.
+     *
+     * @param jti Token apresentado
+     * @param newJti Token que será devolvido ao cliente
+     * @param newExpiresAt Expiração do novo token
+     * @return Resultado (com o ID do dono, se trocou)
+     */
+    public Rotation rotate(UUID jti, UUID newJti, LocalDateTime newExpiresAt) {
+        LocalDateTime now = LocalDateTime.now();
+
+        Optional<RefreshTokenRepository.RotatedToken> rotated =
+                refreshTokenRepository.rotate(jti, newJti, newExpiresAt, now);
+        if (rotated.isPresent()) {
+            rotatedTokens.put(jti, rotated.get().getFamilyId());
+            return Rotation.rotated(rotated.get().getUserId(), rotated.get().getFamilyId());
+        }
+
+        // Não trocou: reuso de token já usado? (cache antes do banco)
+        UUID familyId = rotatedTokens.getIfPresent(jti);
+        if (familyId == null) {
+            familyId = refreshTokenRepository.findById(jti)
+                    .filter(token -> token.getUsedAt() != null)
+                    .map(RefreshToken::getFamilyId)
+                    .orElse(null);
+        }
+        if (familyId == null) {
+            return Rotation.rejected(Outcome.INVALID);
+        }
+
+        int revoked = refreshTokenRepository.revokeFamily(familyId, now);
+        log.warn("Reuso de refresh token detectado: jti={}, família={} revogada ({} tokens)",
+                jti, familyId, revoked);
+        return Rotation.rejected(Outcome.REUSED);
+    }
+}
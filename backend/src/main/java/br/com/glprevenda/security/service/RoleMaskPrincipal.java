@@ -0,0 +1,18 @@
+package br.com.glprevenda.security.service;
+
+/**
+ * Principal que conhece o próprio bitmask de roles (ver RoleRegistry).
+ *
+ * Implementado por User (bits calculados pelos IDs das roles) e por
+ * JwtPrincipal (bits vindos da claim roleMask do token). A expression root
+ * do @PreAuthorize lê o bitmask daqui em vez de percorrer as authorities.
+ *
+ * @author Ozeias
+ */
+public interface RoleMaskPrincipal {
+
+    /**
+     * Bitmask de roles (bit = ID da role); 0 se desconhecido
+     */
+    long getRoleMask();
+}
@@ -0,0 +1,288 @@
+package br.com.glprevenda.security.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import br.com.glprevenda.security.entity.Role;
+import br.com.glprevenda.security.event.RoleChangedEvent;
+import br.com.glprevenda.security.repository.RoleRepository;
+import br.com.glprevenda.shared.exception.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registro em memória das roles do sistema (seed da migration V2).
+ *
+ * As roles quase nunca mudam, então são carregadas UMA vez na inicialização
+ * em um snapshot imutável:
+ * - nome → role (ex: cadastro busca ROLE_VENDEDOR sem ir ao banco)
+ * - id → authority (SimpleGrantedAuthority pré-alocada e compartilhada)
+ *
+ * Criar/alterar/remover role via JPA publica RoleChangedEvent
+ * (RoleEntityListener) e o snapshot inteiro é recarregado e trocado
+ * de uma vez (leitores nunca veem um mapa pela metade).
+ *
+ * Bitmask de roles: cada role ocupa o bit de índice igual ao seu ID
+ * (ROLE_ADMIN id=1 → bit 1). O mesmo em todos os nós, sem configuração.
+ * Um usuário com várias roles vira um único long (claim do JWT e checagens
+ * do @PreAuthorize com operações de bit). Roles com ID >= 64 ficam fora do
+ * bitmask e caem no caminho por nome.
+ *
+ * O snapshot atual também fica acessível de forma estática (authorityOf,
+ * bitOf, maskOf) para a entidade User e a expression root do
+ * @PreAuthorize, que não são beans Spring.
+ *
+ * @author Ozeias
+ */
+@Slf4j
+@Component
+public class RoleRegistry {
+
+    /**
+     * Role carregada: dados mínimos + authority compartilhada
+     */
+    public record Entry(Long id, String name, GrantedAuthority authority) {
+
+        /**
+         * Role destacada (fora de sessão JPA) com id e nome
+         */
+        public Role toRole() {
+            return Role.builder().id(id).name(name).build();
+        }
+    }
+
+    /**
+     * Maior ID de role que gera a tabela de authorities por bitmask
+     * (2^(ID+1) combinações pré-calculadas)
+     */
+    private static final int MAX_PRECOMPUTED_BIT = 12;
+
+    /**
+     * Mapas imutáveis trocados juntos a cada recarga
+     *
+     * @param bitByName Bit da role pelo nome completo (ROLE_ADMIN) e simples (ADMIN): semântica de hasRole
+     * @param authoritiesByMask Authorities já montadas para cada bitmask (null se IDs altos)
+     */
+    private record Snapshot(
+            Map<String, Entry> byName,
+            Map<Long, Entry> byId,
+            Map<String, Long> bitByName,
+            List<Set<GrantedAuthority>> authoritiesByMask) {
+
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), Map.of(), null);
+    }
+
+    private static volatile Snapshot current = Snapshot.EMPTY;
+
+    private final RoleRepository roleRepository;
+
+    public RoleRegistry(RoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    /**
+     * Carrega todas as roles do banco e troca o snapshot
+     */
+    @PostConstruct
+    public void reload() {
+        List<Role> roles = roleRepository.findAll();
+
+        Map<String, Entry> byName = new HashMap<>();
+        Map<Long, Entry> byId = new HashMap<>();
+        Map<String, Long> bitByName = new HashMap<>();
+        long maxId = 0;
+        for (Role role : roles) {
+            Entry entry = new Entry(role.getId(), role.getName(), new SimpleGrantedAuthority(role.getName()));
+            byName.put(entry.name(), entry);
+            byId.put(entry.id(), entry);
+            maxId = Math.max(maxId, entry.id());
+
+            long bit = bitOf(entry.id());
+            if (bit != 0) {
+                bitByName.put(entry.name(), bit);
+                if (entry.name().startsWith("ROLE_")) {
+                    bitByName.put(role.getSimpleName(), bit);
+                }
+            } else {
+                log.warn("Role {} (ID={}) fora do bitmask: checagens por nome", entry.name(), entry.id());
+            }
+        }
+
+        current = new Snapshot(
+                Collections.unmodifiableMap(byName),
+                Collections.unmodifiableMap(byId),
+                Collections.unmodifiableMap(bitByName),
+                maxId <= MAX_PRECOMPUTED_BIT ? precomputeAuthorities(byId, (int) maxId) : null);
+
+        log.info("Roles carregadas em memória: {}", byName.keySet());
+    }
+
+    /**
+     * Recarrega após o commit da alteração (ou na hora, fora de transação)
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRoleChanged(RoleChangedEvent event) {
+        log.info("Role alterada (ID={}, Nome={}), recarregando registro", event.roleId(), event.name());
+        reload();
+    }
+
+    /**
+     * Busca a role pelo nome
+     *
+     * @param name Nome da role (ex: ROLE_VENDEDOR)
+     * @return Role, se existir
+     */
+    public Optional<Entry> findByName(String name) {
+        return Optional.ofNullable(current.byName().get(name));
+    }
+
+    /**
+     * Busca a role pelo nome ou lança exceção
+     *
+     * @param name Nome da role (ex: ROLE_VENDEDOR)
+     * @return Role registrada
+     * @throws ResourceNotFoundException Se a role não existe
+     */
+    public Entry require(String name) {
+        return findByName(name).orElseThrow(() -> new ResourceNotFoundException("Role", name));
+    }
+
+    /**
+     * Busca a role pelo ID
+     *
+     * @param id ID da role
+     * @return Role, se existir
+     */
+    public Optional<Entry> findById(Long id) {
+        return Optional.ofNullable(current.byId().get(id));
+    }
+
+    /**
+     * Bit da role pelo ID (0 se o ID não cabe no bitmask)
+     */
+    public static long bitOf(Long roleId) {
+        return roleId != null && roleId >= 0 && roleId < Long.SIZE ? 1L << roleId : 0L;
+    }
+
+    /**
+     * Bit da role pelo nome completo (ROLE_ADMIN) ou simples (ADMIN),
+     * como no hasRole do Spring. Sem alocação: uma consulta em mapa.
+     *
+     * @return Bit da role, ou 0 se a role não está no registro
+     */
+    public static long bitOf(String roleName) {
+        Long bit = current.bitByName().get(roleName);
+        return bit != null ? bit : 0L;
+    }
+
+    /**
+     * Bit da role pela authority exata (ROLE_ADMIN; "ADMIN" não é a mesma
+     * authority), como no hasAuthority do Spring.
+     *
+     * @return Bit da role, ou 0 se a authority não é de uma role do registro
+     */
+    public static long bitOfAuthority(String authority) {
+        Entry entry = current.byName().get(authority);
+        return entry != null ? bitOf(entry.id()) : 0L;
+    }
+
+    /**
+     * Bitmask a partir de authorities (ex: principal sem bitmask próprio).
+     * Authorities fora do registro são ignoradas.
+     */
+    public static long maskOf(Collection<? extends GrantedAuthority> authorities) {
+        long mask = 0L;
+        for (GrantedAuthority authority : authorities) {
+            mask |= bitOfAuthority(authority.getAuthority());
+        }
+        return mask;
+    }
+
+    /**
+     * Authorities das roles informadas.
+     *
+     * Se todas as roles estão no registro, devolve o Set imutável
+     * pré-montado para o bitmask (nenhuma alocação por chamada).
+     * Senão, monta um Set novo com as authorities compartilhadas.
+     *
+     * @param roles Roles do usuário
+     * @return Authorities (somente leitura)
+     */
+    public static Set<GrantedAuthority> authoritiesOf(Collection<Role> roles) {
+        Snapshot snapshot = current;
+
+        if (snapshot.authoritiesByMask() != null) {
+            long mask = 0L;
+            boolean known = true;
+            for (Role role : roles) {
+                Entry entry = role.getId() != null ? snapshot.byId().get(role.getId()) : null;
+                if (entry == null || !entry.name().equals(role.getName())) {
+                    known = false;
+                    break;
+                }
+                mask |= bitOf(entry.id());
+            }
+            if (known) {
+                return snapshot.authoritiesByMask().get((int) mask);
+            }
+        }
+
+        Set<GrantedAuthority> authorities = new HashSet<>();
+        for (Role role : roles) {
+            authorities.add(authorityOf(role.getId(), role.getName()));
+        }
+        return Collections.unmodifiableSet(authorities);
+    }
+
+    /**
+     * Monta o Set de authorities de cada combinação de bits até maxBit
+     */
+    private static List<Set<GrantedAuthority>> precomputeAuthorities(Map<Long, Entry> byId, int maxBit) {
+        int combinations = 1 << (maxBit + 1);
+        List<Set<GrantedAuthority>> table = new ArrayList<>(combinations);
+        for (int mask = 0; mask < combinations; mask++) {
+            Set<GrantedAuthority> authorities = new HashSet<>();
+            for (int bit = 0; bit <= maxBit; bit++) {
+                Entry entry = byId.get((long) bit);
+                if ((mask & (1 << bit)) != 0 && entry != null) {
+                    authorities.add(entry.authority());
+                }
+            }
+            table.add(Collections.unmodifiableSet(authorities));
+        }
+        return Collections.unmodifiableList(table);
+    }
+
+    /**
+     * Authority compartilhada da role.
+     *
+     * Role fora do registro (ex: criada agora em outro nó, ou testes sem
+     * contexto Spring) → nova SimpleGrantedAuthority com o nome.
+     *
+     * @param roleId ID da role (pode ser null)
+     * @param name Nome da role
+     * @return GrantedAuthority
+     */
+    public static GrantedAuthority authorityOf(Long roleId, String name) {
+        Snapshot snapshot = current;
+        Entry entry = roleId != null ? snapshot.byId().get(roleId) : null;
+        if (entry == null || !entry.name().equals(name)) {
+            entry = snapshot.byName().get(name);
+        }
+        return entry != null ? entry.authority() : new SimpleGrantedAuthority(name);
+    }
+}
@@ -0,0 +1,177 @@
+package br.com.glprevenda.security.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.com.glprevenda.security.dto.SessionResponse;
+import br.com.glprevenda.security.repository.UserSessionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registro de sessões ativas (dispositivos logados).
+ *
+ * Sessão = família de refresh tokens: aberta no login, estendida a cada
+ * refresh (no mesmo comando da rotação) e encerrada no logout ou pelo admin.
+ * O access token carrega o ID da sessão (claim sid).
+ *
+ * Último acesso (last_seen_at) em write-behind:
+ * - touch() a cada requisição autenticada só marca o horário em memória
+ *   (várias requisições da mesma sessão = uma entrada)
+ * - flush() agendado grava tudo em UM lote JDBC, em ordem de ID
+ *   (nós diferentes travam as linhas na mesma ordem)
+ * - Atraso de até flush-interval; um touch concorrente com o flush pode
+ *   ficar para a próxima requisição (aceitável para "visto por último")
+ *
+ * Revogar uma sessão derruba na hora: família de refresh tokens revogada
+ * e sid na AccessTokenDenylist (todos os access tokens da sessão).
+ * Nos outros nós, o sid entra na próxima leitura periódica de
+ * revoked_tokens (security.jwt.revocation.poll-interval).
+ *
+ * @author Ozeias
+ */
+@Slf4j
+@Component
+public class SessionRegistry {
+
+    private static final int MAX_DEVICE_LENGTH = 255;
+    private static final int MAX_IP_LENGTH = 45;
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private static final String UPDATE_LAST_SEEN =
+            "UPDATE user_sessions SET last_seen_at = ? WHERE id = ? AND last_seen_at < ?";
+
+    private final UserSessionRepository sessionRepository;
+    private final RefreshTokenStore refreshTokenStore;
+    private final AccessTokenDenylist tokenDenylist;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * sid → último acesso (epoch millis) ainda não gravado
+     */
+    private volatile ConcurrentHashMap<String, AtomicLong> pending = new ConcurrentHashMap<>();
+
+    public SessionRegistry(
+            UserSessionRepository sessionRepository,
+            RefreshTokenStore refreshTokenStore,
+            AccessTokenDenylist tokenDenylist,
+            JdbcTemplate jdbcTemplate
+    ) {
+        this.sessionRepository = sessionRepository;
+        this.refreshTokenStore = refreshTokenStore;
+        this.tokenDenylist = tokenDenylist;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Abre a sessão de um login.
+     *
+     * @param sessionId ID da família de refresh tokens
+     * @param userId Dono da sessão
+     * @param device User-Agent (pode ser null)
+     * @param ipAddress IP do cliente (pode ser null)
+     * @param expiresAt Expiração do refresh token
+     */
+    public void open(UUID sessionId, Long userId, String device, String ipAddress, LocalDateTime expiresAt) {
+        sessionRepository.insert(sessionId, userId,
+                truncate(device, MAX_DEVICE_LENGTH), truncate(ipAddress, MAX_IP_LENGTH),
+                LocalDateTime.now(), expiresAt);
+    }
+
+    /**
+     * Marca acesso da sessão (toda requisição autenticada, sem banco).
+     *
+     * @param sessionId Claim sid do token (null = token sem sessão, ignorado)
+     */
+    public void touch(String sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+        pending.computeIfAbsent(sessionId, id -> new AtomicLong())
+                .lazySet(System.currentTimeMillis());
+    }
+
+    /**
+     * Grava os acessos acumulados em lote
+     */
+    @Scheduled(fixedDelayString = "${security.sessions.last-seen.flush-interval:PT30S}")
+    @PreDestroy
+    public void flush() {
+        ConcurrentHashMap<String, AtomicLong> batch = pending;
+        if (batch.isEmpty()) {
+            return;
+        }
+        pending = new ConcurrentHashMap<>();
+
+        List<Map.Entry<String, AtomicLong>> entries = new ArrayList<>(batch.entrySet());
+        entries.sort(Map.Entry.comparingByKey(Comparator.naturalOrder()));
+
+        long start = System.nanoTime();
+        jdbcTemplate.batchUpdate(UPDATE_LAST_SEEN, entries, FLUSH_BATCH_SIZE, (statement, entry) -> {
+            Timestamp seenAt = new Timestamp(entry.getValue().get());
+            statement.setTimestamp(1, seenAt);
+            statement.setObject(2, UUID.fromString(entry.getKey()));
+            statement.setTimestamp(3, seenAt);
+        });
+
+        log.debug("Último acesso gravado: {} sessões em {} ms",
+                entries.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Sessões ativas do usuário (com acessos ainda não gravados)
+     *
+     * @param userId ID do usuário
+     * @return Sessões, mais recentes primeiro
+     */
+    public List<SessionResponse> list(Long userId) {
+        List<SessionResponse> sessions = sessionRepository.findActiveByUserId(userId, LocalDateTime.now());
+
+        Map<String, AtomicLong> unsaved = pending;
+        for (SessionResponse session : sessions) {
+            AtomicLong seenAt = unsaved.get(session.getId().toString());
+            if (seenAt != null) {
+                LocalDateTime seen = new Timestamp(seenAt.get()).toLocalDateTime();
+                if (session.getLastSeenAt() == null || seen.isAfter(session.getLastSeenAt())) {
+                    session.setLastSeenAt(seen);
+                }
+            }
+        }
+        sessions.sort(Comparator.comparing(SessionResponse::getLastSeenAt).reversed());
+        return sessions;
+    }
+
+    /**
+     * Encerra a sessão: sem novos refresh e sem os access tokens já emitidos.
+     *
+     * @param userId Dono da sessão
+     * @param sessionId ID da sessão
+     * @return false se a sessão não existe, é de outro usuário ou já foi encerrada
+     */
+    public boolean revoke(Long userId, UUID sessionId) {
+        if (sessionRepository.revoke(sessionId, userId, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        refreshTokenStore.revokeFamily(sessionId);
+        tokenDenylist.revokeSession(sessionId, userId);
+        pending.remove(sessionId.toString());
+
+        log.info("Sessão encerrada: userId={}, sessão={}", userId, sessionId);
+        return true;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
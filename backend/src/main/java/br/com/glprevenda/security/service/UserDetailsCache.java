@@ -0,0 +1,187 @@
+package br.com.glprevenda.security.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import br.com.glprevenda.security.event.UserChangedEvent;
+import br.com.glprevenda.security.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache de usuários na frente do CustomUserDetailsService.
+ *
+ * - Chave: o identificador usado na busca (username OU email), então login
+ *   por email não paga mais a segunda consulta (findByEmail) a cada vez
+ * - Valor: UserSnapshot imutável (nunca a entidade JPA)
+ * - Invalidação via UserChangedEvent (active, roles, senha...) após o commit
+ * - TTL (security.user-cache.ttl) limita o tempo de vida de cada entrada
+ * - Índice ID → chaves: invalidar um usuário custa O(chaves dele), não uma
+ *   varredura do cache (o evento sai a cada falha de login, no lockout)
+ *
+ * Várias instâncias: o evento só chega ao nó que fez a alteração. Cada nó
+ * lê a cada poll-interval os usuários com updated_at depois da última
+ * leitura e os tira do cache: usuário desativado em outro nó perde o
+ * acesso aqui em até poll-interval, não em ttl. A leitura volta
+ * poll-overlap no tempo (relógios diferentes entre os nós).
+ *
+ * Cada chave guarda o resultado exato da busca (username tem prioridade
+ * sobre email), então um username igual ao email de outro usuário
+ * não causa confusão de identidade.
+ *
+ * @author Ozeias
+ */
+@Slf4j
+@Component
+public class UserDetailsCache {
+
+    private static final String CACHE_NAME = "security.users";
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final Duration pollOverlap;
+    private final Cache<String, UserSnapshot> cache;
+
+    /**
+     * ID do usuário → chaves em que ele está no cache (username e/ou email).
+     * Expiração/tamanho limpam o índice junto (evictionListener, atômico
+     * com a remoção); a invalidação por evento limpa antes de invalidar.
+     */
+    private final Map<Long, Set<String>> keysByUserId = new ConcurrentHashMap<>();
+
+    /**
+     * Início da última leitura de alterações (nada em cache antes disso)
+     */
+    private volatile LocalDateTime lastPolledAt = LocalDateTime.now();
+
+    public UserDetailsCache(
+            UserRepository userRepository,
+            @Value("${security.user-cache.enabled:true}") boolean enabled,
+            @Value("${security.user-cache.ttl:60s}") Duration ttl,
+            @Value("${security.user-cache.max-size:10000}") long maxSize,
+            @Value("${security.user-cache.poll-overlap:PT1M}") Duration pollOverlap,
+            MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.pollOverlap = pollOverlap;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .evictionListener((String key, UserSnapshot snapshot, RemovalCause cause) -> {
+                    if (key != null && snapshot != null) {
+                        unindex(snapshot.getId(), key);
+                    }
+                })
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+
+        log.info("Cache de usuários: enabled={}, ttl={}, max-size={}", enabled, ttl, maxSize);
+    }
+
+    /**
+     * Busca o usuário no cache ou carrega com a função informada.
+     * Usuário não encontrado não é guardado.
+     *
+     * @param usernameOrEmail Identificador usado no login
+     * @param loader Busca no banco
+     * @return Snapshot do usuário, se existir
+     */
+    public Optional<UserSnapshot> get(String usernameOrEmail, Function<String, Optional<UserSnapshot>> loader) {
+        if (!enabled) {
+            return loader.apply(usernameOrEmail);
+        }
+        return Optional.ofNullable(cache.get(usernameOrEmail, key -> {
+            UserSnapshot snapshot = loader.apply(key).orElse(null);
+            if (snapshot != null) {
+                index(snapshot.getId(), key);
+            }
+            return snapshot;
+        }));
+    }
+
+    /**
+     * Remove todas as entradas do usuário alterado.
+     *
+     * Após o commit: uma leitura concorrente depois daqui já vê os dados
+     * novos. Fora de transação, executado na hora.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.username() != null) {
+            cache.invalidate(event.username());
+        }
+        if (event.email() != null) {
+            cache.invalidate(event.email());
+        }
+        // Username/email podem ter mudado: remove também as chaves antigas do ID
+        if (event.userId() != null) {
+            evict(event.userId());
+        }
+        log.debug("Cache de usuários invalidado: ID={}, Username={}", event.userId(), event.username());
+    }
+
+    /**
+     * Usuários alterados por outros nós desde a última leitura
+     */
+    @Scheduled(initialDelayString = "${security.user-cache.poll-interval:PT5S}",
+               fixedDelayString = "${security.user-cache.poll-interval:PT5S}")
+    public void pollChanges() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<Long> changed = userRepository.findIdsUpdatedAfter(lastPolledAt.minus(pollOverlap));
+        changed.forEach(this::evict);
+        lastPolledAt = startedAt;
+
+        log.debug("Usuários alterados lidos do banco: {}", changed.size());
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        keysByUserId.clear();
+    }
+
+    private void evict(Long userId) {
+        Set<String> keys = keysByUserId.remove(userId);
+        if (keys != null) {
+            cache.invalidateAll(keys);
+        }
+    }
+
+    private void index(Long userId, String key) {
+        if (userId != null) {
+            keysByUserId.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    private void unindex(Long userId, String key) {
+        if (userId != null) {
+            keysByUserId.computeIfPresent(userId, (id, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+}
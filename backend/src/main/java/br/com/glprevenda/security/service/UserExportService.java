@@ -0,0 +1,213 @@
+package br.com.glprevenda.security.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import br.com.glprevenda.security.dto.UserResponse;
+import br.com.glprevenda.security.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Exportação completa de usuários e roles (auditoria).
+ *
+ * As linhas saem do banco em lotes (UserRepository.streamAll, fetch size)
+ * e são escritas direto na resposta HTTP, uma a uma. Nada é acumulado:
+ * o uso de heap é o mesmo para 100 ou 1 milhão de usuários.
+ *
+ * Formatos:
+ * - NDJSON: um UserResponse em JSON por linha
+ * - CSV: cabeçalho + uma linha por usuário (roles separadas por ';')
+ *
+ * @author Ozeias
+ */
+@Slf4j
+@Service
+public class UserExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String CSV_HEADER = "id,username,email,fullName,active,roles,createdAt,updatedAt";
+
+    /**
+     * Primeiro caractere que a planilha interpreta como fórmula
+     */
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    /**
+     * Formatos de exportação suportados
+     */
+    public enum Format {
+        NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+        CSV(MediaType.parseMediaType("text/csv; charset=UTF-8"), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * @param value Ex: "ndjson", "CSV"
+         * @return Formato correspondente (vazio se desconhecido)
+         */
+        public static Optional<Format> from(String value) {
+            if (value == null) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(valueOf(value.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter jsonWriter;
+
+    public UserExportService(
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper
+    ) {
+        this.userRepository = userRepository;
+
+        // O corpo é escrito fora da thread do request: a transação
+        // (necessária para o cursor do banco) é aberta aqui mesmo
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        // Writer compartilhado: não pode ser fechado a cada linha
+        this.jsonWriter = objectMapper.writerFor(UserResponse.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Monta o corpo da resposta de exportação.
+     *
+     * A consulta só roda quando o Spring MVC escrever a resposta
+     * (thread assíncrona), dentro de uma transação somente leitura.
+     *
+     * @param format Formato de saída
+     * @return Corpo para ResponseEntity<StreamingResponseBody>
+     */
+    public StreamingResponseBody export(Format format) {
+        return out -> readOnlyTransaction.executeWithoutResult(status -> write(format, out));
+    }
+
+    /**
+     * Escreve todos os usuários no OutputStream.
+     *
+     * @return Quantidade de usuários exportados
+     */
+    long write(Format format, OutputStream out) {
+        long rows = 0;
+        long start = System.nanoTime();
+
+        try (Stream<UserResponse> users = userRepository.streamAll()) {
+            Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+            if (format == Format.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+
+            Iterator<UserResponse> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                UserResponse user = iterator.next();
+                if (format == Format.CSV) {
+                    writeCsvRow(writer, user);
+                } else {
+                    jsonWriter.writeValue(writer, user);
+                }
+                writer.write('\n');
+                rows++;
+            }
+
+            writer.flush();
+        } catch (IOException e) {
+            // Cliente desconectou no meio do download: a transação é desfeita
+            // e o cursor do banco liberado
+            throw new UncheckedIOException("Falha ao escrever exportação de usuários", e);
+        }
+
+        log.info("Exportação de usuários ({}): {} linhas em {} ms",
+                format, rows, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    private void writeCsvRow(Writer writer, UserResponse user) throws IOException {
+        writer.write(String.valueOf(user.getId()));
+        writer.write(',');
+        writeCsvField(writer, user.getUsername());
+        writer.write(',');
+        writeCsvField(writer, user.getEmail());
+        writer.write(',');
+        writeCsvField(writer, user.getFullName());
+        writer.write(',');
+        writeCsvField(writer, user.getActive() == null ? null : user.getActive().toString());
+        writer.write(',');
+        writeCsvField(writer, user.getRoles() == null ? null : String.join(";", user.getRoles()));
+        writer.write(',');
+        writeCsvField(writer, user.getCreatedAt() == null ? null : user.getCreatedAt().toString());
+        writer.write(',');
+        writeCsvField(writer, user.getUpdatedAt() == null ? null : user.getUpdatedAt().toString());
+    }
+
+    /**
+     * Campo CSV (RFC 4180): entre aspas se tiver vírgula, aspas ou quebra de linha.
+     *
+     * Username, email e nome vêm do cadastro público: valor que começa com
+     * =, +, -, @, tab ou CR viraria fórmula na planilha do auditor → prefixo '
+     * e aspas (OWASP CSV Injection).
+     */
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean formula = !value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0;
+        boolean quote = formula || value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        if (formula) {
+            writer.write('\'');
+        }
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,89 @@
+package br.com.glprevenda.security.service;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import br.com.glprevenda.security.entity.Role;
+import br.com.glprevenda.security.entity.User;
+import lombok.Value;
+
+/**
+ * Cópia imutável dos dados de autenticação de um usuário.
+ *
+ * É o que fica guardado no UserDetailsCache: entidades JPA são mutáveis
+ * e presas a uma sessão, então o cache nunca guarda a entidade em si.
+ * A cada leitura é montado um User destacado (toUser()).
+ *
+ * @author Ozeias
+ */
+@Value
+public class UserSnapshot {
+
+    /**
+     * Role reduzida ao necessário para autorização
+     */
+    @Value
+    public static class RoleRef {
+        Long id;
+        String name;
+    }
+
+    Long id;
+    String username;
+    String email;
+    String password;
+    String fullName;
+    boolean active;
+    int failedLoginAttempts;
+    LocalDateTime lockedUntil;
+    List<RoleRef> roles;
+    LocalDateTime createdAt;
+    LocalDateTime updatedAt;
+
+    /**
+     * Copia os dados da entidade (as roles já vêm carregadas - EAGER)
+     */
+    public static UserSnapshot from(User user) {
+        return new UserSnapshot(
+                user.getId(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getPassword(),
+                user.getFullName(),
+                Boolean.TRUE.equals(user.getActive()),
+                user.getFailedLoginAttempts() != null ? user.getFailedLoginAttempts() : 0,
+                user.getLockedUntil(),
+                user.getRoles().stream()
+                        .map(role -> new RoleRef(role.getId(), role.getName()))
+                        .toList(),
+                user.getCreatedAt(),
+                user.getUpdatedAt()
+        );
+    }
+
+    /**
+     * Monta um User destacado (fora de sessão JPA) com os dados do snapshot
+     */
+    public User toUser() {
+        Set<Role> userRoles = new HashSet<>();
+        for (RoleRef role : roles) {
+            userRoles.add(Role.builder().id(role.getId()).name(role.getName()).build());
+        }
+
+        return User.builder()
+                .id(id)
+                .username(username)
+                .email(email)
+                .password(password)
+                .fullName(fullName)
+                .active(active)
+                .failedLoginAttempts(failedLoginAttempts)
+                .lockedUntil(lockedUntil)
+                .roles(userRoles)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package br.com.glprevenda.security.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache de tokens JWT já verificados.
+ *
+ * O app dos motoristas reenvia o mesmo access token centenas de vezes por
+ * turno; cada envio refazia a verificação ES256 (ECDSA) + parse das claims.
+ * Aqui o resultado da verificação (ParsedToken) fica em memória até o
+ * "exp" do próprio token.
+ *
+ * - Chave: SHA-256 do token (o token em si não fica no heap)
+ * - Expiração por entrada = expiração do token
+ * - Limite de tamanho (security.jwt.token-cache.max-size), despejo por uso
+ * - Métricas de hit/miss: cache.gets{cache="jwt.verified-tokens"}
+ *
+ * Tokens inválidos nunca entram no cache (a exceção da verificação propaga).
+ *
+ * @author Ozeias
+ */
+@Slf4j
+@Component
+public class VerifiedTokenCache {
+
+    private static final String CACHE_NAME = "jwt.verified-tokens";
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    });
+
+    private final boolean enabled;
+    private final Cache<String, ParsedToken> cache;
+
+    public VerifiedTokenCache(
+            @Value("${security.jwt.token-cache.enabled:true}") boolean enabled,
+            @Value("${security.jwt.token-cache.max-size:10000}") long maxSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiration())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+
+        log.info("Cache de tokens verificados: enabled={}, max-size={}", enabled, maxSize);
+    }
+
+    /**
+     * Retorna o token verificado do cache ou verifica e guarda.
+     *
+     * @param token Token JWT (sem "Bearer ")
+     * @param verifier Verificação completa (ex: jwtService::parse)
+     * @return Token verificado
+     */
+    public ParsedToken getOrVerify(String token, Function<String, ParsedToken> verifier) {
+        if (!enabled) {
+            return verifier.apply(token);
+        }
+        return cache.get(digest(token), key -> verifier.apply(token));
+    }
+
+    /**
+     * Remove todos os tokens do cache (ex: após rotação emergencial de chave)
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
+    /**
+     * Cada entrada vive até o "exp" do token que representa
+     */
+    private static final class UntilTokenExpiration implements Expiry<String, ParsedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, ParsedToken token, long currentTime) {
+            if (token.getExpiration() == null) {
+                return 0L;
+            }
+            long nanos = Duration.between(Instant.now(), token.getExpiration()).toNanos();
+            return Math.max(nanos, 0L);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, ParsedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, ParsedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
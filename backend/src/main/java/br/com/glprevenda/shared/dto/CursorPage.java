@@ -0,0 +1,57 @@
+package br.com.glprevenda.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de uma listagem paginada por cursor (keyset).
+ * Vai dentro do campo "data" do ApiResponse.
+ * 
+ * Para a próxima página, o cliente envia nextCursor como ?cursor=...
+ * Sem total de registros: contar a tabela inteira custaria o que a
+ * paginação por cursor quer evitar.
+ * 
+ * @param <T> Tipo dos itens
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    
+    private List<T> items;
+    
+    /**
+     * Cursor da próxima página (null se esta é a última)
+     */
+    private Long nextCursor;
+    
+    private boolean hasNext;
+    
+    private int size;
+    
+    /**
+     * Monta a página a partir de uma busca feita com size + 1 itens:
+     * o item extra só indica que existe próxima página.
+     * 
+     * @param fetched Itens buscados (até size + 1)
+     * @param size Tamanho da página
+     * @param cursorOf Extrai o cursor (ex: ID) de um item
+     */
+    public static <T> CursorPage<T> of(List<T> fetched, int size, Function<T, Long> cursorOf) {
+        boolean hasNext = fetched.size() > size;
+        List<T> items = hasNext ? fetched.subList(0, size) : fetched;
+        
+        return CursorPage.<T>builder()
+                .items(items)
+                .nextCursor(hasNext ? cursorOf.apply(items.get(items.size() - 1)) : null)
+                .hasNext(hasNext)
+                .size(items.size())
+                .build();
+    }
+}
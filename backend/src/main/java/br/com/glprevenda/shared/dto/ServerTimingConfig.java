@@ -0,0 +1,41 @@
+package br.com.glprevenda.shared.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * DTO com a configuração do header Server-Timing.
+ * 
+ * Usado em:
+ * - GET /api/admin/server-timing
+ * - PUT /api/admin/server-timing
+ * 
+ * @author Ozeias
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServerTimingConfig {
+    
+    /**
+     * Fração das requisições medidas (0 = desligado, 0.01 = 1%)
+     */
+    @NotNull(message = "sampleRate é obrigatório")
+    @DecimalMin(value = "0.0", message = "sampleRate deve estar entre 0 e 1")
+    @DecimalMax(value = "1.0", message = "sampleRate deve estar entre 0 e 1")
+    private Double sampleRate;
+    
+    /**
+     * Usuários marcados: medidos quando enviam o header X-Server-Timing
+     */
+    @Builder.Default
+    private Set<String> flaggedUsers = Set.of();
+}
@@ -0,0 +1,30 @@
+package br.com.glprevenda.shared.exception;
+
+/**
+ * Exceção lançada quando um recurso limitado está saturado e a requisição
+ * é recusada na hora (fail fast) em vez de ficar esperando.
+ * 
+ * Tratada pelo GlobalExceptionHandler como HTTP 503 + header Retry-After.
+ * 
+ * Exemplo de uso:
+ * - throw new ServiceOverloadedException("Login temporariamente indisponível", 2)
+ * 
+ * @author Ozeias
+ */
+public class ServiceOverloadedException extends RuntimeException {
+    
+    private final long retryAfterSeconds;
+    
+    /**
+     * @param message Mensagem de erro
+     * @param retryAfterSeconds Sugestão de espera (segundos) para o cliente tentar de novo
+     */
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
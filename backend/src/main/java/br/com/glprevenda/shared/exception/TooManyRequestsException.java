@@ -0,0 +1,30 @@
+package br.com.glprevenda.shared.exception;
+
+/**
+ * Exceção lançada quando o cliente excede um limite de tentativas
+ * (ex: login throttling por IP ou por usuário).
+ * 
+ * Tratada pelo GlobalExceptionHandler como HTTP 429 + header Retry-After.
+ * 
+ * Exemplo de uso:
+ * - throw new TooManyRequestsException("Muitas tentativas de login", 30)
+ * 
+ * @author Ozeias
+ */
+public class TooManyRequestsException extends RuntimeException {
+    
+    private final long retryAfterSeconds;
+    
+    /**
+     * @param message Mensagem de erro
+     * @param retryAfterSeconds Segundos até o cliente poder tentar de novo
+     */
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,211 @@
+package br.com.glprevenda.shared.timing;
+
+import java.util.Set;
+
+/**
+ * Coletor de tempos de UMA requisição, publicado no header Server-Timing.
+ * 
+ * Só existe nas requisições escolhidas pelo ServerTimingFilter (amostradas
+ * ou marcadas); nas demais current() devolve null e os pontos de medição
+ * não fazem nada (sem nanoTime, sem alocação):
+ * 
+ *   long start = ServerTiming.start();
+ *   ... trabalho ...
+ *   ServerTiming.stop(ServerTiming.Metric.AUTH, start);
+ * 
+ * Guardado em ThreadLocal: só conta o que roda na thread da requisição.
+ * 
+ * @author Ozeias
+ */
+public final class ServerTiming {
+    
+    /**
+     * Valor de start() quando a requisição não está sendo medida
+     */
+    public static final long NOT_TIMED = Long.MIN_VALUE;
+    
+    /**
+     * Trechos medidos (nome curto = nome no header)
+     */
+    public enum Metric {
+        /** Verificação do JWT e da lista de revogados (JwtAuthenticationFilter) */
+        AUTH("auth"),
+        /** Carga do usuário autenticado (cache ou banco) */
+        USER("user"),
+        /** Soma das chamadas de repository */
+        DB("db"),
+        /** Controller (inclui o db chamado por ele) */
+        APP("app"),
+        /** Serialização da resposta (JSON) */
+        JSON("json");
+        
+        private final String headerName;
+        
+        Metric(String headerName) {
+            this.headerName = headerName;
+        }
+    }
+    
+    private static final Metric[] METRICS = Metric.values();
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+    
+    private final long startNanos;
+    private final long[] nanos = new long[METRICS.length];
+    private final int[] counts = new int[METRICS.length];
+    
+    /**
+     * Usuários marcados (requisição armada pelo header) ou null (amostrada)
+     */
+    private final Set<String> flaggedUsers;
+    private boolean confirmed;
+    
+    private long handlerStart;
+    private long serializationStart;
+    
+    private ServerTiming(long startNanos, Set<String> flaggedUsers) {
+        this.startNanos = startNanos;
+        this.flaggedUsers = flaggedUsers;
+    }
+    
+    /**
+     * Coletor da requisição atual (null se não está sendo medida)
+     */
+    public static ServerTiming current() {
+        return CURRENT.get();
+    }
+    
+    /**
+     * Início de um trecho: nanoTime, ou NOT_TIMED sem coletor
+     */
+    public static long start() {
+        return CURRENT.get() != null ? System.nanoTime() : NOT_TIMED;
+    }
+    
+    /**
+     * Fim de um trecho iniciado com start()
+     */
+    public static void stop(Metric metric, long start) {
+        if (start == NOT_TIMED) {
+            return;
+        }
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.add(metric, System.nanoTime() - start);
+        }
+    }
+    
+    /**
+     * Abre o coletor da requisição (ServerTimingFilter)
+     * 
+     * @param flaggedUsers Só publica se o usuário autenticado estiver aqui (null = sempre publica)
+     */
+    static ServerTiming begin(Set<String> flaggedUsers) {
+        ServerTiming timing = new ServerTiming(System.nanoTime(), flaggedUsers);
+        CURRENT.set(timing);
+        return timing;
+    }
+    
+    /**
+     * Fecha o coletor da thread (fim da requisição)
+     */
+    static void end() {
+        CURRENT.remove();
+    }
+    
+    public void add(Metric metric, long durationNanos) {
+        nanos[metric.ordinal()] += durationNanos;
+        counts[metric.ordinal()]++;
+    }
+    
+    /**
+     * Usuário autenticado na requisição: confirma a publicação
+     * se a requisição foi armada para usuários marcados
+     */
+    public void authenticated(String username) {
+        if (flaggedUsers != null && flaggedUsers.contains(username)) {
+            confirmed = true;
+        }
+    }
+    
+    /**
+     * Controller começou
+     */
+    void handlerStarted() {
+        handlerStart = System.nanoTime();
+    }
+    
+    /**
+     * Controller retornou, corpo vai ser serializado
+     */
+    void serializationStarted() {
+        long now = System.nanoTime();
+        if (handlerStart != 0 && serializationStart == 0) {
+            add(Metric.APP, now - handlerStart);
+        }
+        serializationStart = now;
+    }
+    
+    /**
+     * Requisição terminou no controller (com ou sem corpo)
+     */
+    void handlerCompleted() {
+        closePhases(System.nanoTime());
+    }
+    
+    boolean shouldPublish() {
+        return flaggedUsers == null || confirmed;
+    }
+    
+    /**
+     * Valor do header: trechos medidos + total até agora, em ms
+     * Ex: auth;dur=0.41, user;dur=1.20, db;dur=3.05;desc="2 chamadas", app;dur=4.12, json;dur=0.30, total;dur=6.01
+     */
+    String headerValue() {
+        long now = System.nanoTime();
+        closePhases(now);
+        
+        StringBuilder header = new StringBuilder(160);
+        for (Metric metric : METRICS) {
+            int index = metric.ordinal();
+            if (counts[index] == 0) {
+                continue;
+            }
+            header.append(metric.headerName).append(";dur=");
+            appendMillis(header, nanos[index]);
+            if (metric == Metric.DB) {
+                header.append(";desc=\"").append(counts[index]).append(counts[index] == 1 ? " chamada\"" : " chamadas\"");
+            }
+            header.append(", ");
+        }
+        header.append("total;dur=");
+        appendMillis(header, now - startNanos);
+        return header.toString();
+    }
+    
+    /**
+     * Fecha app/json ainda abertos
+     */
+    private void closePhases(long now) {
+        if (serializationStart != 0) {
+            add(Metric.JSON, now - serializationStart);
+            serializationStart = 0;
+            handlerStart = 0;
+        } else if (handlerStart != 0) {
+            add(Metric.APP, now - handlerStart);
+            handlerStart = 0;
+        }
+    }
+    
+    /**
+     * Nanossegundos → milissegundos com 2 casas
+     */
+    private static void appendMillis(StringBuilder header, long nanos) {
+        long hundredths = Math.max(0, nanos) / 10_000;
+        header.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) {
+            header.append('0');
+        }
+        header.append(fraction);
+    }
+}
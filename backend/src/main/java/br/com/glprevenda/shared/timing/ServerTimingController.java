@@ -0,0 +1,117 @@
+package br.com.glprevenda.shared.timing;
+
+import br.com.glprevenda.shared.dto.ServerTimingConfig;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Liga/desliga o header Server-Timing em tempo de execução (só ADMIN).
+ * 
+ * Endpoints:
+ * - GET /api/admin/server-timing → Configuração atual
+ * - PUT /api/admin/server-timing → Alterar amostragem e usuários marcados
+ * 
+ * Vale só para o nó que recebeu o PUT (não persiste no restart).
+ * 
+ * @author Ozeias
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Diagnóstico", description = "Detalhamento de tempo por requisição (Server-Timing)")
+public class ServerTimingController {
+    
+    private final ServerTimingSettings settings;
+    
+    /**
+     * Configuração atual.
+     * 
+     * GET /api/admin/server-timing
+     * 
+     * Retorna:
+     * {
+     *   "sampleRate": 0.01,
+     *   "flaggedUsers": ["motorista07"]
+     * }
+     */
+    @Operation(
+            summary = "Ver configuração do Server-Timing (ADMIN)",
+            description = "Amostragem e usuários marcados deste nó. Requer role ROLE_ADMIN.",
+            security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Configuração retornada"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Sem permissão")
+    })
+    @GetMapping("/api/admin/server-timing")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ServerTimingConfig> getConfig() {
+        return ResponseEntity.ok(toConfig());
+    }
+    
+    /**
+     * Altera a configuração.
+     * 
+     * PUT /api/admin/server-timing
+     * 
+     * Body:
+     * {
+     *   "sampleRate": 0,
+     *   "flaggedUsers": ["motorista07"]
+     * }
+     * 
+     * Acima: nenhuma requisição amostrada, mas as do motorista07 com o
+     * header X-Server-Timing voltam com o detalhamento.
+     * 
+     * @param request Nova configuração
+     * @return Configuração aplicada
+     */
+    @Operation(
+            summary = "Alterar configuração do Server-Timing (ADMIN)",
+            description = "Amostragem (0 a 1) e usuários marcados. Requer role ROLE_ADMIN.",
+            security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Configuração aplicada"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Sem permissão")
+    })
+    @PutMapping("/api/admin/server-timing")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ServerTimingConfig> updateConfig(@Valid @RequestBody ServerTimingConfig request) {
+        Set<String> flaggedUsers = request.getFlaggedUsers() == null ? Set.of() : request.getFlaggedUsers().stream()
+                .filter(user -> user != null && !user.isBlank())
+                .collect(Collectors.toUnmodifiableSet());
+        
+        log.info("Admin alterando Server-Timing: amostragem={}, usuários marcados={}",
+                request.getSampleRate(), flaggedUsers);
+        
+        settings.update(request.getSampleRate(), flaggedUsers);
+        
+        return ResponseEntity.ok(toConfig());
+    }
+    
+    private ServerTimingConfig toConfig() {
+        return ServerTimingConfig.builder()
+                .sampleRate(settings.getSampleRate())
+                .flaggedUsers(settings.getFlaggedUsers())
+                .build();
+    }
+}
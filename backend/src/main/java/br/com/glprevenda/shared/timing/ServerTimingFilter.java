@@ -0,0 +1,72 @@
+package br.com.glprevenda.shared.timing;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Escolhe as requisições medidas e publica o header Server-Timing.
+ * 
+ * Medida se:
+ * - amostrada (server-timing.sample-rate), ou
+ * - trouxer o header X-Server-Timing e houver usuários marcados; o header
+ *   de resposta só sai se o usuário autenticado estiver marcado
+ * 
+ * Primeiro filtro da cadeia (antes do Spring Security): o total inclui
+ * a autenticação. Requisições não medidas passam direto, sem alocação.
+ * 
+ * @author Ozeias
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ServerTimingFilter extends OncePerRequestFilter {
+    
+    /**
+     * Header da requisição que pede a medição (app do motorista em modo diagnóstico)
+     */
+    public static final String REQUEST_HEADER = "X-Server-Timing";
+    
+    private final ServerTimingSettings settings;
+    
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        
+        double sampleRate = settings.getSampleRate();
+        Set<String> flaggedUsers = settings.getFlaggedUsers();
+        
+        boolean sampled = sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        boolean flagged = !sampled && !flaggedUsers.isEmpty() && request.getHeader(REQUEST_HEADER) != null;
+        
+        if (!sampled && !flagged) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        ServerTiming timing = ServerTiming.begin(sampled ? null : flaggedUsers);
+        ServerTimingResponseWrapper timedResponse = new ServerTimingResponseWrapper(response, timing);
+        try {
+            filterChain.doFilter(request, timedResponse);
+        } finally {
+            ServerTiming.end();
+            // Sem corpo (204, 304) ou corpo ainda no buffer: header antes do container fechar a resposta
+            timedResponse.writeHeader();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.glprevenda.shared.timing;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Soma o tempo de cada chamada de repository no trecho db do Server-Timing.
+ * 
+ * Usa o mesmo ponto de extensão das métricas spring.data.repository.invocations
+ * (listener de invocação do Spring Data); sem coletor, o listener só
+ * consulta o ThreadLocal.
+ * 
+ * @author Ozeias
+ */
+@Component
+public class ServerTimingRepositoryPostProcessor implements BeanPostProcessor {
+    
+    private static final RepositoryMethodInvocationListener LISTENER = invocation -> {
+        ServerTiming timing = ServerTiming.current();
+        if (timing != null) {
+            timing.add(ServerTiming.Metric.DB, invocation.getDuration(TimeUnit.NANOSECONDS));
+        }
+    };
+    
+    @Override
+    public Object postProcessBeforeInitialization(@NonNull Object bean, @NonNull String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactoryBean) {
+            repositoryFactoryBean.addRepositoryFactoryCustomizer(
+                    repositoryFactory -> repositoryFactory.addInvocationListener(LISTENER));
+        }
+        return bean;
+    }
+}
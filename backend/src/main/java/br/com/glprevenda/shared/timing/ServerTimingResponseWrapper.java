@@ -0,0 +1,48 @@
+package br.com.glprevenda.shared.timing;
+
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Escreve o Server-Timing imediatamente antes do commit da resposta
+ * (flush, close, sendError, sendRedirect), quando os trechos da
+ * requisição já terminaram. Sem buffer do corpo.
+ * 
+ * Respostas maiores que o buffer do container são enviadas antes disso
+ * e ficam sem o header.
+ * 
+ * @author Ozeias
+ */
+final class ServerTimingResponseWrapper extends OnCommittedResponseWrapper {
+    
+    static final String HEADER = "Server-Timing";
+    
+    private final ServerTiming timing;
+    private boolean written;
+    
+    ServerTimingResponseWrapper(HttpServletResponse response, ServerTiming timing) {
+        super(response);
+        this.timing = timing;
+    }
+    
+    @Override
+    protected void onResponseCommitted() {
+        writeHeader();
+    }
+    
+    /**
+     * Publica o header (uma vez, e só se ainda dá tempo)
+     */
+    void writeHeader() {
+        if (written) {
+            return;
+        }
+        written = true;
+        
+        HttpServletResponse response = (HttpServletResponse) getResponse();
+        if (!response.isCommitted() && timing.shouldPublish()) {
+            response.setHeader(HEADER, timing.headerValue());
+        }
+    }
+}
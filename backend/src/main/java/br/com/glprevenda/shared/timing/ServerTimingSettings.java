@@ -0,0 +1,62 @@
+package br.com.glprevenda.shared.timing;
+
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Quais requisições recebem o header Server-Timing.
+ * 
+ * - sample-rate: fração das requisições medidas (0 = nenhuma, 0.01 = 1%)
+ * - flagged-users: usuários marcados (ex: motorista que reclamou de lentidão);
+ *   as requisições deles com o header X-Server-Timing são medidas
+ * 
+ * Valores iniciais em server-timing.*; admins alteram em tempo de execução
+ * (PUT /api/admin/server-timing). Por nó: não é replicado entre instâncias.
+ * 
+ * @author Ozeias
+ */
+@Slf4j
+@Component
+public class ServerTimingSettings {
+    
+    /**
+     * Trocados juntos (leitores nunca veem metade da alteração)
+     */
+    private record Snapshot(double sampleRate, Set<String> flaggedUsers) {
+    }
+    
+    private volatile Snapshot current;
+    
+    public ServerTimingSettings(
+            @Value("${server-timing.sample-rate:0}") double sampleRate,
+            @Value("${server-timing.flagged-users:}") List<String> flaggedUsers
+    ) {
+        update(sampleRate, Set.copyOf(flaggedUsers.stream().filter(user -> !user.isBlank()).toList()));
+    }
+    
+    public double getSampleRate() {
+        return current.sampleRate();
+    }
+    
+    public Set<String> getFlaggedUsers() {
+        return current.flaggedUsers();
+    }
+    
+    /**
+     * @param sampleRate Fração de 0 a 1
+     * @param flaggedUsers Usernames marcados
+     */
+    public void update(double sampleRate, Set<String> flaggedUsers) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("sampleRate deve estar entre 0 e 1");
+        }
+        current = new Snapshot(sampleRate, Set.copyOf(flaggedUsers));
+        
+        log.info("Server-Timing: amostragem={}, usuários marcados={}", sampleRate, flaggedUsers.size());
+    }
+}
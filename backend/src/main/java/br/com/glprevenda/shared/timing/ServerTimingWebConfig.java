@@ -0,0 +1,80 @@
+package br.com.glprevenda.shared.timing;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Trechos app (controller) e json (serialização) do Server-Timing:
+ * 
+ * preHandle ──app── beforeBodyWrite ──json── commit/afterCompletion
+ * 
+ * Sem coletor na requisição, interceptor e advice só consultam o ThreadLocal.
+ * 
+ * @author Ozeias
+ */
+@Configuration
+public class ServerTimingWebConfig implements WebMvcConfigurer {
+    
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            
+            @Override
+            public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                     @NonNull Object handler) {
+                ServerTiming timing = ServerTiming.current();
+                if (timing != null) {
+                    timing.handlerStarted();
+                }
+                return true;
+            }
+            
+            @Override
+            public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                        @NonNull Object handler, Exception ex) {
+                ServerTiming timing = ServerTiming.current();
+                if (timing != null) {
+                    timing.handlerCompleted();
+                }
+            }
+        });
+    }
+    
+    /**
+     * Marca o fim do controller e o início da serialização do corpo
+     */
+    @ControllerAdvice
+    static class SerializationTimingAdvice implements ResponseBodyAdvice<Object> {
+        
+        @Override
+        public boolean supports(@NonNull MethodParameter returnType,
+                                @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+            return true;
+        }
+        
+        @Override
+        public Object beforeBodyWrite(Object body, @NonNull MethodParameter returnType,
+                                      @NonNull MediaType selectedContentType,
+                                      @NonNull Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                      @NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response) {
+            ServerTiming timing = ServerTiming.current();
+            if (timing != null) {
+                timing.serializationStarted();
+            }
+            return body;
+        }
+    }
+}
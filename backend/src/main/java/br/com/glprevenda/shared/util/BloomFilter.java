@@ -0,0 +1,119 @@
+package br.com.glprevenda.shared.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom sem lock para strings (ex: usernames/emails conhecidos).
+ *
+ * Responde "com certeza NÃO está" ou "talvez esteja":
+ * - mightContain() == false → o valor nunca foi adicionado (sem falso negativo)
+ * - mightContain() == true  → confirmar na fonte (falso positivo ≈ fpp)
+ *
+ * Bits em um AtomicLongArray: put() liga bits com CAS, mightContain() só lê.
+ * Não há remoção; para "esquecer" valores, monte um filtro novo.
+ *
+ * k posições por valor via double hashing (h1 + i·h2) sobre um hash
+ * de 64 bits dos caracteres, sem alocar bytes.
+ *
+ * Tamanho: 1 milhão de valores com fpp 1% ≈ 9,6 bits/valor ≈ 1,2 MB.
+ *
+ * @author Ozeias
+ */
+public final class BloomFilter {
+
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+    private static final long SECOND_SEED = 0x9E3779B97F4A7C15L;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedInsertions Quantidade de valores esperada
+     * @param falsePositiveRate Taxa de falso positivo desejada (ex: 0.01)
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Quantidade esperada deve ser positiva: " + expectedInsertions);
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Taxa de falso positivo inválida: " + falsePositiveRate);
+        }
+
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * ln2));
+    }
+
+    /**
+     * Adiciona o valor ao filtro.
+     *
+     * @param value Valor (comparação exata: normalize antes, ex: minúsculas)
+     */
+    public void put(CharSequence value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ SECOND_SEED) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    /**
+     * @param value Valor procurado
+     * @return false se o valor com certeza não foi adicionado
+     */
+    public boolean mightContain(CharSequence value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ SECOND_SEED) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    /**
+     * FNV-1a de 64 bits sobre os chars, finalizado com mix()
+     */
+    private static long hash(CharSequence value) {
+        long h = FNV_OFFSET;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= FNV_PRIME;
+        }
+        return mix(h);
+    }
+
+    /**
+     * Finalizador do MurmurHash3 (espalha os bits do hash)
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
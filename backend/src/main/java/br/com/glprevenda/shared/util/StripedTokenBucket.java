@@ -0,0 +1,107 @@
+package br.com.glprevenda.shared.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Conjunto de token buckets sem lock, indexado por hash da chave (stripes).
+ *
+ * Cada stripe é um único long em um AtomicLongArray:
+ * - 40 bits altos → instante do último refill (ms desde a criação)
+ * - 24 bits baixos → tokens disponíveis × 1000 (precisão de milésimos)
+ *
+ * tryAcquire() é um laço de CAS sobre esse long: sem synchronized,
+ * sem alocação e sem mapa crescendo com chaves de atacantes.
+ * Chaves diferentes podem cair no mesmo stripe (colisão) e dividir o
+ * mesmo limite; com stripes suficientes isso é raro e sempre conservador.
+ *
+ * Exemplo de uso:
+ * - StripedTokenBucket ips = new StripedTokenBucket(4096, 20, 20.0 / 60_000)
+ * - long waitMs = ips.tryAcquire(clientIp); // 0 = liberado
+ *
+ * @author Ozeias
+ */
+public final class StripedTokenBucket {
+
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long SCALE = 1000L;
+
+    private final AtomicLongArray stripes;
+    private final int mask;
+    private final long capacity;
+    private final double refillPerMilli;
+    private final long origin;
+
+    /**
+     * @param stripes Quantidade de buckets (arredondada para potência de 2)
+     * @param capacity Rajada máxima (tokens no bucket cheio)
+     * @param refillPerMilli Tokens devolvidos por milissegundo
+     */
+    public StripedTokenBucket(int stripes, int capacity, double refillPerMilli) {
+        if (capacity <= 0 || capacity * SCALE > TOKEN_MASK) {
+            throw new IllegalArgumentException("Capacidade inválida: " + capacity);
+        }
+        if (refillPerMilli <= 0) {
+            throw new IllegalArgumentException("Taxa de refill deve ser positiva");
+        }
+
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.capacity = capacity * SCALE;
+        this.refillPerMilli = refillPerMilli * SCALE;
+        this.origin = System.currentTimeMillis();
+
+        // Todos os buckets começam cheios
+        long full = pack(0, this.capacity);
+        for (int i = 0; i < size; i++) {
+            this.stripes.set(i, full);
+        }
+    }
+
+    /**
+     * Tenta consumir um token do bucket da chave.
+     *
+     * @param key Chave (IP, username...)
+     * @return 0 se consumiu; senão, milissegundos até haver um token
+     */
+    public long tryAcquire(Object key) {
+        return tryAcquire(key, System.currentTimeMillis());
+    }
+
+    long tryAcquire(Object key, long nowMillis) {
+        int index = index(key);
+        long now = Math.max(0, nowMillis - origin);
+
+        while (true) {
+            long current = stripes.get(index);
+            long last = current >>> TOKEN_BITS;
+            long tokens = current & TOKEN_MASK;
+
+            // Relógio voltou (ou outro thread já avançou): não devolve tokens
+            long elapsed = Math.max(0, now - last);
+            long refilled = Math.min(capacity, tokens + (long) (elapsed * refillPerMilli));
+
+            if (refilled < SCALE) {
+                return (long) Math.ceil((SCALE - refilled) / refillPerMilli);
+            }
+
+            long next = pack(Math.max(now, last), refilled - SCALE);
+            if (stripes.compareAndSet(index, current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private int index(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        h *= 0x45d9f3b;
+        h ^= (h >>> 16);
+        return h & mask;
+    }
+
+    private static long pack(long millis, long tokens) {
+        return (millis << TOKEN_BITS) | tokens;
+    }
+}
@@ -0,0 +1,15 @@
+-- ════════════════════════════════════════════════════════
+-- Migration V10: Username/email únicos sem diferenciar maiúsculas
+-- Descrição: Os índices lower() da V5 eram só para busca; os UNIQUE
+--   da V1 comparam a coluna pura e aceitam "OutroNode" ao lado de
+--   "outronode". O cadastro (AuthService.register) confia no banco
+--   para barrar a variação que o IdentityFilter/pré-checagem não viu
+--   (usuário criado em outro nó antes do rebuild).
+--   Duplicatas já existentes precisam ser resolvidas antes desta migration.
+-- ════════════════════════════════════════════════════════
+
+DROP INDEX IF EXISTS idx_users_username_lower;
+DROP INDEX IF EXISTS idx_users_email_lower;
+
+CREATE UNIQUE INDEX users_username_lower_key ON users (lower(username));
+CREATE UNIQUE INDEX users_email_lower_key ON users (lower(email));
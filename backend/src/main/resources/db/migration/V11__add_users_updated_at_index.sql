@@ -0,0 +1,9 @@
+-- ════════════════════════════════════════════════════════
+-- Migration V11: Leitura periódica dos usuários alterados
+-- Descrição: Cada nó lê a cada poucos segundos os usuários alterados
+--   pelos outros (updated_at > última leitura) e os tira do próprio
+--   cache (UserDetailsCache). Sem índice, toda leitura percorreria a
+--   tabela inteira.
+-- ════════════════════════════════════════════════════════
+
+CREATE INDEX IF NOT EXISTS idx_users_updated_at ON users(updated_at);
@@ -0,0 +1,16 @@
+-- ════════════════════════════════════════════════════════
+-- Migration V3: Bloqueio de conta por tentativas de login
+-- Autor:  Ozeias
+-- Descrição: Contador de falhas seguidas e fim do bloqueio
+-- ════════════════════════════════════════════════════════
+
+ALTER TABLE users
+    ADD COLUMN IF NOT EXISTS failed_login_attempts INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS locked_until TIMESTAMP;
+
+-- ════════════════════════════════════════════════════════
+-- COMENTÁRIOS (documentação no banco)
+-- ════════════════════════════════════════════════════════
+
+COMMENT ON COLUMN users.failed_login_attempts IS 'Senhas erradas seguidas (zera no login ou ao bloquear)';
+COMMENT ON COLUMN users.locked_until IS 'Conta bloqueada até este instante (NULL = liberada)';
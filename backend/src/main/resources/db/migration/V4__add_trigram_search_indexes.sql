@@ -0,0 +1,12 @@
+-- Busca de usuários por parte do nome/email (UserRepository.searchRanked)
+--
+-- LIKE '%texto%' não usa os índices B-tree de V1: toda busca lia a tabela inteira.
+-- Índices GIN de trigramas (pg_trgm) atendem ILIKE '%texto%' (3+ caracteres)
+-- e fornecem similarity() para ordenar pelos resultados mais parecidos.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_users_full_name_trgm ON users USING gin (full_name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (email gin_trgm_ops);
+
+COMMENT ON INDEX idx_users_full_name_trgm IS 'Trigramas para busca ILIKE/similarity por nome';
+COMMENT ON INDEX idx_users_email_trgm IS 'Trigramas para busca ILIKE/similarity por email';
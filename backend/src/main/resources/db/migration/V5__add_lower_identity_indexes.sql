@@ -0,0 +1,7 @@
+-- Login por username OU email sem diferenciar maiúsculas, em uma consulta
+-- (UserRepository.findAllByLowerIdentity, existsByLowerUsername/Email)
+--
+-- WHERE lower(username) = ? OR lower(email) = ? → BitmapOr dos dois índices.
+-- Os índices B-tree de V1 (coluna pura) não atendem lower(coluna).
+CREATE INDEX IF NOT EXISTS idx_users_username_lower ON users (lower(username));
+CREATE INDEX IF NOT EXISTS idx_users_email_lower ON users (lower(email));
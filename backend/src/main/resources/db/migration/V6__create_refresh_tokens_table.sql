@@ -0,0 +1,34 @@
+-- ════════════════════════════════════════════════════════
+-- Migration V6: Refresh tokens rotativos
+-- Descrição: Um registro por refresh token emitido (claim jti).
+--   Cada uso troca o token por outro da mesma família (rotação);
+--   reapresentar um token já usado revoga a família inteira.
+--   Guarda só IDs e datas (nunca o token em si).
+-- ════════════════════════════════════════════════════════
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    jti UUID PRIMARY KEY,
+    family_id UUID NOT NULL,
+    user_id BIGINT NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    used_at TIMESTAMP,
+    revoked_at TIMESTAMP,
+
+    CONSTRAINT fk_refresh_tokens_user
+        FOREIGN KEY (user_id)
+        REFERENCES users(id)
+        ON DELETE CASCADE
+);
+
+-- Revogação da família (reuso detectado) e limpeza por usuário
+CREATE INDEX idx_refresh_tokens_family ON refresh_tokens(family_id);
+CREATE INDEX idx_refresh_tokens_user ON refresh_tokens(user_id);
+
+-- Limpeza de tokens expirados
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens(expires_at);
+
+COMMENT ON TABLE refresh_tokens IS 'Refresh tokens emitidos (rotação com detecção de reuso)';
+COMMENT ON COLUMN refresh_tokens.jti IS 'ID do token (claim jti do JWT)';
+COMMENT ON COLUMN refresh_tokens.family_id IS 'Família: todos os tokens gerados a partir do mesmo login';
+COMMENT ON COLUMN refresh_tokens.used_at IS 'Quando foi trocado por um novo token (null = ainda válido)';
+COMMENT ON COLUMN refresh_tokens.revoked_at IS 'Quando a família foi revogada (reuso detectado)';
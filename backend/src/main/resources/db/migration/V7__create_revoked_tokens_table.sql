@@ -0,0 +1,26 @@
+-- ════════════════════════════════════════════════════════
+-- Migration V7: Access tokens revogados (logout / revogação forçada)
+-- Descrição: Lista exata dos jti revogados. O JwtAuthenticationFilter
+--   consulta primeiro filtros de Bloom em memória (AccessTokenDenylist)
+--   e só vem aqui quando o filtro acusa o jti.
+--   Linhas com expires_at no passado não servem mais para nada.
+-- ════════════════════════════════════════════════════════
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    jti UUID PRIMARY KEY,
+    user_id BIGINT,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_revoked_tokens_user
+        FOREIGN KEY (user_id)
+        REFERENCES users(id)
+        ON DELETE CASCADE
+);
+
+-- Carga na inicialização (só não expirados) e limpeza
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens(expires_at);
+
+COMMENT ON TABLE revoked_tokens IS 'Access tokens revogados antes de expirar';
+COMMENT ON COLUMN revoked_tokens.jti IS 'ID do token (claim jti do JWT)';
+COMMENT ON COLUMN revoked_tokens.expires_at IS 'Expiração original do token (depois disso a linha pode ser apagada)';
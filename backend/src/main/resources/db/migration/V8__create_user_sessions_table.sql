@@ -0,0 +1,44 @@
+-- ════════════════════════════════════════════════════════
+-- Migration V8: Sessões ativas (dispositivos logados)
+-- Descrição: Uma linha por família de refresh tokens (um login em
+--   um dispositivo). O access token carrega o ID da sessão (claim sid).
+--   last_seen_at é gravado em lote (write-behind), não a cada requisição.
+--   Linhas expiradas são apagadas em lotes pequenos por um job agendado.
+-- ════════════════════════════════════════════════════════
+
+CREATE TABLE IF NOT EXISTS user_sessions (
+    id UUID PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    device VARCHAR(255),
+    ip_address VARCHAR(45),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_seen_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP,
+
+    CONSTRAINT fk_user_sessions_user
+        FOREIGN KEY (user_id)
+        REFERENCES users(id)
+        ON DELETE CASCADE
+);
+
+-- Sessões de um usuário (tela do admin)
+CREATE INDEX idx_user_sessions_user ON user_sessions(user_id);
+
+-- Limpeza de sessões expiradas
+CREATE INDEX idx_user_sessions_expires_at ON user_sessions(expires_at);
+
+COMMENT ON TABLE user_sessions IS 'Sessões (login por dispositivo) = famílias de refresh tokens';
+COMMENT ON COLUMN user_sessions.id IS 'Mesmo valor de refresh_tokens.family_id e da claim sid do access token';
+COMMENT ON COLUMN user_sessions.device IS 'User-Agent do login';
+COMMENT ON COLUMN user_sessions.last_seen_at IS 'Última requisição autenticada (gravada em lote, atraso de segundos)';
+COMMENT ON COLUMN user_sessions.revoked_at IS 'Logout ou revogação pelo admin';
+
+-- Revogação de sessão inteira: o ID da sessão (sid) entra na lista de
+-- revogados e derruba todos os access tokens dela
+ALTER TABLE revoked_tokens ADD COLUMN IF NOT EXISTS whole_session BOOLEAN NOT NULL DEFAULT FALSE;
+
+COMMENT ON COLUMN revoked_tokens.whole_session IS 'true = jti é o ID de uma sessão (claim sid), não de um token';
+
+-- Limpeza em lotes de refresh tokens expirados também usa expires_at
+-- (idx_refresh_tokens_expires_at, V6)
@@ -0,0 +1,9 @@
+-- ════════════════════════════════════════════════════════
+-- Migration V9: Leitura periódica das revogações
+-- Descrição: Cada nó lê a cada poucos segundos as revogações feitas
+--   pelos outros (revoked_at > última vista) e atualiza os próprios
+--   filtros de Bloom (AccessTokenDenylist). Sem índice, toda leitura
+--   percorreria a tabela inteira.
+-- ════════════════════════════════════════════════════════
+
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_revoked_at ON revoked_tokens(revoked_at);
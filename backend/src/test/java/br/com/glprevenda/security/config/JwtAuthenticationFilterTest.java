@@ -0,0 +1,127 @@
+package br.com.glprevenda.security.config;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.glprevenda.security.service.AccessTokenDenylist;
+import br.com.glprevenda.security.service.JwtService;
+import br.com.glprevenda.security.service.ParsedToken;
+import br.com.glprevenda.security.service.SessionRegistry;
+import br.com.glprevenda.security.service.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("JwtAuthenticationFilter - Testes Unitários")
+class JwtAuthenticationFilterTest {
+
+    private static final long MAX_STALENESS = 300_000L;
+
+    private JwtService jwtService;
+    private UserDetailsService userDetailsService;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = mock(JwtService.class);
+        userDetailsService = mock(UserDetailsService.class);
+        when(jwtService.isTokenValid(any(ParsedToken.class), any())).thenReturn(true);
+
+        filter = new JwtAuthenticationFilter(
+                jwtService,
+                new VerifiedTokenCache(false, 100, new SimpleMeterRegistry()),
+                userDetailsService,
+                mock(AccessTokenDenylist.class),
+                mock(SessionRegistry.class));
+        ReflectionTestUtils.setField(filter, "statelessEnabled", true);
+        ReflectionTestUtils.setField(filter, "maxStaleness", MAX_STALENESS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * Access token emitido fora da janela (força a reconfirmação no banco)
+     */
+    private void givenToken(String jwt, String jti, List<String> roles) {
+        when(jwtService.parse(jwt)).thenReturn(ParsedToken.builder()
+                .subject("vendedor01")
+                .tokenId(jti)
+                .roles(roles)
+                .issuedAt(Instant.now().minusMillis(MAX_STALENESS * 2))
+                .expiration(Instant.now().plusSeconds(3600))
+                .type(ParsedToken.TokenType.ACCESS)
+                .build());
+    }
+
+    private List<String> authenticate(String jwt) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + jwt);
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+    }
+
+    @Test
+    @DisplayName("Confirmar o token novo não deve renovar a janela do token antigo com role removida")
+    void shouldNotShareConfirmationBetweenTokensOfSameUser() throws Exception {
+        // Given: ROLE_ADMIN removida entre o token antigo e o novo
+        givenToken("token-antigo", "jti-antigo", List.of("ROLE_ADMIN", "ROLE_VENDEDOR"));
+        givenToken("token-novo", "jti-novo", List.of("ROLE_VENDEDOR"));
+        when(userDetailsService.loadUserByUsername("vendedor01")).thenReturn(User.withUsername("vendedor01")
+                .password("hash")
+                .authorities("ROLE_VENDEDOR")
+                .build());
+
+        // When: o token novo é reconfirmado no banco (janela dele renovada)
+        List<String> newTokenRoles = authenticate("token-novo");
+        List<String> oldTokenRoles = authenticate("token-antigo");
+        List<String> oldTokenRolesAgain = authenticate("token-antigo");
+
+        // Then: o antigo continua indo ao banco, sem a role removida
+        assertThat(newTokenRoles).containsExactly("ROLE_VENDEDOR");
+        assertThat(oldTokenRoles).containsExactly("ROLE_VENDEDOR");
+        assertThat(oldTokenRolesAgain).containsExactly("ROLE_VENDEDOR");
+        verify(userDetailsService, times(3)).loadUserByUsername("vendedor01");
+    }
+
+    @Test
+    @DisplayName("Deve usar as claims do token dentro da janela confirmada")
+    void shouldTrustConfirmedTokenWithinWindow() throws Exception {
+        // Given
+        givenToken("token", "jti", List.of("ROLE_VENDEDOR"));
+        when(userDetailsService.loadUserByUsername("vendedor01")).thenReturn(User.withUsername("vendedor01")
+                .password("hash")
+                .authorities("ROLE_VENDEDOR")
+                .build());
+
+        // When
+        authenticate("token");
+        List<String> roles = authenticate("token");
+
+        // Then: só a primeira requisição foi ao banco
+        assertThat(roles).containsExactly("ROLE_VENDEDOR");
+        verify(userDetailsService, times(1)).loadUserByUsername("vendedor01");
+    }
+}
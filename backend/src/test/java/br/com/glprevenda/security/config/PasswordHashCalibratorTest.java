@@ -0,0 +1,70 @@
+package br.com.glprevenda.security.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("PasswordHashCalibrator - Testes Unitários")
+class PasswordHashCalibratorTest {
+
+    @Test
+    @DisplayName("Deve manter o strength calibrado dentro dos limites")
+    void shouldClampCalibratedStrength() {
+        // When
+        int tooFast = PasswordHashCalibrator.calibrateBCryptStrength(Duration.ofNanos(1), 4, 6);
+        int tooSlow = PasswordHashCalibrator.calibrateBCryptStrength(Duration.ofHours(1), 4, 6);
+
+        // Then
+        assertThat(tooFast).isEqualTo(4);
+        assertThat(tooSlow).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Deve gerar hash com prefixo {bcrypt} e aceitar hash legado sem prefixo")
+    void shouldEncodeWithPrefixAndMatchLegacyHash() {
+        // Given
+        PasswordEncoder encoder = PasswordHashCalibrator.delegatingEncoder(4);
+        String legacy = new BCryptPasswordEncoder(4).encode("senha123");
+
+        // When
+        String encoded = encoder.encode("senha123");
+
+        // Then
+        assertThat(encoded).startsWith("{bcrypt}$2a$04$");
+        assertThat(encoder.matches("senha123", encoded)).isTrue();
+        assertThat(encoder.matches("senha123", legacy)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve pedir rehash de hash legado ou abaixo do piso")
+    void shouldRequestUpgradeForOutdatedHashes() {
+        // Given: calibrado em 6, piso 5
+        PasswordEncoder encoder = PasswordHashCalibrator.delegatingEncoder(6, 5);
+
+        // When / Then
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("x"))).isTrue();
+        assertThat(encoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(4).encode("x"))).isTrue();
+        assertThat(encoder.upgradeEncoding(encoder.encode("x"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Não deve regravar hashes de nós calibrados com outro strength acima do piso")
+    void shouldNotRehashBetweenDifferentlyCalibratedNodes() {
+        // Given: dois nós com o mesmo piso, calibrados em 5 e 6
+        PasswordEncoder nodeA = PasswordHashCalibrator.delegatingEncoder(5, 4);
+        PasswordEncoder nodeB = PasswordHashCalibrator.delegatingEncoder(6, 4);
+
+        // When
+        String hashA = nodeA.encode("x");
+        String hashB = nodeB.encode("x");
+
+        // Then
+        assertThat(nodeB.upgradeEncoding(hashA)).isFalse();
+        assertThat(nodeA.upgradeEncoding(hashB)).isFalse();
+    }
+}
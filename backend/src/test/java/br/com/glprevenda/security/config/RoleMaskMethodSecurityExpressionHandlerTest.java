@@ -0,0 +1,131 @@
+package br.com.glprevenda.security.config;
+
+import br.com.glprevenda.security.entity.Role;
+import br.com.glprevenda.security.entity.User;
+import br.com.glprevenda.security.repository.RoleRepository;
+import br.com.glprevenda.security.service.JwtPrincipal;
+import br.com.glprevenda.security.service.RoleRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("RoleMaskMethodSecurityExpressionHandler - Testes Unitários")
+class RoleMaskMethodSecurityExpressionHandlerTest {
+
+    private final RoleMaskMethodSecurityExpressionHandler handler = new RoleMaskMethodSecurityExpressionHandler();
+    private final SpelExpressionParser parser = new SpelExpressionParser();
+
+    @BeforeEach
+    void setUp() {
+        RoleRepository roleRepository = mock(RoleRepository.class);
+        when(roleRepository.findAll()).thenReturn(List.of(
+                Role.builder().id(1L).name("ROLE_ADMIN").build(),
+                Role.builder().id(2L).name("ROLE_GERENTE").build(),
+                Role.builder().id(3L).name("ROLE_VENDEDOR").build()));
+        new RoleRegistry(roleRepository).reload();
+    }
+
+    @Test
+    @DisplayName("Deve avaliar hasRole pelo bitmask do usuário")
+    void shouldEvaluateRolesFromUserMask() {
+        // Given
+        User admin = User.builder()
+                .id(1L)
+                .username("admin")
+                .roles(Set.of(Role.builder().id(1L).name("ROLE_ADMIN").build()))
+                .build();
+        Authentication authentication =
+                new UsernamePasswordAuthenticationToken(admin, null, admin.getAuthorities());
+
+        // When / Then
+        assertThat(evaluate("hasRole('ADMIN')", authentication)).isTrue();
+        assertThat(evaluate("hasAuthority('ROLE_ADMIN')", authentication)).isTrue();
+        assertThat(evaluate("hasRole('GERENTE')", authentication)).isFalse();
+        assertThat(evaluate("hasAnyRole('GERENTE', 'ADMIN')", authentication)).isTrue();
+        assertThat(evaluate("isAuthenticated()", authentication)).isTrue();
+    }
+
+    @Test
+    @DisplayName("hasAuthority não deve aceitar o nome da role sem o prefixo ROLE_")
+    void shouldRequireFullAuthorityName() {
+        // Given
+        User admin = User.builder()
+                .id(1L)
+                .username("admin")
+                .roles(Set.of(Role.builder().id(1L).name("ROLE_ADMIN").build()))
+                .build();
+        Authentication authentication =
+                new UsernamePasswordAuthenticationToken(admin, null, admin.getAuthorities());
+
+        // When / Then: mesma semântica da expression root do Spring
+        assertThat(evaluate("hasAuthority('ADMIN')", authentication)).isFalse();
+        assertThat(evaluate("hasAnyAuthority('ADMIN', 'GERENTE')", authentication)).isFalse();
+        assertThat(evaluate("hasAnyAuthority('ROLE_GERENTE', 'ROLE_ADMIN')", authentication)).isTrue();
+        assertThat(evaluate("hasRole('ROLE_ADMIN')", authentication)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Authority sem prefixo não deve contar como role")
+    void shouldNotMapPrefixlessAuthorityToRole() {
+        // Given: authority "ADMIN" (não ROLE_ADMIN)
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                "integracao", null, List.of(new SimpleGrantedAuthority("ADMIN")));
+
+        // When / Then
+        assertThat(evaluate("hasRole('ADMIN')", authentication)).isFalse();
+        assertThat(evaluate("hasAuthority('ADMIN')", authentication)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve usar o bitmask do token no principal stateless")
+    void shouldEvaluateRolesFromTokenMask() {
+        // Given: claim roleMask com o bit 3 (ROLE_VENDEDOR)
+        JwtPrincipal driver = new JwtPrincipal(3L, "motorista", List.of("ROLE_VENDEDOR"), 1L << 3, Instant.now());
+        Authentication authentication =
+                new UsernamePasswordAuthenticationToken(driver, null, driver.getAuthorities());
+
+        // When / Then
+        assertThat(evaluate("hasRole('VENDEDOR')", authentication)).isTrue();
+        assertThat(evaluate("hasRole('ADMIN')", authentication)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve cair na comparação por nome para role fora do registro")
+    void shouldFallBackForUnknownRoles() {
+        // Given
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                "auditor", null, List.of(new SimpleGrantedAuthority("ROLE_AUDITOR")));
+
+        // When / Then
+        assertThat(evaluate("hasRole('AUDITOR')", authentication)).isTrue();
+        assertThat(evaluate("hasRole('ADMIN')", authentication)).isFalse();
+    }
+
+    private boolean evaluate(String expression, Authentication authentication) {
+        EvaluationContext context = handler.createEvaluationContext(
+                () -> authentication, new SimpleMethodInvocation(new Object(), toStringMethod()));
+        return Boolean.TRUE.equals(parser.parseExpression(expression).getValue(context, Boolean.class));
+    }
+
+    private static java.lang.reflect.Method toStringMethod() {
+        try {
+            return Object.class.getMethod("toString");
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -57,7 +57,7 @@ class AuthControllerTest {
                 .issuedAt(LocalDateTime.now())
                 .build();
         
-        when(authService. login(any(LoginRequest.class))).thenReturn(response);
+        when(authService.login(any(LoginRequest.class), any(), any())).thenReturn(response);
 
         // When & Then
         mockMvc.perform(post("/api/auth/login")
@@ -69,7 +69,7 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.username").value("testuser"))
                 .andExpect(jsonPath("$.userId").value(1));
 
-        verify(authService).login(any(LoginRequest.class));
+        verify(authService).login(any(LoginRequest.class), any(), any());
     }
 
     @Test
@@ -78,7 +78,7 @@ class AuthControllerTest {
         // Given
         LoginRequest request = new LoginRequest("testuser", "wrongpassword");
         
-        when(authService.login(any(LoginRequest.class)))
+        when(authService.login(any(LoginRequest.class), any(), any()))
                 .thenThrow(new BadCredentialsException("Credenciais inválidas"));
 
         // When & Then
@@ -87,7 +87,7 @@ class AuthControllerTest {
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isUnauthorized());
 
-        verify(authService).login(any(LoginRequest.class));
+        verify(authService).login(any(LoginRequest.class), any(), any());
     }
 
     @Test
@@ -102,7 +102,7 @@ class AuthControllerTest {
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
 
-        verify(authService, never()).login(any());
+        verify(authService, never()).login(any(), any(), any());
     }
 
     @Test
@@ -128,7 +128,7 @@ class AuthControllerTest {
                 .issuedAt(LocalDateTime.now())
                 .build();
         
-        when(authService. register(any(RegisterRequest.class))).thenReturn(response);
+        when(authService.register(any(RegisterRequest.class), any(), any())).thenReturn(response);
 
         // When & Then
         mockMvc.perform(post("/api/auth/register")
@@ -140,7 +140,7 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.username").value("newuser"))
                 .andExpect(jsonPath("$.userId").value(2));
 
-        verify(authService).register(any(RegisterRequest. class));
+        verify(authService).register(any(RegisterRequest.class), any(), any());
     }
 
     @Test
@@ -160,7 +160,7 @@ class AuthControllerTest {
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
 
-        verify(authService, never()).register(any());
+        verify(authService, never()).register(any(), any(), any());
     }
 
     @Test
@@ -180,7 +180,7 @@ class AuthControllerTest {
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
 
-        verify(authService, never()).register(any());
+        verify(authService, never()).register(any(), any(), any());
     }
 
     @Test
@@ -265,7 +265,7 @@ class AuthControllerTest {
                 .issuedAt(LocalDateTime.now())
                 .build();
         
-        when(authService.login(any(LoginRequest. class))).thenReturn(response);
+        when(authService.login(any(LoginRequest.class), any(), any())).thenReturn(response);
 
         // When & Then
         mockMvc.perform(post("/api/auth/login")
@@ -276,6 +276,6 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.refreshToken").exists())
                 .andExpect(jsonPath("$.email").value("test@example.com"));
 
-        verify(authService).login(any(LoginRequest.class));
+        verify(authService).login(any(LoginRequest.class), any(), any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,133 @@
+package br.com.glprevenda.security.entity;
+
+import br.com.glprevenda.config.DatabaseConfig;
+import br.com.glprevenda.security.repository.RoleRepository;
+import br.com.glprevenda.security.repository.UserRepository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Regressão: atribuir role a um usuário não pode carregar Role.users
+ * (antes, addRole trazia todos os usuários da role para a memória).
+ *
+ * O cadastro não usa mais addRole (vínculo gravado no insert em CTE,
+ * UserRepository.insertWithRole): o teste exercita addRole/removeRole
+ * de um usuário existente pelo repository.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@Import(DatabaseConfig.class)
+@DisplayName("User.addRole - Teste de Regressão (100k usuários na role)")
+class UserRoleMembershipTest {
+
+    private static final int EXISTING_USERS = 100_000;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long roleId;
+    private Long newUserId;
+
+    @BeforeEach
+    void setUp() {
+        Role role = roleRepository.saveAndFlush(Role.builder().name("ROLE_VENDEDOR").build());
+        roleId = role.getId();
+
+        // Usuários existentes inseridos direto via JDBC (fora do contexto de persistência)
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> users = IntStream.range(0, EXISTING_USERS)
+                .mapToObj(i -> new Object[]{"driver" + i, "driver" + i + "@example.com", "hash", "Driver " + i, now, now})
+                .toList();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users (username, email, password, full_name, active, failed_login_attempts, " +
+                "created_at, updated_at) VALUES (?, ?, ?, ?, TRUE, 0, ?, ?)", users);
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role_id) SELECT id, ? FROM users", roleId);
+
+        // Usuário existente ainda sem a role
+        jdbcTemplate.update(
+                "INSERT INTO users (username, email, password, full_name, active, failed_login_attempts, " +
+                "created_at, updated_at) VALUES ('newdriver', 'newdriver@example.com', 'hash', 'New Driver', " +
+                "TRUE, 0, ?, ?)", now, now);
+        newUserId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'newdriver'", Long.class);
+
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Deve gravar o vínculo sem inicializar Role.users")
+    void shouldAssignRoleWithoutLoadingRoleMembers() {
+        // Given
+        Session session = entityManager.unwrap(Session.class);
+        Statistics statistics = session.getSessionFactory().getStatistics();
+        statistics.clear();
+
+        // When
+        User user = userRepository.findById(newUserId).orElseThrow();
+        user.addRole(roleRepository.findById(roleId).orElseThrow());
+        entityManager.flush();
+
+        // Then: select do usuário (+ roles) + select da role + insert em user_roles
+        Role role = roleRepository.findById(roleId).orElseThrow();
+        assertThat(Hibernate.isInitialized(role.getUsers())).isFalse();
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+
+        // Memória constante: só a role e o usuário no contexto de persistência
+        assertThat(session.getStatistics().getEntityCount()).isEqualTo(2);
+
+        Integer links = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM user_roles WHERE user_id = ? AND role_id = ?",
+                Integer.class, newUserId, roleId);
+        assertThat(links).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve remover o vínculo sem inicializar Role.users")
+    void shouldRemoveRoleWithoutLoadingRoleMembers() {
+        // Given
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)", newUserId, roleId);
+        User user = userRepository.findById(newUserId).orElseThrow();
+        Role role = user.getRoles().iterator().next();
+
+        // When
+        user.removeRole(role);
+        entityManager.flush();
+
+        // Then
+        Integer links = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM user_roles WHERE user_id = ?", Integer.class, newUserId);
+        assertThat(links).isZero();
+        assertThat(Hibernate.isInitialized(role.getUsers())).isFalse();
+    }
+}
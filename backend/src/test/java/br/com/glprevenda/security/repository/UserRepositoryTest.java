@@ -0,0 +1,144 @@
+package br.com.glprevenda.security.repository;
+
+import br.com.glprevenda.config.DatabaseConfig;
+import br.com.glprevenda.security.dto.UserResponse;
+import br.com.glprevenda.security.entity.Role;
+import br.com.glprevenda.security.entity.User;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import(DatabaseConfig.class)
+@DisplayName("UserRepository - Testes de Repositório")
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        Role admin = roleRepository.save(Role.builder().name("ROLE_ADMIN").build());
+        Role vendedor = roleRepository.save(Role.builder().name("ROLE_VENDEDOR").build());
+
+        ids = List.of(
+                save("ana", admin, vendedor),
+                save("bruno", vendedor),
+                save("carla"),
+                save("diego", vendedor),
+                save("elisa", admin));
+    }
+
+    @Test
+    @DisplayName("Deve paginar por cursor com roles agregadas na projeção")
+    void shouldPageByKeysetWithAggregatedRoles() {
+        // When
+        List<UserResponse> first = userRepository.findPageAfter(0L, PageRequest.ofSize(2));
+        List<UserResponse> second = userRepository.findPageAfter(first.get(1).getId(), PageRequest.ofSize(2));
+
+        // Then
+        assertThat(first).extracting(UserResponse::getUsername).containsExactly("ana", "bruno");
+        assertThat(first.get(0).getRoles()).containsExactly("ROLE_ADMIN", "ROLE_VENDEDOR");
+        assertThat(second).extracting(UserResponse::getUsername).containsExactly("carla", "diego");
+        assertThat(second.get(0).getRoles()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve retornar vazio depois do último ID")
+    void shouldReturnEmptyAfterLastId() {
+        // When / Then
+        assertThat(userRepository.findPageAfter(ids.get(4), PageRequest.ofSize(10))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve percorrer todos os usuários em ordem via Stream")
+    void shouldStreamAllUsersInIdOrder() {
+        // When
+        List<UserResponse> users;
+        try (Stream<UserResponse> stream = userRepository.streamAll()) {
+            users = stream.toList();
+        }
+
+        // Then
+        assertThat(users).extracting(UserResponse::getId).containsExactlyElementsOf(ids);
+        assertThat(users.get(4).getRoles()).containsExactly("ROLE_ADMIN");
+    }
+
+    @Test
+    @DisplayName("Deve escapar curingas do texto buscado no padrão ILIKE")
+    void shouldEscapeWildcardsInLikePattern() {
+        assertThat(UserRepository.likePattern("silva")).isEqualTo("%silva%");
+        assertThat(UserRepository.likePattern("50%_a!")).isEqualTo("%50!%!_a!!%");
+    }
+
+    @Test
+    @DisplayName("Deve encontrar por username ou email sem diferenciar maiúsculas")
+    void shouldFindByIdentityIgnoringCase() {
+        // When / Then
+        assertThat(userRepository.findByIdentity("ANA")).get()
+                .extracting(User::getId).isEqualTo(ids.get(0));
+        assertThat(userRepository.findByIdentity("Bruno@Example.com")).get()
+                .extracting(User::getId).isEqualTo(ids.get(1));
+        assertThat(userRepository.findByIdentity("ninguem")).isEmpty();
+        assertThat(userRepository.existsByLowerEmail("carla@example.com")).isTrue();
+        assertThat(userRepository.existsByLowerUsername("ninguem")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve avançar updated_at só quando a falha de login bloqueia a conta")
+    void shouldTouchUpdatedAtOnlyWhenLocking() {
+        // Given
+        LocalDateTime lastPoll = LocalDateTime.now().minusHours(1);
+        jdbcTemplate.update("UPDATE users SET updated_at = ?", lastPoll.minusMinutes(5));
+        Long bruno = ids.get(1);
+
+        // When: primeira falha só conta
+        userRepository.registerFailedLogin(bruno, 2, LocalDateTime.now().plusMinutes(15));
+
+        // Then
+        assertThat(userRepository.findIdsUpdatedAfter(lastPoll)).isEmpty();
+
+        // When: segunda falha bloqueia
+        userRepository.registerFailedLogin(bruno, 2, LocalDateTime.now().plusMinutes(15));
+
+        // Then
+        assertThat(userRepository.findIdsUpdatedAfter(lastPoll)).containsExactly(bruno);
+    }
+
+    private Long save(String username, Role... roles) {
+        User user = User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("hash")
+                .fullName(username)
+                .roles(new HashSet<>(List.of(roles)))
+                .build();
+        return userRepository.saveAndFlush(user).getId();
+    }
+}
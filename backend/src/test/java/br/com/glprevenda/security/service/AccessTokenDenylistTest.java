@@ -0,0 +1,189 @@
+package br.com.glprevenda.security.service;
+
+import br.com.glprevenda.security.entity.RevokedToken;
+import br.com.glprevenda.security.repository.RevokedTokenRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AccessTokenDenylist - Testes Unitários")
+class AccessTokenDenylistTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private AccessTokenDenylist denylist;
+
+    @BeforeEach
+    void setUp() {
+        denylist = newDenylist();
+    }
+
+    /**
+     * Um nó: todos os nós compartilham o mesmo banco (o mock)
+     */
+    private AccessTokenDenylist newDenylist() {
+        return new AccessTokenDenylist(revokedTokenRepository, new SimpleMeterRegistry(),
+                86_400_000L, Duration.ofHours(1), 1_000, 0.001, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Deve recusar token revogado, confirmando no banco apenas quando o filtro acusa")
+    void shouldDetectRevokedToken() {
+        // Given
+        UUID revokedId = UUID.randomUUID();
+        Instant expiration = Instant.now().plus(2, ChronoUnit.HOURS);
+        when(revokedTokenRepository.existsById(revokedId)).thenReturn(true);
+
+        // When
+        denylist.revoke(revokedId, 1L, expiration);
+
+        // Then
+        assertThat(denylist.isRevoked(accessToken(revokedId, expiration))).isTrue();
+        assertThat(denylist.isRevoked(accessToken(UUID.randomUUID(), expiration))).isFalse();
+        verify(revokedTokenRepository).insertIfAbsent(eq(revokedId), eq(1L), any(), any(), eq(false));
+        verify(revokedTokenRepository).existsById(revokedId);
+        verify(revokedTokenRepository, atMost(2)).existsById(any());
+    }
+
+    @Test
+    @DisplayName("Token sem jti, ou de balde vazio, nunca consulta o banco")
+    void shouldNotQueryDatabaseForUnknownTokens() {
+        // When & Then
+        assertThat(denylist.isRevoked(accessToken(null, Instant.now().plusSeconds(60)))).isFalse();
+        assertThat(denylist.isRevoked(accessToken(UUID.randomUUID(), Instant.now().plusSeconds(60)))).isFalse();
+        verify(revokedTokenRepository, never()).existsById(any());
+    }
+
+    @Test
+    @DisplayName("Deve recarregar do banco as revogações ainda válidas")
+    void shouldLoadRevocationsFromDatabase() {
+        // Given
+        UUID revokedId = UUID.randomUUID();
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(3);
+        when(revokedTokenRepository.findByExpiresAtAfter(any()))
+                .thenReturn(List.of(RevokedToken.builder().jti(revokedId).expiresAt(expiresAt).build()));
+        when(revokedTokenRepository.existsById(revokedId)).thenReturn(true);
+
+        // When
+        denylist.load();
+
+        // Then
+        Instant expiration = expiresAt.atZone(ZoneId.systemDefault()).toInstant();
+        assertThat(denylist.isRevoked(accessToken(revokedId, expiration))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve recusar token revogado em outro nó após a leitura periódica")
+    void shouldPickUpRevocationFromAnotherNode() {
+        // Given: nó B já no ar quando o nó A recebe o logout
+        AccessTokenDenylist otherNode = newDenylist();
+        otherNode.load();
+
+        UUID revokedId = UUID.randomUUID();
+        Instant expiration = Instant.now().plus(2, ChronoUnit.HOURS);
+        denylist.revoke(revokedId, 1L, expiration);
+        when(revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(any(), any()))
+                .thenReturn(List.of(RevokedToken.builder()
+                        .jti(revokedId)
+                        .userId(1L)
+                        .expiresAt(LocalDateTime.ofInstant(expiration, ZoneId.systemDefault()))
+                        .revokedAt(LocalDateTime.now())
+                        .build()));
+        when(revokedTokenRepository.existsById(revokedId)).thenReturn(true);
+
+        // When
+        otherNode.pollRevocations();
+
+        // Then
+        assertThat(otherNode.isRevoked(accessToken(revokedId, expiration))).isTrue();
+        assertThat(otherNode.isRevoked(accessToken(UUID.randomUUID(), expiration))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Sessão revogada deve derrubar todos os access tokens dela")
+    void shouldRevokeAllTokensOfSession() {
+        // Given
+        UUID sessionId = UUID.randomUUID();
+        when(revokedTokenRepository.existsById(sessionId)).thenReturn(true);
+
+        // When
+        denylist.revokeSession(sessionId, 1L);
+
+        // Then: tokens da sessão com qualquer expiração dentro da validade
+        for (long hours = 0; hours <= 24; hours += 6) {
+            ParsedToken token = ParsedToken.builder()
+                    .subject("testuser")
+                    .tokenId(UUID.randomUUID().toString())
+                    .sessionId(sessionId.toString())
+                    .expiration(Instant.now().plus(hours, ChronoUnit.HOURS))
+                    .type(ParsedToken.TokenType.ACCESS)
+                    .build();
+            assertThat(denylist.isRevoked(token)).isTrue();
+        }
+        verify(revokedTokenRepository).insertIfAbsent(eq(sessionId), eq(1L), any(), any(), eq(true));
+    }
+
+    @Test
+    @DisplayName("Sessão encerrada pelo admin deve cair também nos outros nós")
+    void shouldPickUpRevokedSessionFromAnotherNode() {
+        // Given: admin encerra a sessão no nó A; nó B recarrega do banco
+        AccessTokenDenylist otherNode = newDenylist();
+        otherNode.load();
+
+        UUID sessionId = UUID.randomUUID();
+        denylist.revokeSession(sessionId, 1L);
+        when(revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(any(), any()))
+                .thenReturn(List.of(RevokedToken.builder()
+                        .jti(sessionId)
+                        .userId(1L)
+                        .expiresAt(LocalDateTime.now().plusHours(24))
+                        .revokedAt(LocalDateTime.now())
+                        .wholeSession(true)
+                        .build()));
+        when(revokedTokenRepository.existsById(sessionId)).thenReturn(true);
+
+        // When
+        otherNode.pollRevocations();
+
+        // Then: qualquer access token da sessão é recusado no nó B
+        for (long hours = 0; hours <= 24; hours += 6) {
+            ParsedToken token = ParsedToken.builder()
+                    .subject("motorista01")
+                    .tokenId(UUID.randomUUID().toString())
+                    .sessionId(sessionId.toString())
+                    .expiration(Instant.now().plus(hours, ChronoUnit.HOURS))
+                    .type(ParsedToken.TokenType.ACCESS)
+                    .build();
+            assertThat(otherNode.isRevoked(token)).isTrue();
+        }
+    }
+
+    private ParsedToken accessToken(UUID tokenId, Instant expiration) {
+        return ParsedToken.builder()
+                .subject("testuser")
+                .tokenId(tokenId != null ? tokenId.toString() : null)
+                .issuedAt(Instant.now())
+                .expiration(expiration)
+                .type(ParsedToken.TokenType.ACCESS)
+                .build();
+    }
+}
@@ -7,7 +7,7 @@ import br.com. glprevenda.security.dto.AuthResponse;
 import br.com. glprevenda.security.entity.User;
 import br.com.glprevenda.security. entity.Role;
 import br.com.glprevenda.security. repository.UserRepository;
-import br. com.glprevenda.security.repository.RoleRepository;
+import br.com.glprevenda.shared.exception.TooManyRequestsException;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api. DisplayName;
@@ -16,14 +16,23 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 import java.util.Set;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito. ArgumentMatchers.*;
@@ -37,7 +46,7 @@ class AuthServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private RoleRepository roleRepository;
+    private RoleRegistry roleRegistry;
 
     @Mock
     private PasswordEncoder passwordEncoder;
@@ -48,14 +57,45 @@ class AuthServiceTest {
     @Mock
     private AuthenticationManager authenticationManager;
 
+    @Mock
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Mock
+    private LoginThrottle loginThrottle;
+
+    @Mock
+    private AccountLockoutService accountLockoutService;
+
+    @Mock
+    private IdentityFilter identityFilter;
+
+    @Mock
+    private RefreshTokenStore refreshTokenStore;
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    @Mock
+    private AccessTokenDenylist tokenDenylist;
+
+    @Mock
+    private SessionRegistry sessionRegistry;
+
     @InjectMocks
     private AuthService authService;
 
+    private static final UUID TOKEN_ID = UUID.fromString("5f0c6f5e-2a6b-4d7e-9c1a-3b2d4e5f6a7b");
+    private static final UUID SESSION_ID = UUID.fromString("0b6c2d1e-7f3a-4c5b-8d9e-1a2b3c4d5e6f");
+
     private User testUser;
     private Role vendedorRole;
 
     @BeforeEach
-    void setUp() {
+    void setUp() throws Exception {
+        // Executor de hash roda a tarefa na própria thread do teste
+        lenient().when(passwordHashingExecutor.execute(anyString(), any()))
+                .thenAnswer(invocation -> invocation.<Callable<?>>getArgument(1).call());
+
         vendedorRole = Role.builder()
                 .id(2L)
                 .name("ROLE_VENDEDOR")
@@ -82,11 +122,12 @@ class AuthServiceTest {
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(authentication);
         when(authentication.getPrincipal()).thenReturn(testUser);
-        when(jwtService.generateToken(testUser)).thenReturn("access-token");
-        when(jwtService.generateRefreshToken(testUser)).thenReturn("refresh-token");
+        when(refreshTokenStore.issue(any(UUID.class), eq(1L), any(LocalDateTime.class))).thenReturn(SESSION_ID);
+        when(jwtService.generateToken(testUser, SESSION_ID)).thenReturn("access-token");
+        when(jwtService.generateRefreshToken(eq(testUser), any(UUID.class))).thenReturn("refresh-token");
 
         // When
-        AuthResponse response = authService. login(request);
+        AuthResponse response = authService.login(request, "10.0.0.1", "GLP Motorista/2.3 (Android 14)");
 
         // Then
         assertThat(response).isNotNull();
@@ -94,8 +135,11 @@ class AuthServiceTest {
         assertThat(response.getRefreshToken()).isEqualTo("refresh-token");
         
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(jwtService).generateToken(testUser);
-        verify(jwtService).generateRefreshToken(testUser);
+        verify(jwtService).generateToken(testUser, SESSION_ID);
+        verify(jwtService).generateRefreshToken(eq(testUser), any(UUID.class));
+        verify(sessionRegistry).open(eq(SESSION_ID), eq(1L), eq("GLP Motorista/2.3 (Android 14)"),
+                eq("10.0.0.1"), any(LocalDateTime.class));
+        verify(accountLockoutService).recordSuccess(testUser);
     }
 
     @Test
@@ -111,6 +155,24 @@ class AuthServiceTest {
         assertThatThrownBy(() -> authService.login(request))
                 .isInstanceOf(BadCredentialsException.class)
                 .hasMessage("Invalid credentials");
+
+        verify(accountLockoutService).recordFailure("testuser");
+    }
+
+    @Test
+    @DisplayName("Deve recusar login acima do limite sem verificar a senha")
+    void shouldRejectThrottledLoginWithoutAuthenticating() {
+        // Given
+        LoginRequest request = new LoginRequest("testuser", "password123");
+        
+        doThrow(new TooManyRequestsException("Muitas tentativas de login", 12))
+                .when(loginThrottle).checkAllowed("10.0.0.1", "testuser");
+
+        // When & Then
+        assertThatThrownBy(() -> authService.login(request, "10.0.0.1"))
+                .isInstanceOf(TooManyRequestsException.class);
+
+        verifyNoInteractions(authenticationManager, passwordHashingExecutor, accountLockoutService);
     }
 
     @Test
@@ -124,23 +186,12 @@ class AuthServiceTest {
                 "New User"
         );
         
-        User newUser = User.builder()
-                .id(2L)
-                .username("newuser")
-                .email("new@example.com")
-                .password("encodedPassword")
-                .fullName("New User")
-                .active(true)
-                .roles(Set.of(vendedorRole))
-                .build();
-
-        when(userRepository.existsByUsername("newuser")).thenReturn(false);
-        when(userRepository. existsByEmail("new@example.com")).thenReturn(false);
         when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
-        when(roleRepository.findByName("ROLE_VENDEDOR")).thenReturn(Optional.of(vendedorRole));
-        when(userRepository.save(any(User. class))).thenReturn(newUser);
-        when(jwtService.generateToken(any(User.class))).thenReturn("access-token");
-        when(jwtService.generateRefreshToken(any(User. class))).thenReturn("refresh-token");
+        when(roleRegistry.require("ROLE_VENDEDOR")).thenReturn(vendedorEntry());
+        when(userRepository.insertWithRole(eq("newuser"), eq("new@example.com"), eq("encodedPassword"),
+                eq("New User"), eq(2L), any(LocalDateTime.class))).thenReturn(2L);
+        when(jwtService.generateToken(any(User.class), any())).thenReturn("access-token");
+        when(jwtService.generateRefreshToken(any(User. class), any(UUID.class))).thenReturn("refresh-token");
 
         // When
         AuthResponse response = authService. register(request);
@@ -149,12 +200,15 @@ class AuthServiceTest {
         assertThat(response).isNotNull();
         assertThat(response.getAccessToken()).isEqualTo("access-token");
         assertThat(response.getRefreshToken()).isEqualTo("refresh-token");
+        assertThat(response.getUserId()).isEqualTo(2L);
+        assertThat(response.getRoles()).containsExactly("ROLE_VENDEDOR");
         
-        verify(userRepository).existsByUsername("newuser");
-        verify(userRepository).existsByEmail("new@example.com");
         verify(passwordEncoder).encode("password123");
-        verify(roleRepository).findByName("ROLE_VENDEDOR");
-        verify(userRepository).save(any(User.class));
+        verify(roleRegistry).require("ROLE_VENDEDOR");
+        verify(userRepository, never()).existsByLowerUsername(anyString());
+        verify(userRepository, never()).existsByLowerEmail(anyString());
+        verify(identityFilter).add("newuser", "new@example.com");
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
@@ -168,17 +222,41 @@ class AuthServiceTest {
                 "New User"
         );
         
-        when(userRepository.existsByUsername("testuser")).thenReturn(true);
+        when(roleRegistry.require("ROLE_VENDEDOR")).thenReturn(vendedorEntry());
+        when(userRepository.insertWithRole(anyString(), anyString(), any(), anyString(), anyLong(), any()))
+                .thenThrow(duplicateKey("users_username_key"));
 
         // When & Then
         assertThatThrownBy(() -> authService.register(request))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Username já está em uso");
         
-        verify(userRepository).existsByUsername("testuser");
         verify(userRepository, never()).save(any(User.class));
     }
 
+    @Test
+    @DisplayName("Deve recusar username já existente antes de gerar o hash")
+    void shouldRejectKnownUsernameBeforeHashing() {
+        // Given
+        RegisterRequest request = new RegisterRequest(
+                "TestUser",
+                "new@example.com",
+                "password123",
+                "New User"
+        );
+        
+        when(identityFilter.mightExist("TestUser")).thenReturn(true);
+        when(userRepository.existsByLowerUsername("testuser")).thenReturn(true);
+
+        // When & Then
+        assertThatThrownBy(() -> authService.register(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Username já está em uso");
+        
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(userRepository, never()).insertWithRole(any(), any(), any(), any(), any(), any());
+    }
+
     @Test
     @DisplayName("Deve lançar exceção ao registrar email já existente")
     void shouldThrowExceptionForExistingEmail() {
@@ -190,18 +268,63 @@ class AuthServiceTest {
                 "New User"
         );
         
-        when(userRepository.existsByUsername("newuser")).thenReturn(false);
-        when(userRepository.existsByEmail("test@example.com")).thenReturn(true);
+        when(roleRegistry.require("ROLE_VENDEDOR")).thenReturn(vendedorEntry());
+        when(userRepository.insertWithRole(anyString(), anyString(), any(), anyString(), anyLong(), any()))
+                .thenThrow(duplicateKey("users_email_key"));
 
         // When & Then
         assertThatThrownBy(() -> authService.register(request))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Email já está em uso");
         
-        verify(userRepository).existsByEmail("test@example.com");
         verify(userRepository, never()).save(any(User.class));
     }
 
+    @Test
+    @DisplayName("Deve recusar variação de maiúsculas que a pré-checagem não viu")
+    void shouldRejectCaseVariantCaughtByLowerUniqueIndex() {
+        // Given: "outronode" criado em outro nó, ainda fora do IdentityFilter
+        RegisterRequest request = new RegisterRequest(
+                "OutroNode",
+                "OUTRONODE@x.com",
+                "password123",
+                "Outro Node"
+        );
+        
+        when(identityFilter.mightExist(anyString())).thenReturn(false);
+        when(roleRegistry.require("ROLE_VENDEDOR")).thenReturn(vendedorEntry());
+        when(userRepository.insertWithRole(anyString(), anyString(), any(), anyString(), anyLong(), any()))
+                .thenThrow(duplicateKey("users_username_lower_key"));
+
+        // When & Then
+        assertThatThrownBy(() -> authService.register(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Username já está em uso");
+        
+        verify(userRepository, never()).existsByLowerUsername(anyString());
+    }
+
+    @Test
+    @DisplayName("Deve traduzir o UNIQUE de lower(email) para email em uso")
+    void shouldTranslateLowerEmailConstraint() {
+        // Given
+        RegisterRequest request = new RegisterRequest(
+                "newuser",
+                "TEST@example.com",
+                "password123",
+                "New User"
+        );
+        
+        when(roleRegistry.require("ROLE_VENDEDOR")).thenReturn(vendedorEntry());
+        when(userRepository.insertWithRole(anyString(), anyString(), any(), anyString(), anyLong(), any()))
+                .thenThrow(duplicateKey("users_email_lower_key"));
+
+        // When & Then
+        assertThatThrownBy(() -> authService.register(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Email já está em uso");
+    }
+
     @Test
     @DisplayName("Deve renovar tokens com refresh token válido")
     void shouldRefreshTokensSuccessfully() {
@@ -209,11 +332,13 @@ class AuthServiceTest {
         String refreshToken = "valid-refresh-token";
         RefreshTokenRequest request = new RefreshTokenRequest(refreshToken);
         
-        when(jwtService.extractUsername(refreshToken)).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(jwtService.isRefreshTokenValid(refreshToken, testUser)).thenReturn(true);
-        when(jwtService.generateToken(testUser)).thenReturn("new-access-token");
-        when(jwtService.generateRefreshToken(testUser)).thenReturn("new-refresh-token");
+        when(jwtService.parse(refreshToken)).thenReturn(refreshTokenFor("testuser"));
+        when(userDetailsService.findUser("testuser")).thenReturn(Optional.of(testUser));
+        when(jwtService.isRefreshTokenValid(any(ParsedToken.class), eq(testUser))).thenReturn(true);
+        when(refreshTokenStore.rotate(eq(TOKEN_ID), any(UUID.class), any(LocalDateTime.class)))
+                .thenReturn(new RefreshTokenStore.Rotation(RefreshTokenStore.Outcome.ROTATED, 1L, SESSION_ID));
+        when(jwtService.generateToken(testUser, SESSION_ID)).thenReturn("new-access-token");
+        when(jwtService.generateRefreshToken(eq(testUser), any(UUID.class))).thenReturn("new-refresh-token");
 
         // When
         AuthResponse response = authService.refreshToken(request);
@@ -223,10 +348,32 @@ class AuthServiceTest {
         assertThat(response.getAccessToken()).isEqualTo("new-access-token");
         assertThat(response.getRefreshToken()).isEqualTo("new-refresh-token");
         
-        verify(jwtService).extractUsername(refreshToken);
-        verify(jwtService).isRefreshTokenValid(refreshToken, testUser);
-        verify(jwtService).generateToken(testUser);
-        verify(jwtService).generateRefreshToken(testUser);
+        verify(jwtService).parse(refreshToken);
+        verify(jwtService).isRefreshTokenValid(any(ParsedToken.class), eq(testUser));
+        verify(jwtService).generateToken(testUser, SESSION_ID);
+        verify(jwtService).generateRefreshToken(eq(testUser), any(UUID.class));
+    }
+
+    @Test
+    @DisplayName("Deve recusar refresh token já utilizado (família revogada)")
+    void shouldRejectReusedRefreshToken() {
+        // Given
+        String refreshToken = "used-refresh-token";
+        RefreshTokenRequest request = new RefreshTokenRequest(refreshToken);
+        
+        when(jwtService.parse(refreshToken)).thenReturn(refreshTokenFor("testuser"));
+        when(userDetailsService.findUser("testuser")).thenReturn(Optional.of(testUser));
+        when(jwtService.isRefreshTokenValid(any(ParsedToken.class), eq(testUser))).thenReturn(true);
+        when(refreshTokenStore.rotate(eq(TOKEN_ID), any(UUID.class), any(LocalDateTime.class)))
+                .thenReturn(new RefreshTokenStore.Rotation(RefreshTokenStore.Outcome.REUSED, null, null));
+
+        // When & Then
+        assertThatThrownBy(() -> authService.refreshToken(request))
+                .isInstanceOf(BadCredentialsException.class)
+                .hasMessageContaining("já utilizado");
+        
+        verify(jwtService, never()).generateToken(any(User.class), any());
+        verify(jwtService, never()).generateRefreshToken(any(), any());
     }
 
     @Test
@@ -236,17 +383,17 @@ class AuthServiceTest {
         String refreshToken = "invalid-refresh-token";
         RefreshTokenRequest request = new RefreshTokenRequest(refreshToken);
         
-        when(jwtService. extractUsername(refreshToken)).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(jwtService.isRefreshTokenValid(refreshToken, testUser)).thenReturn(false);
+        when(jwtService.parse(refreshToken)).thenReturn(refreshTokenFor("testuser"));
+        when(userDetailsService.findUser("testuser")).thenReturn(Optional.of(testUser));
+        when(jwtService.isRefreshTokenValid(any(ParsedToken.class), eq(testUser))).thenReturn(false);
 
         // When & Then
         assertThatThrownBy(() -> authService.refreshToken(request))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Refresh token inválido");
         
-        verify(jwtService).isRefreshTokenValid(refreshToken, testUser);
-        verify(jwtService, never()).generateToken(any());
+        verify(jwtService).isRefreshTokenValid(any(ParsedToken.class), eq(testUser));
+        verify(jwtService, never()).generateToken(any(User.class), any());
     }
 
     @Test
@@ -266,8 +413,8 @@ class AuthServiceTest {
                 .roles(Set.of(vendedorRole))
                 .build();
         
-        when(jwtService.extractUsername(refreshToken)).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(inactiveUser));
+        when(jwtService.parse(refreshToken)).thenReturn(refreshTokenFor("testuser"));
+        when(userDetailsService.findUser("testuser")).thenReturn(Optional.of(inactiveUser));
         
         // ✅ REMOVIDO:  Stubbing desnecessário (código lança exceção antes de validar token)
 
@@ -276,8 +423,37 @@ class AuthServiceTest {
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Usuário inativo");
         
-        verify(jwtService, never()).generateToken(any());
-        verify(jwtService, never()).isRefreshTokenValid(anyString(), any());
+        verify(jwtService, never()).generateToken(any(User.class), any());
+        verify(jwtService, never()).isRefreshTokenValid(any(ParsedToken.class), any());
+    }
+
+    @Test
+    @DisplayName("Deve recusar refresh de usuário bloqueado pelo lockout")
+    void shouldRejectRefreshForLockedUser() {
+        // Given
+        String refreshToken = "valid-refresh-token";
+        RefreshTokenRequest request = new RefreshTokenRequest(refreshToken);
+        
+        User lockedUser = User.builder()
+                .id(1L)
+                .username("testuser")
+                .email("test@example.com")
+                .password("encodedPassword")
+                .fullName("Test User")
+                .active(true)
+                .lockedUntil(LocalDateTime.now().plusMinutes(15))
+                .roles(Set.of(vendedorRole))
+                .build();
+        
+        when(jwtService.parse(refreshToken)).thenReturn(refreshTokenFor("testuser"));
+        when(userDetailsService.findUser("testuser")).thenReturn(Optional.of(lockedUser));
+
+        // When & Then
+        assertThatThrownBy(() -> authService.refreshToken(request))
+                .isInstanceOf(LockedException.class);
+        
+        verify(refreshTokenStore, never()).rotate(any(), any(), any());
+        verify(jwtService, never()).generateToken(any(User.class), any());
     }
 
     @Test
@@ -287,14 +463,83 @@ class AuthServiceTest {
         String refreshToken = "valid-refresh-token";
         RefreshTokenRequest request = new RefreshTokenRequest(refreshToken);
         
-        when(jwtService. extractUsername(refreshToken)).thenReturn("nonexistent");
-        when(userRepository.findByUsername("nonexistent")).thenReturn(Optional.empty());
+        when(jwtService.parse(refreshToken)).thenReturn(refreshTokenFor("nonexistent"));
+        when(userDetailsService.findUser("nonexistent")).thenReturn(Optional.empty());
 
         // When & Then
         assertThatThrownBy(() -> authService.refreshToken(request))
                 .isInstanceOf(RuntimeException. class)
                 .hasMessageContaining("Usuário não encontrado");
         
-        verify(jwtService, never()).isRefreshTokenValid(anyString(), any());
+        verify(jwtService, never()).isRefreshTokenValid(any(ParsedToken.class), any());
+    }
+
+    @Test
+    @DisplayName("Logout deve revogar o access token e a família do refresh token")
+    void shouldRevokeTokensOnLogout() {
+        // Given
+        UUID accessTokenId = UUID.randomUUID();
+        Instant expiration = Instant.now().plusSeconds(600);
+        ParsedToken accessToken = ParsedToken.builder()
+                .subject("testuser")
+                .userId(1L)
+                .tokenId(accessTokenId.toString())
+                .issuedAt(Instant.now())
+                .expiration(expiration)
+                .type(ParsedToken.TokenType.ACCESS)
+                .build();
+
+        when(jwtService.parse("access-token")).thenReturn(accessToken);
+        when(jwtService.parse("refresh-token")).thenReturn(refreshTokenFor("testuser"));
+
+        // When
+        authService.logout("access-token", "refresh-token");
+
+        // Then
+        verify(tokenDenylist).revoke(accessTokenId, 1L, expiration);
+        verify(refreshTokenStore).revokeFamilyOf(TOKEN_ID);
+    }
+
+    @Test
+    @DisplayName("Logout com token de sessão deve encerrar a sessão inteira")
+    void shouldRevokeSessionOnLogout() {
+        // Given
+        ParsedToken accessToken = ParsedToken.builder()
+                .subject("testuser")
+                .userId(1L)
+                .tokenId(UUID.randomUUID().toString())
+                .sessionId(SESSION_ID.toString())
+                .issuedAt(Instant.now())
+                .expiration(Instant.now().plusSeconds(600))
+                .type(ParsedToken.TokenType.ACCESS)
+                .build();
+
+        when(jwtService.parse("access-token")).thenReturn(accessToken);
+
+        // When
+        authService.logout("access-token", null);
+
+        // Then
+        verify(sessionRegistry).revoke(1L, SESSION_ID);
+        verifyNoInteractions(tokenDenylist);
+    }
+
+    private ParsedToken refreshTokenFor(String username) {
+        return ParsedToken.builder()
+                .subject(username)
+                .tokenId(TOKEN_ID.toString())
+                .issuedAt(Instant.now())
+                .expiration(Instant.now().plusSeconds(3600))
+                .type(ParsedToken.TokenType.REFRESH)
+                .build();
+    }
+
+    private DataIntegrityViolationException duplicateKey(String constraint) {
+        return new DataIntegrityViolationException("duplicate key",
+                new ConstraintViolationException("duplicate key", new SQLException("23505"), constraint));
+    }
+
+    private RoleRegistry.Entry vendedorEntry() {
+        return new RoleRegistry.Entry(2L, "ROLE_VENDEDOR", new SimpleGrantedAuthority("ROLE_VENDEDOR"));
     }
-}
\ No newline at end of file
+}
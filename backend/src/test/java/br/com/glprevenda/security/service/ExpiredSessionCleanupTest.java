@@ -0,0 +1,63 @@
+package br.com.glprevenda.security.service;
+
+import br.com.glprevenda.security.repository.RefreshTokenRepository;
+import br.com.glprevenda.security.repository.RevokedTokenRepository;
+import br.com.glprevenda.security.repository.UserSessionRepository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExpiredSessionCleanup - Testes Unitários")
+class ExpiredSessionCleanupTest {
+
+    @Mock
+    private UserSessionRepository sessionRepository;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Test
+    @DisplayName("Deve apagar em lotes até um lote vir incompleto")
+    void shouldDeleteInBatchesUntilDone() {
+        // Given
+        ExpiredSessionCleanup cleanup = new ExpiredSessionCleanup(
+                sessionRepository, refreshTokenRepository, revokedTokenRepository, 100, 10, 0);
+        when(sessionRepository.deleteExpiredBatch(any(LocalDateTime.class), eq(100)))
+                .thenReturn(100, 100, 37);
+
+        // When
+        cleanup.purgeExpired();
+
+        // Then
+        verify(sessionRepository, times(3)).deleteExpiredBatch(any(LocalDateTime.class), eq(100));
+        verify(refreshTokenRepository, times(1)).deleteExpiredBatch(any(LocalDateTime.class), eq(100));
+        verify(revokedTokenRepository, times(1)).deleteExpiredBatch(any(LocalDateTime.class), eq(100));
+    }
+
+    @Test
+    @DisplayName("Deve parar no limite de lotes por execução")
+    void shouldStopAtMaxBatches() {
+        // Given
+        ExpiredSessionCleanup cleanup = new ExpiredSessionCleanup(
+                sessionRepository, refreshTokenRepository, revokedTokenRepository, 100, 3, 0);
+
+        // When
+        int deleted = cleanup.purge("user_sessions", LocalDateTime.now(), (now, batchSize) -> batchSize);
+
+        // Then
+        assertThat(deleted).isEqualTo(300);
+    }
+}
@@ -0,0 +1,209 @@
+package br.com.glprevenda.security.service;
+
+import br.com.glprevenda.security.entity.Role;
+import br.com.glprevenda.security.entity.User;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.security.Key;
+import java.security.KeyPair;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("JwtKeyRing - Testes Unitários")
+class JwtKeyRingTest {
+
+    private static final String SECRET_KEY =
+            "Z2xwLWVycC1zaXN0ZW1hLXJldmVuZGEtZ2xwLXNlY3JldC1rZXktMjAyNC1zdXBlci1zZWd1cmEtbWluaW1vLTUxMi1iaXRzLWJhc2U2NC1lbmNvZGVkLWtleQ==";
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = User.builder()
+                .id(1L)
+                .username("testuser")
+                .email("test@example.com")
+                .password("hashedPassword")
+                .fullName("Test User")
+                .active(true)
+                .roles(Set.of(Role.builder().id(1L).name("ROLE_ADMIN").build()))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Deve gerar o mesmo kid para o mesmo par de chaves")
+    void shouldDeriveStableKeyId() {
+        // Given
+        KeyPair pair = Jwts.SIG.ES256.keyPair().build();
+
+        // When
+        JwtKeyRing first = keyRing(pair, List.of());
+        JwtKeyRing second = keyRing(pair, List.of(Jwts.SIG.ES256.keyPair().build()));
+
+        // Then
+        assertThat(first.getCurrentKeyId()).isEqualTo(second.getCurrentKeyId());
+        assertThat(second.getPublicJwks()).hasSize(2);
+        assertThat(second.getPublicJwks().get(0).getId()).isEqualTo(first.getCurrentKeyId());
+    }
+
+    @Test
+    @DisplayName("Deve verificar com a chave pública publicada no JWKS")
+    void shouldVerifyWithPublishedPublicKey() {
+        // Given
+        JwtKeyRing keyRing = keyRing(Jwts.SIG.ES256.keyPair().build(), List.of());
+        String token = jwtService(keyRing).generateToken(testUser);
+
+        // When
+        String subject = Jwts.parser()
+                .verifyWith(keyRing.getPublicJwks().get(0).toKey())
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+
+        // Then
+        assertThat(subject).isEqualTo("testuser");
+        assertThat(keyRing.getPublicJwks().get(0)).doesNotContainKey("d");
+    }
+
+    @Test
+    @DisplayName("Deve aceitar token assinado com chave anterior após rotação")
+    void shouldVerifyTokenSignedWithPreviousKey() {
+        // Given
+        KeyPair old = Jwts.SIG.ES256.keyPair().build();
+        String token = jwtService(keyRing(old, List.of())).generateToken(testUser);
+
+        // When
+        JwtService rotated = jwtService(keyRing(Jwts.SIG.ES256.keyPair().build(), List.of(old)));
+
+        // Then
+        assertThat(rotated.parse(token).getSubject()).isEqualTo("testuser");
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar token assinado com chave removida do chaveiro")
+    void shouldRejectTokenSignedWithRetiredKey() {
+        // Given
+        String token = jwtService(keyRing(Jwts.SIG.ES256.keyPair().build(), List.of())).generateToken(testUser);
+
+        // When
+        JwtService rotated = jwtService(keyRing(Jwts.SIG.ES256.keyPair().build(), List.of()));
+
+        // Then
+        assertThatThrownBy(() -> rotated.parse(token))
+                .isInstanceOf(io.jsonwebtoken.JwtException.class);
+    }
+
+    @Test
+    @DisplayName("Deve aceitar token HMAC legado sem kid dentro do prazo")
+    void shouldVerifyLegacyHmacToken() {
+        // Given
+        String token = legacyToken();
+
+        // When
+        JwtKeyRing keyRing = legacyKeyRing(Instant.now().plus(Duration.ofDays(7)).toString());
+
+        // Then
+        assertThat(jwtService(keyRing).parse(token).getSubject()).isEqualTo("testuser");
+    }
+
+    @Test
+    @DisplayName("Deve recusar token HMAC legado após legacy-accept-until")
+    void shouldRejectLegacyHmacTokenAfterDeadline() {
+        // Given
+        String token = legacyToken();
+
+        // When
+        JwtKeyRing keyRing = legacyKeyRing(Instant.now().minus(Duration.ofMinutes(1)).toString());
+
+        // Then
+        assertThatThrownBy(() -> jwtService(keyRing).parse(token))
+                .isInstanceOf(io.jsonwebtoken.JwtException.class);
+    }
+
+    @Test
+    @DisplayName("Deve recusar token HMAC legado quando não há prazo configurado")
+    void shouldRejectLegacyHmacTokenWithoutDeadline() {
+        // Given
+        String token = legacyToken();
+
+        // When
+        JwtKeyRing keyRing = legacyKeyRing("");
+
+        // Then
+        assertThatThrownBy(() -> jwtService(keyRing).parse(token))
+                .isInstanceOf(io.jsonwebtoken.JwtException.class);
+    }
+
+    @Test
+    @DisplayName("Deve falhar na inicialização sem chave de assinatura configurada")
+    void shouldFailWithoutSigningKey() {
+        // When & Then
+        assertThatThrownBy(() -> new JwtKeyRing("", "", List.of(), "", List.of(), "", false))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("allow-ephemeral-key");
+    }
+
+    @Test
+    @DisplayName("Deve gerar par efêmero só quando permitido explicitamente")
+    void shouldGenerateEphemeralKeyWhenAllowed() {
+        // When
+        JwtKeyRing keyRing = new JwtKeyRing("", "", List.of(), "", List.of(), "", true);
+
+        // Then
+        assertThat(jwtService(keyRing).parse(jwtService(keyRing).generateToken(testUser)).getSubject())
+                .isEqualTo("testuser");
+    }
+
+    private JwtKeyRing keyRing(KeyPair current, List<KeyPair> previous) {
+        return new JwtKeyRing(
+                encode(current.getPrivate()),
+                encode(current.getPublic()),
+                previous.stream().map(pair -> encode(pair.getPublic())).toList(),
+                "",
+                List.of(),
+                "",
+                false);
+    }
+
+    private JwtKeyRing legacyKeyRing(String legacyAcceptUntil) {
+        KeyPair pair = Jwts.SIG.ES256.keyPair().build();
+        return new JwtKeyRing(encode(pair.getPrivate()), encode(pair.getPublic()), List.of(),
+                SECRET_KEY, List.of(), legacyAcceptUntil, false);
+    }
+
+    private static String legacyToken() {
+        return Jwts.builder()
+                .subject("testuser")
+                .claim("roles", List.of("ROLE_ADMIN"))
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY)))
+                .compact();
+    }
+
+    private static String encode(Key key) {
+        return Base64.getEncoder().encodeToString(key.getEncoded());
+    }
+
+    private JwtService jwtService(JwtKeyRing keyRing) {
+        JwtService jwtService = new JwtService(keyRing, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 86400000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", 604800000L);
+        return jwtService;
+    }
+}
@@ -232,4 +232,37 @@ class JwtServiceTest {
         // Then
         assertThat(username).isEqualTo("testuser");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve extrair todos os dados do access token com um único parse")
+    void shouldParseAccessToken() {
+        // Given
+        String token = jwtService.generateToken(testUser);
+
+        // When
+        ParsedToken parsed = jwtService.parse(token);
+
+        // Then
+        assertThat(parsed.getSubject()).isEqualTo("testuser");
+        assertThat(parsed.getUserId()).isEqualTo(1L);
+        assertThat(parsed.getRoles()).containsExactly("ROLE_ADMIN");
+        assertThat(parsed.getType()).isEqualTo(ParsedToken.TokenType.ACCESS);
+        assertThat(parsed.getExpiration()).isAfter(parsed.getIssuedAt());
+        assertThat(jwtService.isTokenValid(parsed, testUser)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve identificar refresh token pelo parse")
+    void shouldParseRefreshToken() {
+        // Given
+        String refreshToken = jwtService.generateRefreshToken(testUser);
+
+        // When
+        ParsedToken parsed = jwtService.parse(refreshToken);
+
+        // Then
+        assertThat(parsed.isRefreshToken()).isTrue();
+        assertThat(parsed.getRoles()).isEmpty();
+        assertThat(jwtService.isRefreshTokenValid(parsed, testUser)).isTrue();
+    }
+}
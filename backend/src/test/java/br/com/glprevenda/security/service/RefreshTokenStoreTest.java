@@ -0,0 +1,107 @@
+package br.com.glprevenda.security.service;
+
+import br.com.glprevenda.security.entity.RefreshToken;
+import br.com.glprevenda.security.repository.RefreshTokenRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RefreshTokenStore - Testes Unitários")
+class RefreshTokenStoreTest {
+
+    private static final UUID FAMILY = UUID.randomUUID();
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private RefreshTokenStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new RefreshTokenStore(refreshTokenRepository, 604_800_000L, 1_000, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Deve trocar o token e reconhecer o reuso pelo cache, sem buscar o jti")
+    void shouldRotateAndDetectReuseFromCache() {
+        // Given
+        UUID first = UUID.randomUUID();
+        when(refreshTokenRepository.rotate(eq(first), any(), any(), any()))
+                .thenReturn(Optional.of(rotated(FAMILY, 7L)))
+                .thenReturn(Optional.empty());
+
+        // When
+        RefreshTokenStore.Rotation rotation = store.rotate(first, UUID.randomUUID(), LocalDateTime.now().plusDays(7));
+        RefreshTokenStore.Rotation replay = store.rotate(first, UUID.randomUUID(), LocalDateTime.now().plusDays(7));
+
+        // Then
+        assertThat(rotation).isEqualTo(new RefreshTokenStore.Rotation(RefreshTokenStore.Outcome.ROTATED, 7L, FAMILY));
+        assertThat(replay.outcome()).isEqualTo(RefreshTokenStore.Outcome.REUSED);
+        verify(refreshTokenRepository).revokeFamily(eq(FAMILY), any(LocalDateTime.class));
+        verify(refreshTokenRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Deve revogar a família de token usado encontrado no banco")
+    void shouldRevokeFamilyOfUsedTokenFromDatabase() {
+        // Given
+        UUID jti = UUID.randomUUID();
+        when(refreshTokenRepository.rotate(eq(jti), any(), any(), any())).thenReturn(Optional.empty());
+        when(refreshTokenRepository.findById(jti)).thenReturn(Optional.of(RefreshToken.builder()
+                .jti(jti).familyId(FAMILY).userId(7L)
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .usedAt(LocalDateTime.now().minusMinutes(5))
+                .build()));
+
+        // When
+        RefreshTokenStore.Rotation replay = store.rotate(jti, UUID.randomUUID(), LocalDateTime.now().plusDays(7));
+
+        // Then
+        assertThat(replay.outcome()).isEqualTo(RefreshTokenStore.Outcome.REUSED);
+        verify(refreshTokenRepository).revokeFamily(eq(FAMILY), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Deve recusar token desconhecido sem revogar nada")
+    void shouldRejectUnknownToken() {
+        // Given
+        UUID jti = UUID.randomUUID();
+        when(refreshTokenRepository.rotate(eq(jti), any(), any(), any())).thenReturn(Optional.empty());
+        when(refreshTokenRepository.findById(jti)).thenReturn(Optional.empty());
+
+        // When
+        RefreshTokenStore.Rotation rotation = store.rotate(jti, UUID.randomUUID(), LocalDateTime.now().plusDays(7));
+
+        // Then
+        assertThat(rotation.outcome()).isEqualTo(RefreshTokenStore.Outcome.INVALID);
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any());
+    }
+
+    private RefreshTokenRepository.RotatedToken rotated(UUID familyId, Long userId) {
+        return new RefreshTokenRepository.RotatedToken() {
+            @Override
+            public UUID getFamilyId() {
+                return familyId;
+            }
+
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+        };
+    }
+}
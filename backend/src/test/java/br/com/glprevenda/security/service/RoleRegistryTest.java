@@ -0,0 +1,93 @@
+package br.com.glprevenda.security.service;
+
+import br.com.glprevenda.security.entity.Role;
+import br.com.glprevenda.security.event.RoleChangedEvent;
+import br.com.glprevenda.security.repository.RoleRepository;
+import br.com.glprevenda.shared.exception.ResourceNotFoundException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RoleRegistry - Testes Unitários")
+class RoleRegistryTest {
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    private RoleRegistry roleRegistry;
+
+    @BeforeEach
+    void setUp() {
+        when(roleRepository.findAll()).thenReturn(List.of(
+                Role.builder().id(1L).name("ROLE_ADMIN").build(),
+                Role.builder().id(3L).name("ROLE_VENDEDOR").build()));
+
+        roleRegistry = new RoleRegistry(roleRepository);
+        roleRegistry.reload();
+    }
+
+    @Test
+    @DisplayName("Deve resolver role por nome e por ID sem consultar o banco de novo")
+    void shouldResolveRolesFromMemory() {
+        // When
+        RoleRegistry.Entry vendedor = roleRegistry.require("ROLE_VENDEDOR");
+
+        // Then
+        assertThat(vendedor.id()).isEqualTo(3L);
+        assertThat(roleRegistry.findById(1L)).map(RoleRegistry.Entry::name).hasValue("ROLE_ADMIN");
+        assertThatThrownBy(() -> roleRegistry.require("ROLE_INEXISTENTE"))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verify(roleRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Deve devolver sempre a mesma instância de authority")
+    void shouldShareAuthorityInstances() {
+        // When / Then
+        assertThat(RoleRegistry.authorityOf(3L, "ROLE_VENDEDOR"))
+                .isSameAs(RoleRegistry.authorityOf(null, "ROLE_VENDEDOR"))
+                .isSameAs(roleRegistry.require("ROLE_VENDEDOR").authority());
+        assertThat(RoleRegistry.authorityOf(null, "ROLE_NOVA").getAuthority()).isEqualTo("ROLE_NOVA");
+    }
+
+    @Test
+    @DisplayName("Deve recarregar quando uma role é criada")
+    void shouldReloadOnRoleChanged() {
+        // Given
+        when(roleRepository.findAll()).thenReturn(List.of(
+                Role.builder().id(1L).name("ROLE_ADMIN").build(),
+                Role.builder().id(3L).name("ROLE_VENDEDOR").build(),
+                Role.builder().id(6L).name("ROLE_AUDITOR").build()));
+
+        // When
+        roleRegistry.onRoleChanged(new RoleChangedEvent(6L, "ROLE_AUDITOR"));
+
+        // Then
+        assertThat(roleRegistry.findByName("ROLE_AUDITOR")).map(RoleRegistry.Entry::id).hasValue(6L);
+    }
+
+    @Test
+    @DisplayName("Deve montar bitmask pelos IDs e reaproveitar o Set de authorities")
+    void shouldShareAuthoritySetsByMask() {
+        // Given
+        Set<Role> roles = Set.of(
+                Role.builder().id(1L).name("ROLE_ADMIN").build(),
+                Role.builder().id(3L).name("ROLE_VENDEDOR").build());
+
+        // When / Then
+        assertThat(RoleRegistry.bitOf("ADMIN")).isEqualTo(RoleRegistry.bitOf("ROLE_ADMIN")).isEqualTo(1L << 1);
+        assertThat(RoleRegistry.maskOf(RoleRegistry.authoritiesOf(roles))).isEqualTo((1L << 1) | (1L << 3));
+        assertThat(RoleRegistry.authoritiesOf(roles)).isSameAs(RoleRegistry.authoritiesOf(roles));
+    }
+}
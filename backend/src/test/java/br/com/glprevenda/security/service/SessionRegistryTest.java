@@ -0,0 +1,115 @@
+package br.com.glprevenda.security.service;
+
+import br.com.glprevenda.security.dto.SessionResponse;
+import br.com.glprevenda.security.repository.UserSessionRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SessionRegistry - Testes Unitários")
+class SessionRegistryTest {
+
+    private static final UUID SESSION_A = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final UUID SESSION_B = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+
+    @Mock
+    private UserSessionRepository sessionRepository;
+
+    @Mock
+    private RefreshTokenStore refreshTokenStore;
+
+    @Mock
+    private AccessTokenDenylist tokenDenylist;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SessionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SessionRegistry(sessionRepository, refreshTokenStore, tokenDenylist, jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Deve juntar os acessos da mesma sessão e gravar tudo em um único lote")
+    @SuppressWarnings("unchecked")
+    void shouldCoalesceTouchesIntoOneBatch() {
+        // Given
+        for (int request = 0; request < 100; request++) {
+            registry.touch(SESSION_B.toString());
+            registry.touch(SESSION_A.toString());
+        }
+        registry.touch(null);
+
+        // When
+        registry.flush();
+        registry.flush();
+
+        // Then: um lote, uma linha por sessão, em ordem de ID
+        ArgumentCaptor<Collection<?>> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(
+                anyString(), batch.capture(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        List<String> ids = new ArrayList<>();
+        batch.getValue().forEach(entry -> ids.add(((Map.Entry<String, ?>) entry).getKey()));
+        assertThat(ids).containsExactly(SESSION_A.toString(), SESSION_B.toString());
+    }
+
+    @Test
+    @DisplayName("Deve mostrar o último acesso ainda não gravado na listagem")
+    void shouldOverlayPendingLastSeen() {
+        // Given
+        LocalDateTime stored = LocalDateTime.now().minusHours(2);
+        when(sessionRepository.findActiveByUserId(eq(1L), any(LocalDateTime.class)))
+                .thenReturn(new ArrayList<>(List.of(SessionResponse.builder()
+                        .id(SESSION_A)
+                        .lastSeenAt(stored)
+                        .build())));
+        registry.touch(SESSION_A.toString());
+
+        // When
+        List<SessionResponse> sessions = registry.list(1L);
+
+        // Then
+        assertThat(sessions).singleElement()
+                .satisfies(session -> assertThat(session.getLastSeenAt()).isAfter(stored));
+    }
+
+    @Test
+    @DisplayName("Encerrar sessão deve revogar refresh tokens e access tokens dela")
+    void shouldRevokeSessionTokens() {
+        // Given
+        when(sessionRepository.revoke(eq(SESSION_A), eq(1L), any(LocalDateTime.class))).thenReturn(1);
+        when(sessionRepository.revoke(eq(SESSION_B), eq(1L), any(LocalDateTime.class))).thenReturn(0);
+
+        // When
+        boolean revoked = registry.revoke(1L, SESSION_A);
+        boolean unknown = registry.revoke(1L, SESSION_B);
+
+        // Then
+        assertThat(revoked).isTrue();
+        assertThat(unknown).isFalse();
+        verify(refreshTokenStore).revokeFamily(SESSION_A);
+        verify(tokenDenylist).revokeSession(SESSION_A, 1L);
+        verifyNoMoreInteractions(refreshTokenStore, tokenDenylist);
+    }
+}
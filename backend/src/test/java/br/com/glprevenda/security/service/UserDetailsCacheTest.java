@@ -0,0 +1,156 @@
+package br.com.glprevenda.security.service;
+
+import br.com.glprevenda.security.event.UserChangedEvent;
+import br.com.glprevenda.security.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserDetailsCache - Testes Unitários")
+class UserDetailsCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserDetailsCache cache;
+    private AtomicInteger databaseHits;
+
+    @BeforeEach
+    void setUp() {
+        cache = newCache();
+        databaseHits = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Deve consultar o banco uma vez por identificador")
+    void shouldLoadOncePerIdentifier() {
+        // When
+        cache.get("test@example.com", this::load);
+        cache.get("test@example.com", this::load);
+
+        // Then
+        assertThat(databaseHits).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Deve invalidar username e email quando o usuário muda")
+    void shouldEvictOnUserChanged() {
+        // Given
+        cache.get("testuser", this::load);
+        cache.get("test@example.com", this::load);
+
+        // When
+        cache.onUserChanged(new UserChangedEvent(1L, "testuser", "test@example.com"));
+        cache.get("testuser", this::load);
+        cache.get("test@example.com", this::load);
+
+        // Then
+        assertThat(databaseHits).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("Deve invalidar pelo ID mesmo se o username mudou")
+    void shouldEvictByIdWhenUsernameChanged() {
+        // Given
+        cache.get("testuser", this::load);
+
+        // When
+        cache.onUserChanged(new UserChangedEvent(1L, "renamed", "renamed@example.com"));
+        cache.get("testuser", this::load);
+
+        // Then
+        assertThat(databaseHits).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Deve invalidar pelo ID só as entradas do usuário alterado")
+    void shouldEvictOnlyChangedUser() {
+        // Given
+        cache.get("testuser", this::load);
+        cache.get("other", id -> {
+            databaseHits.incrementAndGet();
+            return Optional.of(new UserSnapshot(
+                    2L, "other", "other@example.com", "encodedPassword", "Other User", true, 0, null,
+                    List.of(new UserSnapshot.RoleRef(3L, "ROLE_VENDEDOR")), null, null));
+        });
+
+        // When
+        cache.onUserChanged(new UserChangedEvent(1L, "renamed", "renamed@example.com"));
+        cache.get("testuser", this::load);
+        cache.get("other", this::load);
+
+        // Then: testuser recarregado, other continua no cache
+        assertThat(databaseHits).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("Não deve guardar usuário inexistente")
+    void shouldNotCacheMissingUser() {
+        // When
+        Optional<UserSnapshot> first = cache.get("ghost", id -> {
+            databaseHits.incrementAndGet();
+            return Optional.empty();
+        });
+        cache.get("ghost", id -> {
+            databaseHits.incrementAndGet();
+            return Optional.empty();
+        });
+
+        // Then
+        assertThat(first).isEmpty();
+        assertThat(databaseHits).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Deve tirar do cache o usuário desativado em outro nó")
+    void shouldEvictUserChangedOnAnotherNode() {
+        // Given: nós A e B com o usuário ativo em cache
+        UserDetailsCache otherNode = newCache();
+        AtomicBoolean active = new AtomicBoolean(true);
+        Function<String, Optional<UserSnapshot>> database = id -> Optional.of(new UserSnapshot(
+                1L, "testuser", "test@example.com", "encodedPassword", "Test User", active.get(), 0, null,
+                List.of(new UserSnapshot.RoleRef(3L, "ROLE_VENDEDOR")), null, null));
+        cache.get("testuser", database);
+        otherNode.get("testuser", database);
+
+        // When: A desativa (evento só em A); B lê users.updated_at
+        active.set(false);
+        cache.onUserChanged(new UserChangedEvent(1L, "testuser", "test@example.com"));
+        when(userRepository.findIdsUpdatedAfter(any())).thenReturn(List.of(1L));
+        otherNode.pollChanges();
+
+        // Then
+        assertThat(otherNode.get("testuser", database)).get()
+                .extracting(UserSnapshot::isActive).isEqualTo(false);
+        verify(userRepository).findIdsUpdatedAfter(any());
+    }
+
+    private UserDetailsCache newCache() {
+        return new UserDetailsCache(
+                userRepository, true, Duration.ofMinutes(1), 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    }
+
+    private Optional<UserSnapshot> load(String usernameOrEmail) {
+        databaseHits.incrementAndGet();
+        return Optional.of(new UserSnapshot(
+                1L, "testuser", "test@example.com", "encodedPassword", "Test User", true, 0, null,
+                List.of(new UserSnapshot.RoleRef(3L, "ROLE_VENDEDOR")), null, null));
+    }
+}
@@ -0,0 +1,129 @@
+package br.com.glprevenda.security.service;
+
+import br.com.glprevenda.security.dto.UserResponse;
+import br.com.glprevenda.security.repository.UserRepository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserExportService - Testes Unitários")
+class UserExportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserExportService userExportService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        userExportService = new UserExportService(userRepository, transactionManager, objectMapper);
+    }
+
+    @Test
+    @DisplayName("Deve exportar CSV com cabeçalho e campos escapados")
+    void shouldExportCsvWithEscapedFields() throws Exception {
+        // Given
+        Stream<UserResponse> users = Stream.of(
+                user(1L, "ana", "Silva, Ana", "ROLE_ADMIN", "ROLE_VENDEDOR"),
+                user(2L, "bruno", "Bruno \"Bê\""));
+        when(userRepository.streamAll()).thenReturn(users);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        userExportService.export(UserExportService.Format.CSV).writeTo(out);
+
+        // Then
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).containsExactly(
+                "id,username,email,fullName,active,roles,createdAt,updatedAt",
+                "1,ana,ana@example.com,\"Silva, Ana\",true,ROLE_ADMIN;ROLE_VENDEDOR,2024-01-01T10:00,2024-01-01T10:00",
+                "2,bruno,bruno@example.com,\"Bruno \"\"Bê\"\"\",true,,2024-01-01T10:00,2024-01-01T10:00");
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Deve neutralizar fórmulas de planilha no CSV")
+    void shouldNeutralizeSpreadsheetFormulas() throws Exception {
+        // Given: campos do cadastro público começando com =, +, - e @
+        Stream<UserResponse> users = Stream.of(
+                user(1L, "@evil", "=HYPERLINK(\"http://x\",\"Clique\")"),
+                user(2L, "-2+3", "+SUM(A1:A2)"));
+        when(userRepository.streamAll()).thenReturn(users);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        userExportService.export(UserExportService.Format.CSV).writeTo(out);
+
+        // Then
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).containsExactly(
+                "id,username,email,fullName,active,roles,createdAt,updatedAt",
+                "1,\"'@evil\",\"'@evil@example.com\",\"'=HYPERLINK(\"\"http://x\"\",\"\"Clique\"\")\",true,,2024-01-01T10:00,2024-01-01T10:00",
+                "2,\"'-2+3\",\"'-2+3@example.com\",\"'+SUM(A1:A2)\",true,,2024-01-01T10:00,2024-01-01T10:00");
+    }
+
+    @Test
+    @DisplayName("Deve exportar um JSON por linha em NDJSON")
+    void shouldExportOneJsonPerLine() throws Exception {
+        // Given
+        when(userRepository.streamAll()).thenReturn(Stream.of(
+                user(1L, "ana", "Ana", "ROLE_ADMIN"),
+                user(2L, "bruno", "Bruno")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        userExportService.export(UserExportService.Format.NDJSON).writeTo(out);
+
+        // Then
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).startsWith("{\"id\":1,\"username\":\"ana\"").contains("\"roles\":[\"ROLE_ADMIN\"]");
+        assertThat(lines.get(1)).startsWith("{\"id\":2,\"username\":\"bruno\"");
+    }
+
+    @Test
+    @DisplayName("Deve reconhecer formato sem diferenciar maiúsculas")
+    void shouldParseFormatIgnoringCase() {
+        assertThat(UserExportService.Format.from("csv")).contains(UserExportService.Format.CSV);
+        assertThat(UserExportService.Format.from("NDJSON")).contains(UserExportService.Format.NDJSON);
+        assertThat(UserExportService.Format.from("xml")).isEmpty();
+    }
+
+    private UserResponse user(Long id, String username, String fullName, String... roles) {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 1, 1, 10, 0);
+        return UserResponse.builder()
+                .id(id)
+                .username(username)
+                .email(username + "@example.com")
+                .fullName(fullName)
+                .active(true)
+                .roles(new LinkedHashSet<>(List.of(roles)))
+                .createdAt(timestamp)
+                .updatedAt(timestamp)
+                .build();
+    }
+}
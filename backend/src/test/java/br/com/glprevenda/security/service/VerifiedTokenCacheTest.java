@@ -0,0 +1,89 @@
+package br.com.glprevenda.security.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("VerifiedTokenCache - Testes Unitários")
+class VerifiedTokenCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Deve verificar o token uma única vez para envios repetidos")
+    void shouldVerifyRepeatedTokenOnce() {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, meterRegistry);
+        AtomicInteger verifications = new AtomicInteger();
+        Function<String, ParsedToken> verifier = token -> {
+            verifications.incrementAndGet();
+            return tokenExpiringIn(3600);
+        };
+
+        // When
+        ParsedToken first = cache.getOrVerify("header.payload.signature", verifier);
+        ParsedToken second = cache.getOrVerify("header.payload.signature", verifier);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(verifications).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Não deve guardar token que falhou na verificação")
+    void shouldNotCacheInvalidToken() {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, meterRegistry);
+        AtomicInteger verifications = new AtomicInteger();
+        Function<String, ParsedToken> verifier = token -> {
+            verifications.incrementAndGet();
+            throw new io.jsonwebtoken.MalformedJwtException("token inválido");
+        };
+
+        // When & Then
+        assertThatThrownBy(() -> cache.getOrVerify("invalid.token.here", verifier))
+                .isInstanceOf(io.jsonwebtoken.JwtException.class);
+        assertThatThrownBy(() -> cache.getOrVerify("invalid.token.here", verifier))
+                .isInstanceOf(io.jsonwebtoken.JwtException.class);
+        assertThat(verifications).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Deve sempre verificar quando o cache está desabilitado")
+    void shouldBypassWhenDisabled() {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(false, 100, meterRegistry);
+        AtomicInteger verifications = new AtomicInteger();
+
+        // When
+        cache.getOrVerify("a.b.c", token -> {
+            verifications.incrementAndGet();
+            return tokenExpiringIn(3600);
+        });
+        cache.getOrVerify("a.b.c", token -> {
+            verifications.incrementAndGet();
+            return tokenExpiringIn(3600);
+        });
+
+        // Then
+        assertThat(verifications).hasValue(2);
+    }
+
+    private ParsedToken tokenExpiringIn(long seconds) {
+        return ParsedToken.builder()
+                .subject("testuser")
+                .issuedAt(Instant.now())
+                .expiration(Instant.now().plusSeconds(seconds))
+                .type(ParsedToken.TokenType.ACCESS)
+                .build();
+    }
+}
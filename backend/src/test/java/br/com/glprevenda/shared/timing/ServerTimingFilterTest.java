@@ -0,0 +1,132 @@
+package br.com.glprevenda.shared.timing;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.FilterChain;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ServerTimingFilter - Testes Unitários")
+class ServerTimingFilterTest {
+
+    /**
+     * Simula a requisição: auth no filtro JWT, 2 chamadas de repository,
+     * controller e serialização
+     */
+    private static FilterChain chain(String username) {
+        return (request, response) -> {
+            long start = ServerTiming.start();
+            ServerTiming.stop(ServerTiming.Metric.AUTH, start);
+
+            ServerTiming timing = ServerTiming.current();
+            if (timing != null) {
+                timing.authenticated(username);
+                timing.handlerStarted();
+                timing.add(ServerTiming.Metric.DB, 1_500_000);
+                timing.add(ServerTiming.Metric.DB, 500_000);
+                timing.serializationStarted();
+            }
+            response.getWriter().write("{}");
+        };
+    }
+
+    private static MockHttpServletResponse filter(ServerTimingSettings settings, MockHttpServletRequest request,
+                                                  String username) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new ServerTimingFilter(settings).doFilter(request, response, chain(username));
+        return response;
+    }
+
+    @Test
+    @DisplayName("Deve publicar o detalhamento nas requisições amostradas")
+    void shouldPublishHeaderWhenSampled() throws Exception {
+        // Given
+        ServerTimingSettings settings = new ServerTimingSettings(1.0, List.of());
+
+        // When
+        MockHttpServletResponse response = filter(settings, new MockHttpServletRequest(), "motorista01");
+
+        // Then
+        assertThat(response.getHeader("Server-Timing"))
+                .startsWith("auth;dur=")
+                .contains("db;dur=2.00;desc=\"2 chamadas\"", "app;dur=", "json;dur=")
+                .containsPattern("total;dur=\\d+\\.\\d{2}$");
+        assertThat(response.getContentAsString()).isEqualTo("{}");
+        assertThat(ServerTiming.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("Não deve medir nada com a amostragem desligada")
+    void shouldNotTimeWhenDisabled() throws Exception {
+        // Given
+        ServerTimingSettings settings = new ServerTimingSettings(0, List.of(""));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(ServerTimingFilter.REQUEST_HEADER, "1");
+
+        // When
+        MockHttpServletResponse response = filter(settings, request, "motorista01");
+
+        // Then
+        assertThat(response.getHeader("Server-Timing")).isNull();
+        assertThat(ServerTiming.start()).isEqualTo(ServerTiming.NOT_TIMED);
+    }
+
+    @Test
+    @DisplayName("Deve publicar só para o usuário marcado que pediu o detalhamento")
+    void shouldPublishOnlyForFlaggedUser() throws Exception {
+        // Given
+        ServerTimingSettings settings = new ServerTimingSettings(0, List.of());
+        settings.update(0, Set.of("motorista07"));
+
+        MockHttpServletRequest flagged = new MockHttpServletRequest();
+        flagged.addHeader(ServerTimingFilter.REQUEST_HEADER, "1");
+        MockHttpServletRequest other = new MockHttpServletRequest();
+        other.addHeader(ServerTimingFilter.REQUEST_HEADER, "1");
+
+        // When
+        MockHttpServletResponse flaggedResponse = filter(settings, flagged, "motorista07");
+        MockHttpServletResponse otherResponse = filter(settings, other, "motorista01");
+        MockHttpServletResponse withoutHeader = filter(settings, new MockHttpServletRequest(), "motorista07");
+
+        // Then
+        assertThat(flaggedResponse.getHeader("Server-Timing")).contains("total;dur=");
+        assertThat(otherResponse.getHeader("Server-Timing")).isNull();
+        assertThat(withoutHeader.getHeader("Server-Timing")).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve publicar antes do commit quando o corpo é enviado pelo controller")
+    void shouldPublishBeforeCommit() throws Exception {
+        // Given
+        ServerTimingSettings settings = new ServerTimingSettings(1.0, List.of());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When: flush (ex: exportação em streaming) compromete a resposta dentro do controller
+        new ServerTimingFilter(settings).doFilter(new MockHttpServletRequest(), response, (req, res) -> {
+            res.getWriter().write("{}");
+            res.flushBuffer();
+        });
+
+        // Then
+        assertThat(response.isCommitted()).isTrue();
+        assertThat(response.getHeader("Server-Timing")).startsWith("total;dur=");
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar amostragem fora de 0 a 1")
+    void shouldRejectInvalidSampleRate() {
+        // Given
+        ServerTimingSettings settings = new ServerTimingSettings(0, List.of());
+
+        // When / Then
+        assertThatThrownBy(() -> settings.update(1.5, Set.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(settings.getSampleRate()).isZero();
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.glprevenda.shared.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("BloomFilter - Testes Unitários")
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("Nunca deve dar falso negativo para valores adicionados")
+    void shouldNeverReturnFalseNegatives() {
+        // Given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+
+        // When
+        IntStream.range(0, 10_000).forEach(i -> filter.put("user" + i + "@example.com"));
+
+        // Then
+        assertThat(IntStream.range(0, 10_000))
+                .allMatch(i -> filter.mightContain("user" + i + "@example.com"));
+    }
+
+    @Test
+    @DisplayName("Deve manter falso positivo perto da taxa configurada")
+    void shouldKeepFalsePositiveRateNearTarget() {
+        // Given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("user" + i));
+
+        // When
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain("outro" + i))
+                .count();
+
+        // Then (1% de 100 mil ≈ 1000; margem para variação do hash)
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+}
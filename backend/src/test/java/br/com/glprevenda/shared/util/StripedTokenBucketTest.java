@@ -0,0 +1,44 @@
+package br.com.glprevenda.shared.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("StripedTokenBucket - Testes Unitários")
+class StripedTokenBucketTest {
+
+    @Test
+    @DisplayName("Deve liberar a rajada e recusar com tempo de espera depois")
+    void shouldAllowBurstThenReject() {
+        // Given: 3 tokens, 1 token por segundo
+        StripedTokenBucket buckets = new StripedTokenBucket(16, 3, 1.0 / 1000);
+        long now = System.currentTimeMillis();
+
+        // When / Then
+        assertThat(buckets.tryAcquire("10.0.0.1", now)).isZero();
+        assertThat(buckets.tryAcquire("10.0.0.1", now)).isZero();
+        assertThat(buckets.tryAcquire("10.0.0.1", now)).isZero();
+        assertThat(buckets.tryAcquire("10.0.0.1", now)).isEqualTo(1000);
+    }
+
+    @Test
+    @DisplayName("Deve devolver tokens com o passar do tempo")
+    void shouldRefillOverTime() {
+        // Given
+        StripedTokenBucket buckets = new StripedTokenBucket(16, 1, 1.0 / 1000);
+        long now = System.currentTimeMillis();
+        buckets.tryAcquire("testuser", now);
+
+        // When / Then
+        assertThat(buckets.tryAcquire("testuser", now + 400)).isEqualTo(600);
+        assertThat(buckets.tryAcquire("testuser", now + 1000)).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar capacidade inválida")
+    void shouldRejectInvalidCapacity() {
+        assertThatThrownBy(() -> new StripedTokenBucket(16, 0, 1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,88 @@
+-- ════════════════════════════════════════════════════════════════
+-- Benchmark: busca de usuários com 1 milhão de linhas
+--
+--   A) LOWER(...) LIKE LOWER('%x%')  → busca antiga (seq scan)
+--   B) ILIKE '%x%' + similarity()    → UserRepository.searchRanked (GIN pg_trgm, V4)
+--
+-- Roda em um schema descartável (bench_user_search), sem tocar em public.users:
+--
+--   docker compose up -d postgres
+--   docker compose exec -T postgres psql -U glp_user -d glp_erp_dev \
+--       -v ON_ERROR_STOP=1 < benchmarks/sql/user_search_trgm.sql
+--
+-- Comparar "Execution Time" dos EXPLAIN ANALYZE de cada bloco.
+-- pg_trgm precisa estar disponível (CREATE EXTENSION requer permissão).
+-- ════════════════════════════════════════════════════════════════
+
+\timing on
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+DROP SCHEMA IF EXISTS bench_user_search CASCADE;
+CREATE SCHEMA bench_user_search;
+SET search_path TO bench_user_search, public;
+
+-- Mesma estrutura e índices B-tree de V1__create_users_table.sql
+CREATE TABLE users (
+    id BIGSERIAL PRIMARY KEY,
+    username VARCHAR(50) NOT NULL UNIQUE,
+    email VARCHAR(100) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    full_name VARCHAR(100) NOT NULL,
+    active BOOLEAN DEFAULT TRUE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX idx_users_username ON users(username);
+CREATE INDEX idx_users_email ON users(email);
+CREATE INDEX idx_users_active ON users(active);
+
+-- 1.000.000 usuários com nomes combinados de listas comuns
+INSERT INTO users (username, email, password, full_name)
+SELECT 'user' || g,
+       'user' || g || '@' || (ARRAY['gmail.com', 'hotmail.com', 'glprevenda.com.br', 'outlook.com'])[1 + g % 4],
+       '{bcrypt}$2a$10$abcdefghijklmnopqrstuuN8w2b3h7Qk3y7y0J8p1rC3F0mLq1d9e',
+       (ARRAY['João', 'Maria', 'José', 'Ana', 'Francisco', 'Antônia', 'Carlos', 'Paulo',
+              'Pedro', 'Lucas', 'Luiz', 'Marcos', 'Gabriel', 'Rafael', 'Juliana', 'Fernanda'])[1 + g % 16]
+       || ' ' ||
+       (ARRAY['Silva', 'Santos', 'Oliveira', 'Souza', 'Rodrigues', 'Ferreira', 'Alves', 'Pereira',
+              'Lima', 'Gomes', 'Costa', 'Ribeiro', 'Martins', 'Carvalho', 'Almeida', 'Lopes',
+              'Soares', 'Fernandes', 'Vieira', 'Barbosa'])[1 + (g / 16) % 20]
+       || ' ' || g
+FROM generate_series(1, 1000000) AS g;
+
+ANALYZE users;
+
+-- ── A) Busca antiga: LOWER LIKE, apenas índices B-tree ─────────
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT u.* FROM users u
+WHERE LOWER(u.full_name) LIKE LOWER(CONCAT('%', 'barbosa 4217', '%'))
+   OR LOWER(u.email) LIKE LOWER(CONCAT('%', 'barbosa 4217', '%'));
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT u.* FROM users u
+WHERE LOWER(u.full_name) LIKE LOWER(CONCAT('%', 'user98765@', '%'))
+   OR LOWER(u.email) LIKE LOWER(CONCAT('%', 'user98765@', '%'));
+
+-- ── B) Busca nova: índices GIN de trigramas (V4) ──────────────
+CREATE INDEX idx_users_full_name_trgm ON users USING gin (full_name gin_trgm_ops);
+CREATE INDEX idx_users_email_trgm ON users USING gin (email gin_trgm_ops);
+ANALYZE users;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT u.id FROM users u
+WHERE u.full_name ILIKE '%barbosa 4217%' ESCAPE '!'
+   OR u.email ILIKE '%barbosa 4217%' ESCAPE '!'
+ORDER BY GREATEST(similarity(u.full_name, 'barbosa 4217'), similarity(u.email, 'barbosa 4217')) DESC, u.id
+LIMIT 20;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT u.id FROM users u
+WHERE u.full_name ILIKE '%user98765@%' ESCAPE '!'
+   OR u.email ILIKE '%user98765@%' ESCAPE '!'
+ORDER BY GREATEST(similarity(u.full_name, 'user98765@'), similarity(u.email, 'user98765@')) DESC, u.id
+LIMIT 20;
+
+-- Limpeza
+RESET search_path;
+DROP SCHEMA bench_user_search CASCADE;
@@ -0,0 +1,119 @@
+package br.com.glprevenda.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compara dois resultados JSON do JMH (ex: main x branch) benchmark a benchmark.
+ *
+ * Regressão = piorou mais que o limite (padrão 10%) E os intervalos
+ * de erro (score ± scoreError) não se sobrepõem. Em modo thrpt maior
+ * é melhor; nos demais (avgt, sample, ss) menor é melhor.
+ *
+ * Executar:
+ * java -cp target/benchmarks.jar br.com.glprevenda.benchmark.BenchmarkComparison base.json novo.json [limite%]
+ *
+ * Sai com código 1 se houver regressão (para uso em CI).
+ *
+ * @author Ozeias
+ */
+public final class BenchmarkComparison {
+
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10.0;
+
+    /**
+     * Resultado de um benchmark (com seus @Param)
+     */
+    record Result(String mode, double score, double error, String unit) {
+
+        boolean higherIsBetter() {
+            return mode.equals("thrpt");
+        }
+    }
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: BenchmarkComparison <base.json> <novo.json> [limite%]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+
+        Map<String, Result> base = read(new File(args[0]));
+        Map<String, Result> current = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Base", "Novo", "Δ%");
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result before = base.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s  (novo)%n", entry.getKey(), "-", now.score(), "-");
+                continue;
+            }
+
+            double change = (now.score() - before.score()) / before.score() * 100.0;
+            double worse = now.higherIsBetter() ? -change : change;
+            boolean regression = worse > threshold && !overlaps(before, now);
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%  %s%s%n",
+                    entry.getKey(), before.score(), now.score(), change, now.unit(),
+                    regression ? "  REGRESSÃO" : "");
+        }
+
+        System.out.printf("%n%d regressão(ões) acima de %.1f%%%n", regressions, threshold);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Nome do benchmark + parâmetros → resultado
+     */
+    static Map<String, Result> read(File file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            JsonNode metric = run.get("primaryMetric");
+            results.put(key(run), new Result(
+                    run.get("mode").asText(),
+                    metric.get("score").asDouble(),
+                    metric.path("scoreError").asDouble(0.0),
+                    metric.get("scoreUnit").asText()));
+        }
+        return results;
+    }
+
+    private static String key(JsonNode run) {
+        String name = run.get("benchmark").asText().replaceFirst("^br\\.com\\.glprevenda\\.benchmark\\.", "");
+        JsonNode params = run.get("params");
+        if (params == null || params.isEmpty()) {
+            return name;
+        }
+
+        Map<String, String> sorted = new TreeMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            sorted.put(field.getKey(), field.getValue().asText());
+        }
+        return name + sorted;
+    }
+
+    private static boolean overlaps(Result a, Result b) {
+        double error = Double.isNaN(a.error()) ? 0 : a.error();
+        double otherError = Double.isNaN(b.error()) ? 0 : b.error();
+        return a.score() - error <= b.score() + otherError
+                && b.score() - otherError <= a.score() + error;
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.glprevenda.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ponto de entrada do benchmarks.jar: o mesmo org.openjdk.jmh.Main,
+ * mas gravando os resultados em JSON (jmh-result.json) por padrão.
+ *
+ * O JSON é comparado entre commits com BenchmarkComparison.
+ * "-rf"/"-rff" na linha de comando continuam valendo.
+ *
+ * Executar:
+ * java -jar target/benchmarks.jar                       → todos, jmh-result.json
+ * java -jar target/benchmarks.jar JwtService -rff a.json → filtro e arquivo próprios
+ *
+ * @author Ozeias
+ */
+public final class BenchmarkMain {
+
+    static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(withJsonResult(args));
+    }
+
+    /**
+     * Acrescenta "-rf json -rff jmh-result.json" se não informados
+     */
+    static String[] withJsonResult(String[] args) {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-rf")) {
+            options.add("-rf");
+            options.add("json");
+        }
+        if (!options.contains("-rff")) {
+            options.add("-rff");
+            options.add(DEFAULT_RESULT_FILE);
+        }
+        return options.toArray(String[]::new);
+    }
+}
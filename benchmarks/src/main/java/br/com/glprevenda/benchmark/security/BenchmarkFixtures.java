@@ -0,0 +1,133 @@
+package br.com.glprevenda.benchmark.security;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.glprevenda.security.entity.Role;
+import br.com.glprevenda.security.entity.User;
+import br.com.glprevenda.security.repository.RoleRepository;
+import br.com.glprevenda.security.service.AccessTokenDenylist;
+import br.com.glprevenda.security.service.AuthService;
+import br.com.glprevenda.security.service.JwtKeyRing;
+import br.com.glprevenda.security.service.JwtService;
+import br.com.glprevenda.security.service.RoleRegistry;
+import br.com.glprevenda.security.service.SessionRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Objetos compartilhados pelos benchmarks de segurança, montados sem
+ * contexto Spring (mesma configuração do application-dev.yml).
+ *
+ * @author Ozeias
+ */
+final class BenchmarkFixtures {
+
+    static final String SECRET_KEY =
+            "Z2xwLWVycC1zaXN0ZW1hLXJldmVuZGEtZ2xwLXNlY3JldC1rZXktMjAyNC1zdXBlci1zZWd1cmEtbWluaW1vLTUxMi1iaXRzLWJhc2U2NC1lbmNvZGVkLWtleQ==";
+
+    static final String SIGNING_PRIVATE_KEY =
+            "MIGHAgEAMBMGByqGSM49AgEGCCqGSM49AwEHBG0wawIBAQQgXtsvKsLiK7D61h6epLlJ5mVp9s1SWRNosfMWeUeQV6WhRANCAAQHGVeLKOSrDNkXXobasN7EYSIgJ/pX8NCUAEeL/I8vs+0yX0b6w8cC5Y3d+RLG5zFfCELNWpA1A2j/IkZ5dGF8";
+    static final String SIGNING_PUBLIC_KEY =
+            "MFkwEwYHKoZIzj0CAQYIKoZIzj0DAQcDQgAEBxlXiyjkqwzZF16G2rDexGEiICf6V/DQlABHi/yPL7PtMl9G+sPHAuWN3fkSxucxXwhCzVqQNQNo/yJGeXRhfA==";
+
+    private BenchmarkFixtures() {
+    }
+
+    static JwtService jwtService() {
+        JwtService jwtService = new JwtService(new JwtKeyRing(
+                SIGNING_PRIVATE_KEY, SIGNING_PUBLIC_KEY, List.of(), SECRET_KEY, List.of(), "", false),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET_KEY);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", 604_800_000L);
+        return jwtService;
+    }
+
+    /**
+     * Lista de revogados vazia, sem banco (o repository só é usado
+     * quando o filtro acusa um jti, o que não acontece aqui)
+     */
+    static AccessTokenDenylist tokenDenylist() {
+        return new AccessTokenDenylist(
+                null, new SimpleMeterRegistry(), 86_400_000L, Duration.ofHours(1), 10_000, 0.001, Duration.ofMinutes(1));
+    }
+
+    /**
+     * Registro de sessões sem banco: touch() só acumula em memória
+     * (o flush agendado não roda fora do Spring)
+     */
+    static SessionRegistry sessionRegistry() {
+        return new SessionRegistry(null, null, null, null);
+    }
+
+    /**
+     * Roles do seed da V2 (mesmos IDs do banco)
+     */
+    static final List<Role> ROLES = List.of(
+            Role.builder().id(1L).name("ROLE_ADMIN").build(),
+            Role.builder().id(2L).name("ROLE_GERENTE").build(),
+            Role.builder().id(3L).name("ROLE_VENDEDOR").build(),
+            Role.builder().id(4L).name("ROLE_FINANCEIRO").build(),
+            Role.builder().id(5L).name("ROLE_ESTOQUE").build());
+
+    /**
+     * Carrega o RoleRegistry (snapshot estático) com as roles do seed,
+     * como o @PostConstruct faz na aplicação. Sem isso User.getAuthorities
+     * cai no caminho de roles desconhecidas.
+     */
+    static void loadRoles() {
+        RoleRepository roleRepository = (RoleRepository) Proxy.newProxyInstance(
+                RoleRepository.class.getClassLoader(),
+                new Class<?>[] {RoleRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findAll") && method.getParameterCount() == 0) {
+                        return ROLES;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        new RoleRegistry(roleRepository).reload();
+    }
+
+    /**
+     * AuthService só para os mapeamentos (toUserResponse não usa as dependências)
+     */
+    static AuthService authService() {
+        return new AuthService(null, null, jwtService(), null, null, null, null, null, null, null, null, null, null);
+    }
+
+    static User driver() {
+        return User.builder()
+                .id(1L)
+                .username("motorista01")
+                .email("motorista01@glprevenda.com.br")
+                .password("$2a$12$hash")
+                .fullName("Motorista 01")
+                .active(true)
+                .roles(Set.of(ROLES.get(2)))
+                .createdAt(LocalDateTime.of(2024, 3, 1, 8, 0))
+                .updatedAt(LocalDateTime.of(2024, 6, 15, 17, 30))
+                .build();
+    }
+
+    /**
+     * Gerente com várias roles (Set de authorities maior)
+     */
+    static User manager() {
+        return User.builder()
+                .id(2L)
+                .username("gerente01")
+                .email("gerente01@glprevenda.com.br")
+                .password("$2a$12$hash")
+                .fullName("Gerente 01")
+                .active(true)
+                .roles(Set.of(ROLES.get(1), ROLES.get(2), ROLES.get(3), ROLES.get(4)))
+                .createdAt(LocalDateTime.of(2024, 1, 10, 9, 0))
+                .updatedAt(LocalDateTime.of(2024, 6, 15, 17, 30))
+                .build();
+    }
+}
@@ -0,0 +1,110 @@
+package br.com.glprevenda.benchmark.security;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.glprevenda.security.config.JwtAuthenticationFilter;
+import br.com.glprevenda.security.entity.User;
+import br.com.glprevenda.security.service.JwtService;
+import br.com.glprevenda.security.service.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Requisições por segundo no JwtAuthenticationFilter: caminho atual
+ * (carrega usuário do banco a cada requisição) x modo stateless
+ * (principal montado das claims do token), com e sem o cache de tokens
+ * verificados.
+ *
+ * O banco é simulado por um UserDetailsService que espera dbLatencyMicros
+ * antes de responder (0 = só CPU; 500 = round trip típico na mesma rede).
+ *
+ * Executar:
+ * java -jar target/benchmarks.jar JwtAuthenticationFilterBenchmark
+ *
+ * @author Ozeias
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"false", "true"})
+    public boolean stateless;
+
+    @Param({"0", "500"})
+    public long dbLatencyMicros;
+
+    @Param({"false", "true"})
+    public boolean tokenCache;
+
+    private JwtAuthenticationFilter filter;
+    private String authorizationHeader;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JwtService jwtService = BenchmarkFixtures.jwtService();
+
+        User user = BenchmarkFixtures.driver();
+
+        long latencyNanos = TimeUnit.MICROSECONDS.toNanos(dbLatencyMicros);
+        UserDetailsService database = username -> {
+            if (latencyNanos > 0) {
+                LockSupport.parkNanos(latencyNanos);
+            }
+            return user;
+        };
+
+        VerifiedTokenCache verifiedTokenCache =
+                new VerifiedTokenCache(tokenCache, 10_000, new SimpleMeterRegistry());
+
+        filter = new JwtAuthenticationFilter(
+                jwtService, verifiedTokenCache, database,
+                BenchmarkFixtures.tokenDenylist(), BenchmarkFixtures.sessionRegistry());
+        ReflectionTestUtils.setField(filter, "statelessEnabled", stateless);
+        ReflectionTestUtils.setField(filter, "maxStaleness", 300_000L);
+
+        authorizationHeader = "Bearer " + jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public void authenticateRequest(Blackhole blackhole) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.addHeader("Authorization", authorizationHeader);
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+}
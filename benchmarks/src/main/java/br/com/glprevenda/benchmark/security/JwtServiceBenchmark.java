@@ -0,0 +1,111 @@
+package br.com.glprevenda.benchmark.security;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.glprevenda.security.entity.User;
+import br.com.glprevenda.security.service.JwtService;
+import br.com.glprevenda.security.service.ParsedToken;
+import io.jsonwebtoken.Claims;
+
+/**
+ * Custo da validação de token: antes (uma verificação de assinatura por claim)
+ * x depois (JwtService.parse verifica uma vez só). Também mede a emissão
+ * (generateToken) e a leitura simples do username.
+ *
+ * Executar:
+ * java -jar target/benchmarks.jar JwtServiceBenchmark
+ *
+ * @author Ozeias
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private User user;
+    private String accessToken;
+    private String refreshToken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtService = BenchmarkFixtures.jwtService();
+
+        user = BenchmarkFixtures.driver();
+
+        accessToken = jwtService.generateToken(user);
+        refreshToken = jwtService.generateRefreshToken(user);
+    }
+
+    /**
+     * Emissão do access token (assinatura ES256 + serialização das claims)
+     */
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    /**
+     * Leitura do subject (um parse completo com verificação de assinatura)
+     */
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(accessToken);
+    }
+
+    /**
+     * Antes: isTokenValid = extractUsername + extractExpiration (2 parses)
+     */
+    @Benchmark
+    public boolean accessTokenTwoParses() {
+        String username = jwtService.extractUsername(accessToken);
+        Date expiration = jwtService.extractClaim(accessToken, Claims::getExpiration);
+        return username.equals(user.getUsername()) && expiration.after(new Date());
+    }
+
+    /**
+     * Depois: um parse, validação sobre o ParsedToken
+     */
+    @Benchmark
+    public boolean accessTokenSingleParse() {
+        return jwtService.isTokenValid(jwtService.parse(accessToken), user);
+    }
+
+    /**
+     * Antes: AuthService.refreshToken extraía o username e depois
+     * isRefreshTokenValid reparseava 3 vezes (4 parses no total)
+     */
+    @Benchmark
+    public boolean refreshTokenFourParses() {
+        String username = jwtService.extractUsername(refreshToken);
+        boolean usernameValid = jwtService.extractUsername(refreshToken).equals(username);
+        boolean notExpired = jwtService.extractClaim(refreshToken, Claims::getExpiration).after(new Date());
+        boolean isRefresh = !jwtService.extractClaim(refreshToken, claims -> claims.containsKey("roles"));
+        return usernameValid && notExpired && isRefresh;
+    }
+
+    /**
+     * Depois: um parse para todo o fluxo de refresh
+     */
+    @Benchmark
+    public boolean refreshTokenSingleParse() {
+        ParsedToken token = jwtService.parse(refreshToken);
+        return jwtService.isRefreshTokenValid(token, user);
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.glprevenda.benchmark.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import br.com.glprevenda.security.dto.AuthResponse;
+import br.com.glprevenda.security.dto.UserResponse;
+import br.com.glprevenda.security.entity.User;
+import br.com.glprevenda.security.service.AuthService;
+import br.com.glprevenda.security.service.JwtService;
+import br.com.glprevenda.shared.dto.ApiResponse;
+
+/**
+ * Serialização JSON das respostas de autenticação, com o ObjectMapper
+ * montado como o do Spring Boot (Jackson2ObjectMapperBuilder: datas
+ * ISO-8601, JavaTimeModule).
+ *
+ * - authResponse: corpo do login/refresh (2 tokens + dados do usuário)
+ * - apiResponseUser: corpo do /api/users/me
+ * - *Writer: ObjectWriter pré-resolvido para o tipo (o que o
+ *   MappingJackson2HttpMessageConverter faz por baixo)
+ *
+ * Executar:
+ * java -jar target/benchmarks.jar ResponseSerializationBenchmark -prof gc
+ *
+ * @author Ozeias
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter authResponseWriter;
+    private AuthResponse authResponse;
+    private ApiResponse<UserResponse> userResponse;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkFixtures.loadRoles();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        authResponseWriter = objectMapper.writerFor(AuthResponse.class);
+
+        JwtService jwtService = BenchmarkFixtures.jwtService();
+        AuthService authService = BenchmarkFixtures.authService();
+        User user = BenchmarkFixtures.driver();
+
+        authResponse = AuthResponse.builder()
+                .accessToken(jwtService.generateToken(user))
+                .refreshToken(jwtService.generateRefreshToken(user))
+                .expiresIn(jwtService.getExpirationInSeconds())
+                .userId(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .fullName(user.getFullName())
+                .roles(authService.toUserResponse(user).getRoles())
+                .build();
+        userResponse = ApiResponse.success(authService.toUserResponse(user));
+    }
+
+    @Benchmark
+    public byte[] authResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(authResponse);
+    }
+
+    @Benchmark
+    public byte[] authResponseWriter() throws JsonProcessingException {
+        return authResponseWriter.writeValueAsBytes(authResponse);
+    }
+
+    @Benchmark
+    public byte[] apiResponseUser() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(userResponse);
+    }
+}
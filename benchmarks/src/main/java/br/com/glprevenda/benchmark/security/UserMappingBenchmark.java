@@ -0,0 +1,68 @@
+package br.com.glprevenda.benchmark.security;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+
+import br.com.glprevenda.security.dto.UserResponse;
+import br.com.glprevenda.security.entity.User;
+import br.com.glprevenda.security.service.AuthService;
+
+/**
+ * Custo dos mapeamentos do usuário feitos em toda requisição autenticada
+ * (User.getAuthorities) e em /api/users/me (AuthService.toUserResponse).
+ *
+ * roles = driver (1 role) ou manager (4 roles).
+ *
+ * Executar:
+ * java -jar target/benchmarks.jar UserMappingBenchmark -prof gc
+ *
+ * @author Ozeias
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserMappingBenchmark {
+
+    @Param({"driver", "manager"})
+    public String roles;
+
+    private AuthService authService;
+    private User user;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkFixtures.loadRoles();
+        authService = BenchmarkFixtures.authService();
+        user = roles.equals("manager") ? BenchmarkFixtures.manager() : BenchmarkFixtures.driver();
+    }
+
+    /**
+     * Set pré-montado do RoleRegistry (sem alocação com roles conhecidas)
+     */
+    @Benchmark
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return user.getAuthorities();
+    }
+
+    @Benchmark
+    public UserResponse toUserResponse() {
+        return authService.toUserResponse(user);
+    }
+}
@@ -0,0 +1,259 @@
+package br.com.glprevenda.loadtest;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Dados sintéticos com cara de Brasil: nomes, emails, cidades, CPF/CNPJ
+ * (com dígitos verificadores válidos) e telefones.
+ *
+ * Nomes e sobrenomes seguem as listas mais frequentes do IBGE, sorteados
+ * com peso decrescente (1/posição): Silva e Maria aparecem muito mais que
+ * o fim da lista, como numa base real (o que importa para índices e
+ * seletividade das buscas por nome).
+ *
+ * Todos os sorteios recebem o SplittableRandom de quem chama: mesma
+ * semente → mesmos dados.
+ *
+ * @author Ozeias
+ */
+final class BrazilianData {
+
+    private static final String[] FIRST_NAMES = {
+            "Maria", "José", "Ana", "João", "Antônio", "Francisco", "Carlos", "Paulo", "Pedro", "Lucas",
+            "Luiz", "Marcos", "Luis", "Gabriel", "Rafael", "Francisca", "Daniel", "Marcelo", "Bruno", "Eduardo",
+            "Antônia", "Adriana", "Juliana", "Márcia", "Fernanda", "Patrícia", "Aline", "Sandra", "Camila", "Amanda",
+            "Bruna", "Jéssica", "Letícia", "Júlia", "Luciana", "Vanessa", "Mariana", "Gabriela", "Vera", "Vitória",
+            "Felipe", "Raimundo", "Rodrigo", "Manoel", "Mateus", "André", "Fernando", "Fábio", "Leonardo", "Gustavo",
+            "Guilherme", "Leandro", "Tiago", "Anderson", "Ricardo", "Márcio", "Jorge", "Sebastião", "Alexandre", "Roberto",
+            "Edson", "Diego", "Vitor", "Sérgio", "Cláudio", "Matheus", "Thiago", "Geraldo", "Adriano", "Luciano",
+            "Raquel", "Simone", "Cristiane", "Tatiane", "Rosângela", "Beatriz", "Larissa", "Débora", "Kelly", "Natália"
+    };
+
+    private static final String[] MIDDLE_NAMES = {
+            "Aparecida", "Eduarda", "Clara", "Vitória", "Helena", "Luiza", "Fernanda", "Cristina",
+            "Carlos", "Henrique", "Paulo", "Augusto", "Miguel", "Gabriel", "Vinícius", "Ricardo"
+    };
+
+    private static final String[] SURNAMES = {
+            "Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves", "Pereira", "Lima", "Gomes",
+            "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes", "Soares", "Fernandes", "Vieira", "Barbosa",
+            "Rocha", "Dias", "Nascimento", "Andrade", "Moreira", "Nunes", "Marques", "Machado", "Mendes", "Freitas",
+            "Cardoso", "Ramos", "Gonçalves", "Santana", "Teixeira", "Araújo", "Pinto", "Correia", "Cavalcanti", "Monteiro",
+            "Moura", "Batista", "Campos", "Castro", "Rezende", "Borges", "Reis", "Azevedo", "Miranda", "Xavier"
+    };
+
+    private static final String[] EMAIL_DOMAINS = {
+            "gmail.com", "hotmail.com", "outlook.com", "yahoo.com.br", "uol.com.br", "bol.com.br",
+            "terra.com.br", "icloud.com", "live.com", "ig.com.br"
+    };
+
+    /** Cidade, UF, DDD */
+    private static final String[][] CITIES = {
+            {"São Paulo", "SP", "11"}, {"Rio de Janeiro", "RJ", "21"}, {"Belo Horizonte", "MG", "31"},
+            {"Salvador", "BA", "71"}, {"Fortaleza", "CE", "85"}, {"Brasília", "DF", "61"},
+            {"Curitiba", "PR", "41"}, {"Recife", "PE", "81"}, {"Goiânia", "GO", "62"},
+            {"Manaus", "AM", "92"}, {"Belém", "PA", "91"}, {"Porto Alegre", "RS", "51"},
+            {"Campinas", "SP", "19"}, {"São Luís", "MA", "98"}, {"Maceió", "AL", "82"},
+            {"Natal", "RN", "84"}, {"Teresina", "PI", "86"}, {"Campo Grande", "MS", "67"},
+            {"João Pessoa", "PB", "83"}, {"Ribeirão Preto", "SP", "16"}, {"Uberlândia", "MG", "34"},
+            {"Sorocaba", "SP", "15"}, {"Cuiabá", "MT", "65"}, {"Aracaju", "SE", "79"},
+            {"Feira de Santana", "BA", "75"}, {"Londrina", "PR", "43"}, {"Juiz de Fora", "MG", "32"},
+            {"Joinville", "SC", "47"}, {"Florianópolis", "SC", "48"}, {"Vitória", "ES", "27"}
+    };
+
+    /** Versões sem acento/minúsculas para logins e emails */
+    private static final String[] ASCII_FIRST_NAMES = asciiLower(FIRST_NAMES);
+    private static final String[] ASCII_SURNAMES = asciiLower(SURNAMES);
+
+    private static final double[] FIRST_NAME_WEIGHTS = rankWeights(FIRST_NAMES.length);
+    private static final double[] MIDDLE_NAME_WEIGHTS = rankWeights(MIDDLE_NAMES.length);
+    private static final double[] SURNAME_WEIGHTS = rankWeights(SURNAMES.length);
+    private static final double[] DOMAIN_WEIGHTS = rankWeights(EMAIL_DOMAINS.length);
+    private static final double[] CITY_WEIGHTS = rankWeights(CITIES.length);
+
+    private BrazilianData() {
+    }
+
+    /**
+     * Pessoa sorteada
+     *
+     * @param fullName Ex: "Maria Aparecida Santos Silva"
+     * @param username Ex: "maria.silva1234" (sequencial garante unicidade)
+     */
+    record Person(String fullName, String username) {
+    }
+
+    /**
+     * Nome completo (1 nome, às vezes um segundo nome, 1 ou 2 sobrenomes)
+     * e login derivado dele
+     *
+     * @param sequence Sufixo numérico do login (único por pessoa)
+     */
+    static Person person(long sequence, SplittableRandom random) {
+        int first = pickIndex(FIRST_NAME_WEIGHTS, random);
+        StringBuilder name = new StringBuilder(40).append(FIRST_NAMES[first]);
+        if (random.nextInt(100) < 30) {
+            name.append(' ').append(pick(MIDDLE_NAMES, MIDDLE_NAME_WEIGHTS, random));
+        }
+        int last = pickIndex(SURNAME_WEIGHTS, random);
+        name.append(' ').append(SURNAMES[last]);
+        if (random.nextInt(100) < 60) {
+            last = pickIndex(SURNAME_WEIGHTS, random);
+            name.append(' ').append(SURNAMES[last]);
+        }
+        return new Person(name.toString(), ASCII_FIRST_NAMES[first] + "." + ASCII_SURNAMES[last] + sequence);
+    }
+
+    /**
+     * Nome completo sem login (clientes)
+     */
+    static String fullName(SplittableRandom random) {
+        return person(0, random).fullName();
+    }
+
+    /**
+     * Sobrenome (ex: nome fantasia "Padaria Oliveira")
+     */
+    static String surname(SplittableRandom random) {
+        return pick(SURNAMES, SURNAME_WEIGHTS, random);
+    }
+
+    static String email(String username, SplittableRandom random) {
+        return username + "@" + pick(EMAIL_DOMAINS, DOMAIN_WEIGHTS, random);
+    }
+
+    /**
+     * Cidade sorteada (pesos por posição: capitais grandes primeiro)
+     *
+     * @return {cidade, UF, DDD}
+     */
+    static String[] city(SplittableRandom random) {
+        return pick(CITIES, CITY_WEIGHTS, random);
+    }
+
+    /**
+     * Celular no formato (DDD) 9XXXX-XXXX
+     */
+    static String mobilePhone(String ddd, SplittableRandom random) {
+        StringBuilder phone = new StringBuilder(16).append('(').append(ddd).append(") 9");
+        appendPadded(phone, random.nextInt(10_000));
+        phone.append('-');
+        appendPadded(phone, random.nextInt(10_000));
+        return phone.toString();
+    }
+
+    /**
+     * CPF válido (somente dígitos)
+     */
+    static String cpf(SplittableRandom random) {
+        int[] digits = new int[11];
+        for (int i = 0; i < 9; i++) {
+            digits[i] = random.nextInt(10);
+        }
+        digits[9] = checkDigit(digits, 9, 10);
+        digits[10] = checkDigit(digits, 10, 11);
+        return join(digits);
+    }
+
+    /**
+     * CNPJ válido (somente dígitos), matriz 0001
+     */
+    static String cnpj(SplittableRandom random) {
+        int[] digits = new int[14];
+        for (int i = 0; i < 8; i++) {
+            digits[i] = random.nextInt(10);
+        }
+        digits[8] = 0;
+        digits[9] = 0;
+        digits[10] = 0;
+        digits[11] = 1;
+        digits[12] = cnpjCheckDigit(digits, 12);
+        digits[13] = cnpjCheckDigit(digits, 13);
+        return join(digits);
+    }
+
+    /**
+     * Índice sorteado com peso 1/(posição + 1) em [0, size): poucos
+     * concentram a maior parte (ex: vendedores com mais vendas)
+     */
+    static double[] rankWeights(int size) {
+        double[] cumulative = new double[size];
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            total += 1.0 / (i + 1);
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+
+    static int pickIndex(double[] cumulativeWeights, SplittableRandom random) {
+        double value = random.nextDouble();
+        int low = 0;
+        int high = cumulativeWeights.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulativeWeights[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static <T> T pick(T[] values, double[] cumulativeWeights, SplittableRandom random) {
+        return values[pickIndex(cumulativeWeights, random)];
+    }
+
+    private static int checkDigit(int[] digits, int length, int firstWeight) {
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += digits[i] * (firstWeight - i);
+        }
+        int rest = sum % 11;
+        return rest < 2 ? 0 : 11 - rest;
+    }
+
+    private static int cnpjCheckDigit(int[] digits, int length) {
+        int sum = 0;
+        int weight = length - 7;
+        for (int i = 0; i < length; i++) {
+            sum += digits[i] * weight;
+            weight = weight == 2 ? 9 : weight - 1;
+        }
+        int rest = sum % 11;
+        return rest < 2 ? 0 : 11 - rest;
+    }
+
+    /**
+     * 4 dígitos com zeros à esquerda (String.format é lento demais por linha)
+     */
+    private static void appendPadded(StringBuilder value, int number) {
+        for (int divisor = 1000; divisor > 0; divisor /= 10) {
+            value.append((char) ('0' + number / divisor % 10));
+        }
+    }
+
+    private static String join(int[] digits) {
+        StringBuilder value = new StringBuilder(digits.length);
+        for (int digit : digits) {
+            value.append(digit);
+        }
+        return value.toString();
+    }
+
+    private static String[] asciiLower(String[] values) {
+        String[] ascii = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            ascii[i] = Normalizer.normalize(values[i], Normalizer.Form.NFD)
+                    .replaceAll("\\p{M}", "")
+                    .toLowerCase(Locale.ROOT);
+        }
+        return ascii;
+    }
+}
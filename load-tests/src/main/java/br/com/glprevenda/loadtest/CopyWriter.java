@@ -0,0 +1,136 @@
+package br.com.glprevenda.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+/**
+ * Escreve linhas em um COPY ... FROM STDIN (formato texto) do PostgreSQL.
+ *
+ * As linhas são montadas em um buffer e enviadas em blocos de ~1 MB:
+ * sem um INSERT por linha, sem parse de SQL, sem round trip por linha.
+ *
+ * Formato texto: colunas separadas por TAB, linha termina em \n,
+ * NULL = \N; TAB, \n, \r e \ no conteúdo são escapados.
+ *
+ * @author Ozeias
+ */
+final class CopyWriter implements AutoCloseable {
+
+    private static final int FLUSH_THRESHOLD = 1 << 20;
+
+    private final CopyIn copyIn;
+    private final StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 4096);
+    private boolean firstField = true;
+    private long rows;
+
+    /**
+     * @param connection Conexão PostgreSQL (JDBC)
+     * @param table Tabela e colunas, ex: "users (id, username)"
+     */
+    CopyWriter(Connection connection, String table) throws SQLException {
+        this.copyIn = connection.unwrap(PGConnection.class)
+                .getCopyAPI()
+                .copyIn("COPY " + table + " FROM STDIN");
+    }
+
+    CopyWriter field(String value) {
+        separator();
+        if (value == null) {
+            buffer.append("\\N");
+            return this;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> buffer.append("\\\\");
+                case '\t' -> buffer.append("\\t");
+                case '\n' -> buffer.append("\\n");
+                case '\r' -> buffer.append("\\r");
+                default -> buffer.append(c);
+            }
+        }
+        return this;
+    }
+
+    CopyWriter field(long value) {
+        separator();
+        buffer.append(value);
+        return this;
+    }
+
+    CopyWriter field(boolean value) {
+        separator();
+        buffer.append(value ? 't' : 'f');
+        return this;
+    }
+
+    /**
+     * Timestamp sem fuso (yyyy-MM-ddTHH:mm:ss)
+     */
+    CopyWriter field(LocalDateTime value) {
+        return field(value == null ? null : value.toString());
+    }
+
+    /**
+     * Valor monetário em centavos → "123.45"
+     */
+    CopyWriter cents(long value) {
+        separator();
+        buffer.append(value / 100).append('.');
+        long fraction = value % 100;
+        if (fraction < 10) {
+            buffer.append('0');
+        }
+        buffer.append(fraction);
+        return this;
+    }
+
+    CopyWriter nullField() {
+        return field((String) null);
+    }
+
+    void endRow() throws SQLException {
+        buffer.append('\n');
+        firstField = true;
+        rows++;
+        if (buffer.length() >= FLUSH_THRESHOLD) {
+            flush();
+        }
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    private void separator() {
+        if (!firstField) {
+            buffer.append('\t');
+        }
+        firstField = false;
+    }
+
+    private void flush() throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    /**
+     * Envia o restante e finaliza o COPY
+     */
+    @Override
+    public void close() throws SQLException {
+        if (!copyIn.isActive()) {
+            return;
+        }
+        if (buffer.length() > 0) {
+            flush();
+        }
+        copyIn.endCopy();
+    }
+}
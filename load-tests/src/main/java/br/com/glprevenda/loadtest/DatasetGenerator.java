@@ -0,0 +1,170 @@
+package br.com.glprevenda.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.flywaydb.core.Flyway;
+
+import br.com.glprevenda.security.config.PasswordHashCalibrator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gerador de dataset sintético para testes de desempenho.
+ *
+ * Carrega via COPY (CopyWriter), em paralelo, uma tabela por conexão:
+ * - users + user_roles (novos usuários, IDs após o maior existente)
+ * - perf.customers, perf.sales, perf.stock_movements: tabelas provisórias
+ *   dos módulos planejados (dataset/planned-modules.sql), recriadas a cada carga
+ *
+ * Rápido: COPY em vez de INSERT, commit assíncrono, um único hash BCrypt
+ * para todos os usuários (calcular milhões de hashes levaria horas),
+ * índices criados depois da carga. Ordem de grandeza: 10 milhões de
+ * linhas em poucos minutos num notebook.
+ *
+ * Determinístico: mesma --seed, mesma --reference-date e mesmo banco de
+ * partida geram exatamente as mesmas linhas.
+ *
+ * Executar (banco do docker-compose):
+ * mvn -q compile exec:java -Dexec.mainClass=br.com.glprevenda.loadtest.DatasetGenerator \
+ *     -Dexec.args="--jdbc-url=jdbc:postgresql://localhost:5432/glp_erp_dev --users=2000000"
+ *
+ * Senha de todos os usuários gerados: TestDatabase.PASSWORD.
+ *
+ * @author Ozeias
+ */
+@Slf4j
+public final class DatasetGenerator {
+
+    private DatasetGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        DatasetOptions options = DatasetOptions.parse(args);
+
+        if (options.jdbcUrl().isEmpty()) {
+            log.info("--jdbc-url ausente: usando PostgreSQL embutido (dados descartados no fim)");
+            try (TestDatabase database = TestDatabase.start()) {
+                generate(options.withDatabase(database.jdbcUrl(), "postgres", "postgres"));
+            }
+        } else {
+            generate(options);
+        }
+    }
+
+    static void generate(DatasetOptions options) throws Exception {
+        long start = System.nanoTime();
+
+        Flyway.configure()
+                .dataSource(options.jdbcUrl(), options.dbUser(), options.dbPassword())
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .load()
+                .migrate();
+
+        long firstUserId;
+        try (Connection connection = connect(options)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(resource("dataset/planned-modules.sql"));
+            }
+            firstUserId = maxUserId(connection) + 1;
+        }
+
+        String passwordHash = PasswordHashCalibrator.delegatingEncoder(options.bcryptStrength())
+                .encode(TestDatabase.PASSWORD);
+        DatasetTables tables = new DatasetTables(options, options.referenceDate().atStartOfDay(), passwordHash);
+
+        ExecutorService executor = Executors.newFixedThreadPool(options.threads());
+        try {
+            List<Future<Long>> loads = new ArrayList<>();
+            loads.add(executor.submit(() -> load(options, "users", c -> tables.loadUsers(c, firstUserId))));
+            loads.add(executor.submit(() -> load(options, "perf.customers", tables::loadCustomers)));
+            loads.add(executor.submit(() -> load(options, "perf.sales", c -> tables.loadSales(c, firstUserId))));
+            loads.add(executor.submit(() -> load(options, "perf.stock_movements", tables::loadStockMovements)));
+
+            long rows = 0;
+            for (Future<Long> load : loads) {
+                rows += load.get();
+            }
+
+            long indexStart = System.nanoTime();
+            try (Connection connection = connect(options); Statement statement = connection.createStatement()) {
+                statement.execute(resource("dataset/planned-modules-indexes.sql"));
+                statement.execute("ANALYZE users");
+                statement.execute("ANALYZE user_roles");
+            }
+            log.info("Índices e estatísticas em {} s", (System.nanoTime() - indexStart) / 1_000_000_000);
+
+            double seconds = (System.nanoTime() - start) / 1e9;
+            log.info("Dataset gerado: {} linhas em {} s ({} linhas/s), seed={}",
+                    rows, Math.round(seconds), Math.round(rows / seconds), options.seed());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Carga de uma tabela
+     */
+    @FunctionalInterface
+    interface TableLoad {
+        long load(Connection connection) throws SQLException;
+    }
+
+    /**
+     * Uma tabela em uma transação: tudo ou nada
+     */
+    private static long load(DatasetOptions options, String table, TableLoad tableLoad) throws SQLException {
+        long start = System.nanoTime();
+        try (Connection connection = connect(options)) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LOCAL synchronous_commit = off");
+                statement.execute("SET LOCAL maintenance_work_mem = '256MB'");
+            }
+            try {
+                long rows = tableLoad.load(connection);
+                connection.commit();
+
+                double seconds = (System.nanoTime() - start) / 1e9;
+                log.info("{}: {} linhas em {} s ({} linhas/s)",
+                        table, rows, Math.round(seconds), Math.round(rows / seconds));
+                return rows;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static Connection connect(DatasetOptions options) throws SQLException {
+        return DriverManager.getConnection(options.jdbcUrl(), options.dbUser(), options.dbPassword());
+    }
+
+    private static long maxUserId(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT coalesce(max(id), 0) FROM users")) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private static String resource(String path) throws IOException {
+        try (InputStream input = DatasetGenerator.class.getClassLoader().getResourceAsStream(path)) {
+            if (input == null) {
+                throw new IllegalStateException("Recurso não encontrado: " + path);
+            }
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.glprevenda.loadtest;
+
+import java.time.LocalDate;
+
+/**
+ * Opções do gerador de dataset (--chave=valor).
+ *
+ * @param jdbcUrl Banco de destino (vazio = PostgreSQL embutido, descartado no fim)
+ * @param dbUser Usuário do banco
+ * @param dbPassword Senha do banco
+ * @param users Usuários novos em users/user_roles
+ * @param customers Clientes (perf.customers)
+ * @param sales Vendas (perf.sales)
+ * @param stockMovements Movimentos de estoque (perf.stock_movements)
+ * @param seed Semente: mesma semente + mesmo banco de partida → mesmos dados
+ * @param threads Tabelas carregadas em paralelo (uma conexão cada)
+ * @param deferIndexes Recria os índices secundários de users depois do COPY
+ * @param bcryptStrength Strength do hash único gravado em todos os usuários
+ * @param referenceDate Fim do histórico gerado (fixo: datas reproduzíveis)
+ *
+ * @author Ozeias
+ */
+record DatasetOptions(
+        String jdbcUrl,
+        String dbUser,
+        String dbPassword,
+        long users,
+        long customers,
+        long sales,
+        long stockMovements,
+        long seed,
+        int threads,
+        boolean deferIndexes,
+        int bcryptStrength,
+        LocalDate referenceDate
+) {
+
+    /**
+     * Opções (padrão ≈ 10 milhões de linhas):
+     * --jdbc-url=jdbc:postgresql://localhost:5432/glp_erp_dev  (ausente = PostgreSQL embutido)
+     * --db-user=glp_user --db-password=glp_pass_2024
+     * --users=1000000 --customers=500000 --sales=6000000 --stock-movements=2500000
+     * --seed=42 --threads=4 --defer-indexes=true --bcrypt-strength=10
+     * --reference-date=2025-01-01
+     */
+    static DatasetOptions parse(String[] args) {
+        CommandLineArgs values = new CommandLineArgs(args);
+        DatasetOptions options = new DatasetOptions(
+                values.get("jdbc-url", ""),
+                values.get("db-user", "glp_user"),
+                values.get("db-password", "glp_pass_2024"),
+                values.getLong("users", 1_000_000L),
+                values.getLong("customers", 500_000L),
+                values.getLong("sales", 6_000_000L),
+                values.getLong("stock-movements", 2_500_000L),
+                values.getLong("seed", 42L),
+                values.getInt("threads", 4),
+                values.getBoolean("defer-indexes", true),
+                values.getInt("bcrypt-strength", 10),
+                LocalDate.parse(values.get("reference-date", "2025-01-01")));
+
+        if (options.users() < 1 || options.customers() < 1) {
+            throw new IllegalArgumentException("--users e --customers precisam ser >= 1");
+        }
+        return options;
+    }
+
+    /**
+     * Mesmas opções apontando para outro banco
+     */
+    DatasetOptions withDatabase(String url, String user, String password) {
+        return new DatasetOptions(url, user, password, users, customers, sales, stockMovements,
+                seed, threads, deferIndexes, bcryptStrength, referenceDate);
+    }
+}
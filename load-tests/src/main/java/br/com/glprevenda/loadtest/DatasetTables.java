@@ -0,0 +1,399 @@
+package br.com.glprevenda.loadtest;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Carga de cada tabela do dataset sintético via COPY.
+ *
+ * Determinismo: cada tabela tem o próprio SplittableRandom (seed + tabela)
+ * e as tabelas rodam em paralelo sem compartilhar sorteios. A role de um
+ * usuário é função do seu índice (roleBucket), então as vendas escolhem
+ * vendedores sem ler users.
+ *
+ * Distribuições (base de uma revenda de GLP):
+ * - Roles: 85% vendedor, 6% estoque, 4% financeiro, 4% gerente (também vendedor), 1% admin
+ * - 80% das vendas com 20% dos vendedores e 20% dos clientes
+ * - Produtos: P13 75%, água 20L 12%, P45 6%, P20 4%, vasilhame 3%
+ * - Vendas em ordem de tempo (id crescente = sold_at crescente), horário comercial
+ *
+ * @author Ozeias
+ */
+@Slf4j
+final class DatasetTables {
+
+    private static final long PROGRESS_INTERVAL = 1_000_000;
+
+    /** Período coberto pelos dados: 3 anos até a data de referência */
+    private static final int HISTORY_DAYS = 3 * 365;
+
+    private static final String[] PRODUCTS = {"P13", "AGUA_20L", "P45", "P20", "VASILHAME_P13"};
+    private static final int[] PRODUCT_PERCENT = {75, 12, 6, 4, 3};
+    private static final long[] PRODUCT_BASE_CENTS = {11_000, 1_500, 42_000, 19_000, 15_000};
+
+    private static final String[] PAYMENT_METHODS = {"PIX", "DINHEIRO", "DEBITO", "CREDITO", "FIADO"};
+    private static final int[] PAYMENT_PERCENT = {40, 30, 12, 10, 8};
+
+    /** Horas 0..23: quase nada de madrugada, picos de manhã e fim de tarde */
+    private static final int[] HOUR_WEIGHT = {
+            0, 0, 0, 0, 0, 0, 1, 4, 8, 10, 10, 8, 5, 5, 6, 7, 8, 9, 9, 6, 3, 1, 0, 0
+    };
+
+    private static final String[] BUSINESS_PREFIXES = {
+            "Restaurante", "Padaria", "Lanchonete", "Condomínio", "Mercado", "Pizzaria", "Comercial", "Bar"
+    };
+
+    private final DatasetOptions options;
+    private final LocalDateTime referenceTime;
+    private final String passwordHash;
+    private final long userStep;
+    private final long customerStep;
+
+    DatasetTables(DatasetOptions options, LocalDateTime referenceTime, String passwordHash) {
+        this.options = options;
+        this.referenceTime = referenceTime;
+        this.passwordHash = passwordHash;
+        this.userStep = coprimeStep(options.users());
+        this.customerStep = coprimeStep(options.customers());
+    }
+
+    /**
+     * users + user_roles, com IDs a partir de firstUserId.
+     *
+     * Índices secundários de users (trigramas, lower(...)) são removidos
+     * antes do COPY e recriados depois, na MESMA transação: se a carga
+     * falhar, o rollback devolve a tabela e os índices como estavam.
+     * PK e UNIQUE continuam ativos (garantem a integridade da carga).
+     */
+    long loadUsers(Connection connection, long firstUserId) throws SQLException {
+        SplittableRandom random = new SplittableRandom(options.seed() ^ 0x75736572L);
+        long count = options.users();
+
+        List<String> deferredIndexes = options.deferIndexes()
+                ? dropSecondaryIndexes(connection, "users")
+                : List.of();
+
+        try (CopyWriter users = new CopyWriter(connection,
+                "users (id, username, email, password, full_name, active, created_at, updated_at)")) {
+            for (long i = 0; i < count; i++) {
+                long id = firstUserId + i;
+                BrazilianData.Person person = BrazilianData.person(id, random);
+                LocalDateTime createdAt = randomPast(random);
+                LocalDateTime updatedAt = random.nextInt(100) < 40
+                        ? createdAt.plusMinutes(random.nextLong(Math.max(1, minutesUntilReference(createdAt))))
+                        : createdAt;
+
+                users.field(id)
+                        .field(person.username())
+                        .field(BrazilianData.email(person.username(), random))
+                        .field(passwordHash)
+                        .field(person.fullName())
+                        .field(random.nextInt(100) < 95)
+                        .field(createdAt)
+                        .field(updatedAt)
+                        .endRow();
+                progress("users", users.rows());
+            }
+        }
+
+        recreateIndexes(connection, deferredIndexes);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SELECT setval(pg_get_serial_sequence('users', 'id'), (SELECT max(id) FROM users))");
+        }
+
+        Map<String, Long> roleIds = roleIds(connection);
+        long roles;
+        try (CopyWriter userRoles = new CopyWriter(connection, "user_roles (user_id, role_id)")) {
+            for (long i = 0; i < count; i++) {
+                long userId = firstUserId + i;
+                int bucket = roleBucket(i);
+                userRoles.field(userId).field(roleIds.get(roleOf(bucket))).endRow();
+                if (isManager(bucket)) {
+                    userRoles.field(userId).field(roleIds.get("ROLE_VENDEDOR")).endRow();
+                }
+            }
+            roles = userRoles.rows();
+        }
+        return count + roles;
+    }
+
+    long loadCustomers(Connection connection) throws SQLException {
+        SplittableRandom random = new SplittableRandom(options.seed() ^ 0x63757374L);
+
+        try (CopyWriter customers = new CopyWriter(connection,
+                "perf.customers (id, name, document, person_type, phone, city, state, created_at)")) {
+            for (long id = 1; id <= options.customers(); id++) {
+                String[] city = BrazilianData.city(random);
+                boolean company = random.nextInt(100) < 20;
+                String name = company
+                        ? BUSINESS_PREFIXES[random.nextInt(BUSINESS_PREFIXES.length)] + " " + BrazilianData.surname(random)
+                        : BrazilianData.fullName(random);
+
+                customers.field(id)
+                        .field(name)
+                        .field(company ? BrazilianData.cnpj(random) : BrazilianData.cpf(random))
+                        .field(company ? "PJ" : "PF")
+                        .field(random.nextInt(100) < 90 ? BrazilianData.mobilePhone(city[2], random) : null)
+                        .field(city[0])
+                        .field(city[1])
+                        .field(randomPast(random))
+                        .endRow();
+                progress("perf.customers", customers.rows());
+            }
+            return customers.rows();
+        }
+    }
+
+    /**
+     * Vendas em ordem cronológica ao longo do histórico
+     */
+    long loadSales(Connection connection, long firstUserId) throws SQLException {
+        SplittableRandom random = new SplittableRandom(options.seed() ^ 0x73616c65L);
+        long count = options.sales();
+        long historyMinutes = HISTORY_DAYS * 24L * 60L;
+        LocalDateTime start = referenceTime.minusDays(HISTORY_DAYS);
+
+        try (CopyWriter sales = new CopyWriter(connection,
+                "perf.sales (id, customer_id, seller_id, product, quantity, unit_price, total, payment_method, sold_at)")) {
+            for (long id = 1; id <= count; id++) {
+                int product = pickWeighted(PRODUCT_PERCENT, random);
+                int quantity = quantity(random);
+                // ±10% sobre o preço base
+                long unitPrice = PRODUCT_BASE_CENTS[product] * (90 + random.nextInt(21)) / 100;
+
+                // Dia pela posição da venda (ordem cronológica), hora pelo perfil do dia
+                long dayOffset = (id - 1) * historyMinutes / count / (24L * 60L);
+                LocalDateTime soldAt = start.plusDays(dayOffset)
+                        .withHour(pickWeighted(HOUR_WEIGHT, random))
+                        .withMinute(random.nextInt(60))
+                        .withSecond(random.nextInt(60));
+
+                sales.field(id)
+                        .field(1 + skewed(options.customers(), customerStep, random))
+                        .field(seller(firstUserId, random))
+                        .field(PRODUCTS[product])
+                        .field(quantity)
+                        .cents(unitPrice)
+                        .cents(unitPrice * quantity)
+                        .field(PAYMENT_METHODS[pickWeighted(PAYMENT_PERCENT, random)])
+                        .field(soldAt)
+                        .endRow();
+                progress("perf.sales", sales.rows());
+            }
+            return sales.rows();
+        }
+    }
+
+    /**
+     * Movimentos de estoque: 75% saídas de vendas, 20% entradas de
+     * fornecedor (lotes grandes), 5% ajustes de inventário
+     */
+    long loadStockMovements(Connection connection) throws SQLException {
+        SplittableRandom random = new SplittableRandom(options.seed() ^ 0x73746f63L);
+        LocalDateTime start = referenceTime.minusDays(HISTORY_DAYS);
+        long count = options.stockMovements();
+        long historyMinutes = HISTORY_DAYS * 24L * 60L;
+
+        try (CopyWriter movements = new CopyWriter(connection,
+                "perf.stock_movements (id, product, movement_type, quantity, sale_id, created_at)")) {
+            for (long id = 1; id <= count; id++) {
+                LocalDateTime createdAt = start.plusMinutes((id - 1) * historyMinutes / count + random.nextInt(60));
+                String product = PRODUCTS[pickWeighted(PRODUCT_PERCENT, random)];
+                int type = random.nextInt(100);
+
+                movements.field(id).field(product);
+                if (type < 75 && options.sales() > 0) {
+                    movements.field("SAIDA").field(quantity(random)).field(1 + random.nextLong(options.sales()));
+                } else if (type < 95) {
+                    movements.field("ENTRADA").field(50 + random.nextInt(451)).nullField();
+                } else {
+                    movements.field("AJUSTE").field(1 + random.nextInt(10)).nullField();
+                }
+                movements.field(createdAt).endRow();
+                progress("perf.stock_movements", movements.rows());
+            }
+            return movements.rows();
+        }
+    }
+
+    /**
+     * Faixa 0..99 da role do usuário de índice i (função do índice e da semente)
+     */
+    int roleBucket(long index) {
+        return (int) Math.floorMod(mix64(options.seed() * 0x9E3779B97F4A7C15L + index), 100L);
+    }
+
+    static String roleOf(int bucket) {
+        if (bucket < 1) {
+            return "ROLE_ADMIN";
+        }
+        if (bucket < 5) {
+            return "ROLE_GERENTE";
+        }
+        if (bucket < 9) {
+            return "ROLE_FINANCEIRO";
+        }
+        if (bucket < 15) {
+            return "ROLE_ESTOQUE";
+        }
+        return "ROLE_VENDEDOR";
+    }
+
+    private static boolean isManager(int bucket) {
+        return roleOf(bucket).equals("ROLE_GERENTE");
+    }
+
+    /**
+     * Vendedor da venda: usuário sorteado (80/20) que tenha ROLE_VENDEDOR
+     */
+    private long seller(long firstUserId, SplittableRandom random) {
+        for (int attempt = 0; attempt < 64; attempt++) {
+            long index = skewed(options.users(), userStep, random);
+            int bucket = roleBucket(index);
+            if (roleOf(bucket).equals("ROLE_VENDEDOR") || isManager(bucket)) {
+                return firstUserId + index;
+            }
+        }
+        return firstUserId;
+    }
+
+    /**
+     * Índice em [0, size): 80% dos sorteios caem em 20% dos índices.
+     * O rank sorteado passa por uma permutação (multiplicação por um
+     * passo coprimo de size) para os "grandes" não serem os IDs baixos.
+     */
+    private static long skewed(long size, long step, SplittableRandom random) {
+        long hot = Math.max(1, size / 5);
+        long rank = hot == size || random.nextInt(100) < 80
+                ? random.nextLong(hot)
+                : hot + random.nextLong(size - hot);
+        return Math.floorMod(rank * step, size);
+    }
+
+    /**
+     * Passo coprimo de size perto de size·0,618 (espalha ranks vizinhos)
+     */
+    static long coprimeStep(long size) {
+        long step = Math.max(1, (long) (size * 0.6180339887));
+        while (gcd(step, size) != 1) {
+            step++;
+        }
+        return step;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /**
+     * Finalizador do SplitMix64
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int quantity(SplittableRandom random) {
+        int value = random.nextInt(100);
+        if (value < 85) {
+            return 1;
+        }
+        return value < 95 ? 2 : 3 + random.nextInt(3);
+    }
+
+    private LocalDateTime randomPast(SplittableRandom random) {
+        return referenceTime.minusMinutes(random.nextLong(HISTORY_DAYS * 24L * 60L));
+    }
+
+    private long minutesUntilReference(LocalDateTime time) {
+        return Duration.between(time, referenceTime).toMinutes();
+    }
+
+    private static int pickWeighted(int[] weights, SplittableRandom random) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int value = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            value -= weights[i];
+            if (value < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private static void progress(String table, long rows) {
+        if (rows % PROGRESS_INTERVAL == 0) {
+            log.info("{}: {} linhas", table, rows);
+        }
+    }
+
+    private static Map<String, Long> roleIds(Connection connection) throws SQLException {
+        Map<String, Long> ids = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet roles = statement.executeQuery("SELECT id, name FROM roles")) {
+            while (roles.next()) {
+                ids.put(roles.getString("name"), roles.getLong("id"));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Remove os índices que não sustentam constraints e devolve o DDL deles
+     */
+    private static List<String> dropSecondaryIndexes(Connection connection, String table) throws SQLException {
+        List<String> definitions = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet indexes = statement.executeQuery("""
+                     SELECT i.indexname, i.indexdef
+                     FROM pg_indexes i
+                     WHERE i.schemaname = current_schema()
+                       AND i.tablename = '%s'
+                       AND NOT EXISTS (SELECT 1 FROM pg_constraint c WHERE c.conname = i.indexname)
+                     """.formatted(table))) {
+            while (indexes.next()) {
+                names.add(indexes.getString("indexname"));
+                definitions.add(indexes.getString("indexdef"));
+            }
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            for (String name : names) {
+                statement.execute("DROP INDEX " + name);
+            }
+        }
+        log.info("{}: {} índices adiados para depois da carga", table, names.size());
+        return definitions;
+    }
+
+    private static void recreateIndexes(Connection connection, List<String> definitions) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String definition : definitions) {
+                long start = System.nanoTime();
+                statement.execute(definition);
+                log.info("Índice recriado em {} ms: {}", (System.nanoTime() - start) / 1_000_000, definition);
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.glprevenda.loadtest;
+
+import java.io.PrintStream;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Tabela de resultados de um estágio: vazão, erros e p50/p99/p99.9/máx (ms)
+ * por operação, mais o total.
+ *
+ * @author Ozeias
+ */
+final class LatencyReport {
+
+    private static final String HEADER = "%-12s %10s %10s %8s %9s %9s %9s %9s%n";
+    private static final String ROW = "%-12s %10d %10.1f %8d %9.2f %9.2f %9.2f %9.2f%n";
+
+    private LatencyReport() {
+    }
+
+    static void print(PrintStream out, String title, LoadRunner.StageResult result) {
+        double seconds = result.elapsed().toNanos() / 1e9;
+
+        out.println();
+        out.println(title);
+        out.printf(HEADER, "operação", "requisições", "req/s", "erros", "p50 ms", "p99 ms", "p99.9 ms", "máx ms");
+
+        Histogram total = null;
+        long totalErrors = 0;
+        for (Map.Entry<Operation, Histogram> entry : result.latencies().entrySet()) {
+            Histogram histogram = entry.getValue();
+            long errors = result.errors().get(entry.getKey());
+            row(out, entry.getKey().label(), histogram, errors, seconds);
+
+            if (total == null) {
+                total = histogram.copy();
+            } else {
+                total.add(histogram);
+            }
+            totalErrors += errors;
+        }
+        if (total != null) {
+            row(out, "total", total, totalErrors, seconds);
+        }
+    }
+
+    private static void row(PrintStream out, String label, Histogram histogram, long errors, double seconds) {
+        out.printf(ROW,
+                label,
+                histogram.getTotalCount(),
+                histogram.getTotalCount() / seconds,
+                errors,
+                millis(histogram, 50.0),
+                millis(histogram, 99.0),
+                millis(histogram, 99.9),
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
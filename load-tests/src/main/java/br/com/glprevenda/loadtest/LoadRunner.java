@@ -0,0 +1,145 @@
+package br.com.glprevenda.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executa os estágios do perfil: N threads, cada uma com seu VirtualUser,
+ * em loop fechado (nova requisição assim que a anterior responde) até o
+ * fim do estágio.
+ *
+ * Latência por operação em HdrHistogram (microssegundos, 3 dígitos
+ * significativos): Recorder por operação, sem lock no caminho da medição.
+ * Só respostas 2xx entram no histograma; o resto conta como erro.
+ *
+ * @author Ozeias
+ */
+@Slf4j
+final class LoadRunner {
+
+    /**
+     * Resultado de um estágio
+     *
+     * @param latencies Histograma de latência (µs) por operação
+     * @param errors Respostas não-2xx ou falhas de conexão por operação
+     * @param elapsed Duração real do estágio
+     */
+    record StageResult(Map<Operation, Histogram> latencies, Map<Operation, Long> errors, Duration elapsed) {
+    }
+
+    private final HttpClient client;
+    private final URI baseUri;
+    private final ObjectMapper objectMapper;
+    private final LoadTestOptions options;
+    private final OperationMix mix;
+
+    LoadRunner(URI baseUri, ObjectMapper objectMapper, LoadTestOptions options) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.baseUri = baseUri;
+        this.objectMapper = objectMapper;
+        this.options = options;
+        this.mix = new OperationMix(options.mix());
+    }
+
+    /**
+     * Executa um estágio
+     *
+     * @param stage Concorrência e duração
+     * @param stageNumber Número do estágio (entra na semente dos usuários virtuais)
+     * @return Latências e erros do estágio
+     */
+    StageResult run(LoadTestOptions.Stage stage, int stageNumber) throws InterruptedException {
+        Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+        Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+        for (Operation operation : options.mix().keySet()) {
+            recorders.put(operation, new Recorder(3));
+            errors.put(operation, new LongAdder());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(stage.concurrency());
+        CountDownLatch ready = new CountDownLatch(stage.concurrency());
+        CountDownLatch go = new CountDownLatch(1);
+        long[] deadline = new long[1];
+        List<Future<?>> workers = new ArrayList<>();
+
+        for (int i = 0; i < stage.concurrency(); i++) {
+            long seed = options.seed() * 1_000_003L + stageNumber * 10_007L + i;
+            VirtualUser user = new VirtualUser(client, baseUri, objectMapper, options.users(), seed);
+            workers.add(executor.submit(() -> {
+                try {
+                    user.start(mix.includes(Operation.ADMIN_LIST));
+                } finally {
+                    ready.countDown();
+                }
+                go.await();
+
+                while (System.nanoTime() < deadline[0]) {
+                    Operation operation = mix.next(user.random());
+                    long start = System.nanoTime();
+                    boolean ok;
+                    try {
+                        ok = user.execute(operation);
+                    } catch (IOException e) {
+                        ok = false;
+                    }
+                    long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+                    if (ok) {
+                        recorders.get(operation).recordValue(micros);
+                    } else {
+                        errors.get(operation).increment();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        // Logins iniciais fora da medição
+        ready.await();
+        long start = System.nanoTime();
+        deadline[0] = start + stage.duration().toNanos();
+        go.countDown();
+
+        executor.shutdown();
+        if (!executor.awaitTermination(stage.duration().toSeconds() + 60, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        for (Future<?> worker : workers) {
+            try {
+                worker.get(0, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                log.warn("Usuário virtual encerrou com erro: {}", e.getMessage());
+            }
+        }
+
+        Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+        Map<Operation, Long> errorCounts = new EnumMap<>(Operation.class);
+        for (Operation operation : recorders.keySet()) {
+            latencies.put(operation, recorders.get(operation).getIntervalHistogram());
+            errorCounts.put(operation, errors.get(operation).sum());
+        }
+        return new StageResult(latencies, errorCounts, elapsed);
+    }
+}
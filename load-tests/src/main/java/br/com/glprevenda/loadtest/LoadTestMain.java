@@ -0,0 +1,92 @@
+package br.com.glprevenda.loadtest;
+
+import java.net.URI;
+import java.util.List;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.glprevenda.GlpErpApplication;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Teste de carga reproduzível de um nó do backend.
+ *
+ * 1. Sobe um PostgreSQL embutido (sem Docker, sem rede)
+ * 2. Aplica as migrations e cria --users usuários
+ * 3. Sobe o GlpErpApplication (perfil dev) em uma porta livre
+ * 4. Aquecimento (--warmup, descartado) e estágios do --profile
+ * 5. Imprime vazão e p50/p99/p99.9 por operação em cada estágio
+ *
+ * Executar (como usuário comum; antes: cd ../backend && ./mvnw install -DskipTests):
+ * mvn -q compile exec:java -Dexec.args="--users=10000 --profile=16x60s,64x60s --mix=login:5,refresh:10,me:80,admin-list:5"
+ *
+ * Reproduzível: BCrypt com strength fixo (--bcrypt-strength, sem calibração),
+ * throttling de login desligado (todo o tráfego vem de 127.0.0.1) e
+ * sorteios com --seed.
+ *
+ * @author Ozeias
+ */
+@Slf4j
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        // DevTools está no classpath do backend: o restart recarregaria a aplicação
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        try (TestDatabase database = TestDatabase.start()) {
+            database.migrate();
+            database.seed(options.users(), options.bcryptStrength());
+
+            try (ConfigurableApplicationContext application = startApplication(database, options)) {
+                int port = ((WebServerApplicationContext) application).getWebServer().getPort();
+                URI baseUri = URI.create("http://localhost:" + port);
+                ObjectMapper objectMapper = application.getBean(ObjectMapper.class);
+
+                LoadRunner runner = new LoadRunner(baseUri, objectMapper, options);
+                List<LoadTestOptions.Stage> stages = options.stages();
+
+                if (!options.warmup().isZero()) {
+                    log.info("Aquecimento: {}", options.warmup());
+                    runner.run(new LoadTestOptions.Stage(stages.get(0).concurrency(), options.warmup()), 0);
+                }
+
+                System.out.printf("%nTeste de carga: %d usuários, mix %s, BCrypt strength %d, seed %d%n",
+                        options.users(), options.mix(), options.bcryptStrength(), options.seed());
+                for (int i = 0; i < stages.size(); i++) {
+                    LoadTestOptions.Stage stage = stages.get(i);
+                    LoadRunner.StageResult result = runner.run(stage, i + 1);
+                    LatencyReport.print(System.out,
+                            "Estágio " + (i + 1) + "/" + stages.size() + ": " + stage, result);
+                }
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(TestDatabase database, LoadTestOptions options) {
+        // Argumentos de linha de comando: precedência sobre o application-dev.yml
+        return new SpringApplicationBuilder(GlpErpApplication.class)
+                .profiles("dev")
+                .run(
+                        "--server.port=0",
+                        "--management.server.port=-1",
+                        "--spring.datasource.url=" + database.jdbcUrl(),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=postgres",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--logging.level.br.com.glprevenda=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--security.password.bcrypt-strength=" + options.bcryptStrength(),
+                        "--security.login-throttle.enabled=false",
+                        "--security.identity-filter.expected-insertions=" + Math.max(options.users() * 2L, 10_000L));
+    }
+}
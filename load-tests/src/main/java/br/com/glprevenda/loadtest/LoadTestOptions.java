@@ -0,0 +1,106 @@
+package br.com.glprevenda.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Opções do teste de carga (--chave=valor na linha de comando).
+ *
+ * @param users Usuários criados no banco (carga{1..N})
+ * @param stages Perfil de concorrência: estágios executados em sequência
+ * @param warmup Aquecimento antes do primeiro estágio (descartado)
+ * @param mix Peso de cada operação no tráfego
+ * @param bcryptStrength Strength fixo do BCrypt (sem calibração: resultado reproduzível)
+ * @param seed Semente dos sorteios (mesma semente → mesma sequência por usuário virtual)
+ *
+ * @author Ozeias
+ */
+record LoadTestOptions(
+        int users,
+        List<Stage> stages,
+        Duration warmup,
+        Map<Operation, Integer> mix,
+        int bcryptStrength,
+        long seed
+) {
+
+    static final String DEFAULT_PROFILE = "8x30s,32x60s";
+    static final String DEFAULT_MIX = "login:5,refresh:10,me:80,admin-list:5";
+
+    /**
+     * Um estágio do perfil: N usuários virtuais durante um tempo
+     *
+     * @param concurrency Usuários virtuais (threads), cada um faz uma requisição por vez
+     * @param duration Duração do estágio
+     */
+    record Stage(int concurrency, Duration duration) {
+
+        @Override
+        public String toString() {
+            return concurrency + " usuários virtuais por " + duration.toSeconds() + "s";
+        }
+    }
+
+    /**
+     * Opções:
+     * --users=1000
+     * --profile=8x30s,32x60s      (concorrência x duração, em sequência)
+     * --warmup=15s
+     * --mix=login:5,refresh:10,me:80,admin-list:5
+     * --bcrypt-strength=10
+     * --seed=42
+     */
+    static LoadTestOptions parse(String[] args) {
+        CommandLineArgs values = new CommandLineArgs(args);
+        LoadTestOptions options = new LoadTestOptions(
+                values.getInt("users", 1000),
+                parseProfile(values.get("profile", DEFAULT_PROFILE)),
+                DurationStyle.detectAndParse(values.get("warmup", "15s")),
+                parseMix(values.get("mix", DEFAULT_MIX)),
+                values.getInt("bcrypt-strength", 10),
+                values.getLong("seed", 42L));
+
+        if (options.users() < 1) {
+            throw new IllegalArgumentException("--users precisa ser >= 1");
+        }
+        return options;
+    }
+
+    /**
+     * "8x30s,32x60s" → [8 por 30s, 32 por 60s]
+     */
+    static List<Stage> parseProfile(String profile) {
+        List<Stage> stages = new ArrayList<>();
+        for (String stage : profile.split(",")) {
+            String[] parts = stage.trim().split("x", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Estágio inválido (esperado NxDURAÇÃO): " + stage);
+            }
+            stages.add(new Stage(Integer.parseInt(parts[0]), DurationStyle.detectAndParse(parts[1])));
+        }
+        return List.copyOf(stages);
+    }
+
+    /**
+     * "login:5,me:95" → {LOGIN=5, ME=95}
+     */
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":", 2);
+            int weight = Integer.parseInt(parts[1]);
+            if (weight > 0) {
+                weights.put(Operation.fromLabel(parts[0]), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("--mix sem nenhuma operação com peso > 0");
+        }
+        return weights;
+    }
+}
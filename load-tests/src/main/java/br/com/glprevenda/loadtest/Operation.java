@@ -0,0 +1,40 @@
+package br.com.glprevenda.loadtest;
+
+/**
+ * Operações do tráfego simulado
+ *
+ * @author Ozeias
+ */
+enum Operation {
+
+    /** POST /api/auth/login (BCrypt + sessão nova) */
+    LOGIN("login"),
+
+    /** POST /api/auth/refresh (rotação do refresh token) */
+    REFRESH("refresh"),
+
+    /** GET /api/users/me (caminho autenticado mais comum) */
+    ME("me"),
+
+    /** GET /api/admin/users (listagem paginada, token de admin) */
+    ADMIN_LIST("admin-list");
+
+    private final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    String label() {
+        return label;
+    }
+
+    static Operation fromLabel(String label) {
+        for (Operation operation : values()) {
+            if (operation.label.equals(label)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Operação desconhecida: " + label);
+    }
+}
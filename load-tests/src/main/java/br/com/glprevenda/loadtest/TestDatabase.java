@@ -0,0 +1,119 @@
+package br.com.glprevenda.loadtest;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+
+import br.com.glprevenda.security.config.PasswordHashCalibrator;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * PostgreSQL embutido (binários do Maven, sem Docker e sem rede) com
+ * o schema das migrations do backend e os usuários do teste.
+ *
+ * O Flyway roda aqui, ANTES de subir a aplicação: os usuários precisam
+ * existir na inicialização (IdentityFilter e caches são montados nela).
+ * Na subida o Flyway da aplicação encontra o schema já migrado.
+ *
+ * Usuários criados:
+ * - carga1..cargaN (ROLE_VENDEDOR), email cargaN@carga.local
+ * - carga-admin (ROLE_ADMIN), usado na listagem de usuários
+ * Todos com a senha PASSWORD.
+ *
+ * O PostgreSQL se recusa a rodar como root: execute como usuário comum.
+ *
+ * @author Ozeias
+ */
+@Slf4j
+final class TestDatabase implements AutoCloseable {
+
+    static final String PASSWORD = "Carga@2024";
+    static final String ADMIN_USERNAME = "carga-admin";
+
+    private final EmbeddedPostgres postgres;
+
+    private TestDatabase(EmbeddedPostgres postgres) {
+        this.postgres = postgres;
+    }
+
+    static TestDatabase start() throws IOException {
+        return new TestDatabase(EmbeddedPostgres.builder().start());
+    }
+
+    String jdbcUrl() {
+        return postgres.getJdbcUrl("postgres", "postgres");
+    }
+
+    DataSource dataSource() {
+        return postgres.getPostgresDatabase();
+    }
+
+    /**
+     * Aplica as migrations do backend (classpath:db/migration)
+     */
+    void migrate() {
+        Flyway.configure()
+                .dataSource(dataSource())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+    }
+
+    /**
+     * Cria os usuários em um comando (generate_series), com um único hash
+     * no formato da aplicação (mesmo custo de verificação no login)
+     *
+     * @param users Quantidade de usuários comuns
+     * @param bcryptStrength Strength do hash gravado (igual ao da aplicação: sem rehash no login)
+     */
+    void seed(int users, int bcryptStrength) throws SQLException {
+        long start = System.nanoTime();
+        String hash = PasswordHashCalibrator.delegatingEncoder(bcryptStrength).encode(PASSWORD);
+
+        try (Connection connection = dataSource().getConnection()) {
+            try (PreparedStatement insert = connection.prepareStatement("""
+                    INSERT INTO users (username, email, password, full_name)
+                    SELECT 'carga' || i, 'carga' || i || '@carga.local', ?, 'Usuário Carga ' || i
+                    FROM generate_series(1, ?) AS i
+                    """)) {
+                insert.setString(1, hash);
+                insert.setInt(2, users);
+                insert.executeUpdate();
+            }
+            try (PreparedStatement insert = connection.prepareStatement("""
+                    INSERT INTO users (username, email, password, full_name)
+                    VALUES (?, 'carga-admin@carga.local', ?, 'Administrador Carga')
+                    """)) {
+                insert.setString(1, ADMIN_USERNAME);
+                insert.setString(2, hash);
+                insert.executeUpdate();
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("""
+                        INSERT INTO user_roles (user_id, role_id)
+                        SELECT u.id, r.id
+                        FROM users u
+                        JOIN roles r ON r.name = CASE WHEN u.username = 'carga-admin'
+                                                      THEN 'ROLE_ADMIN' ELSE 'ROLE_VENDEDOR' END
+                        """);
+                statement.execute("ANALYZE users");
+                statement.execute("ANALYZE user_roles");
+            }
+        }
+
+        log.info("Banco populado: {} usuários + admin em {} ms",
+                users, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public void close() throws IOException {
+        postgres.close();
+    }
+}
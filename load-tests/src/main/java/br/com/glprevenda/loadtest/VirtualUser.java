@@ -0,0 +1,124 @@
+package br.com.glprevenda.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.SplittableRandom;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.glprevenda.security.dto.AuthResponse;
+import br.com.glprevenda.security.dto.LoginRequest;
+import br.com.glprevenda.security.dto.RefreshTokenRequest;
+
+/**
+ * Usuário virtual: uma requisição por vez, com os próprios tokens
+ * (login troca a sessão, refresh rotaciona o refresh token).
+ *
+ * Não é thread-safe: cada thread do LoadRunner tem o seu.
+ *
+ * @author Ozeias
+ */
+final class VirtualUser {
+
+    private final HttpClient client;
+    private final URI baseUri;
+    private final ObjectMapper objectMapper;
+    private final int users;
+    private final SplittableRandom random;
+
+    private String accessToken;
+    private String refreshToken;
+    private String adminToken;
+
+    VirtualUser(HttpClient client, URI baseUri, ObjectMapper objectMapper, int users, long seed) {
+        this.client = client;
+        this.baseUri = baseUri;
+        this.objectMapper = objectMapper;
+        this.users = users;
+        this.random = new SplittableRandom(seed);
+    }
+
+    SplittableRandom random() {
+        return random;
+    }
+
+    /**
+     * Login inicial (fora da medição)
+     *
+     * @param admin Também obtém um token de admin (para admin-list)
+     */
+    void start(boolean admin) throws IOException, InterruptedException {
+        if (!login(randomUsername())) {
+            throw new IllegalStateException("Login inicial falhou");
+        }
+        if (admin) {
+            HttpResponse<byte[]> response = post("/api/auth/login",
+                    new LoginRequest(TestDatabase.ADMIN_USERNAME, TestDatabase.PASSWORD));
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Login do admin falhou: HTTP " + response.statusCode());
+            }
+            adminToken = objectMapper.readValue(response.body(), AuthResponse.class).getAccessToken();
+        }
+    }
+
+    /**
+     * Executa a operação
+     *
+     * @return true se a resposta foi a esperada (2xx)
+     */
+    boolean execute(Operation operation) throws IOException, InterruptedException {
+        return switch (operation) {
+            case LOGIN -> login(randomUsername());
+            case REFRESH -> refresh();
+            case ME -> get("/api/users/me", accessToken).statusCode() == 200;
+            case ADMIN_LIST -> get("/api/admin/users?size=50", adminToken).statusCode() == 200;
+        };
+    }
+
+    private boolean login(String username) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = post("/api/auth/login", new LoginRequest(username, TestDatabase.PASSWORD));
+        if (response.statusCode() != 200) {
+            return false;
+        }
+        keep(objectMapper.readValue(response.body(), AuthResponse.class));
+        return true;
+    }
+
+    private boolean refresh() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = post("/api/auth/refresh", new RefreshTokenRequest(refreshToken));
+        if (response.statusCode() != 200) {
+            return false;
+        }
+        keep(objectMapper.readValue(response.body(), AuthResponse.class));
+        return true;
+    }
+
+    private void keep(AuthResponse auth) {
+        accessToken = auth.getAccessToken();
+        refreshToken = auth.getRefreshToken();
+    }
+
+    private String randomUsername() {
+        return "carga" + (1 + random.nextInt(users));
+    }
+
+    private HttpResponse<byte[]> get(String path, String token) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private HttpResponse<byte[]> post(String path, Object body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/json")
+                .header("User-Agent", "glp-load-test")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
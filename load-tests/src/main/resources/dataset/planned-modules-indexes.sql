@@ -0,0 +1,10 @@
+-- Índices dos módulos planejados (criados após a carga: mais rápido que manter durante o COPY)
+CREATE INDEX idx_customers_document ON perf.customers (document);
+CREATE INDEX idx_sales_customer ON perf.sales (customer_id);
+CREATE INDEX idx_sales_seller_sold_at ON perf.sales (seller_id, sold_at);
+CREATE INDEX idx_sales_sold_at ON perf.sales USING brin (sold_at);
+CREATE INDEX idx_stock_movements_product_created_at ON perf.stock_movements (product, created_at);
+CREATE INDEX idx_stock_movements_sale ON perf.stock_movements (sale_id);
+ANALYZE perf.customers;
+ANALYZE perf.sales;
+ANALYZE perf.stock_movements;
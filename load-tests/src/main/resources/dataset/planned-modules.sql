@@ -0,0 +1,51 @@
+-- ════════════════════════════════════════════════════════
+-- Tabelas provisórias dos módulos planejados (clientes, vendas, estoque)
+-- Schema "perf": só para testes de desempenho, fora das migrations.
+-- Quando os módulos existirem de verdade, o gerador passa a usar as
+-- tabelas definitivas e este arquivo sai.
+-- Sem FKs e sem índices: índices são criados após a carga
+-- (planned-modules-indexes.sql).
+-- ════════════════════════════════════════════════════════
+
+CREATE SCHEMA IF NOT EXISTS perf;
+
+CREATE TABLE IF NOT EXISTS perf.customers (
+    id BIGINT PRIMARY KEY,
+    name VARCHAR(150) NOT NULL,
+    document VARCHAR(14) NOT NULL,
+    person_type CHAR(2) NOT NULL,
+    phone VARCHAR(20),
+    city VARCHAR(60) NOT NULL,
+    state CHAR(2) NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS perf.sales (
+    id BIGINT PRIMARY KEY,
+    customer_id BIGINT NOT NULL,
+    seller_id BIGINT NOT NULL,
+    product VARCHAR(20) NOT NULL,
+    quantity INTEGER NOT NULL,
+    unit_price NUMERIC(10, 2) NOT NULL,
+    total NUMERIC(12, 2) NOT NULL,
+    payment_method VARCHAR(20) NOT NULL,
+    sold_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS perf.stock_movements (
+    id BIGINT PRIMARY KEY,
+    product VARCHAR(20) NOT NULL,
+    movement_type VARCHAR(20) NOT NULL,
+    quantity INTEGER NOT NULL,
+    sale_id BIGINT,
+    created_at TIMESTAMP NOT NULL
+);
+
+-- Cargas repetidas partem do zero (as tabelas são só do gerador)
+TRUNCATE perf.customers, perf.sales, perf.stock_movements;
+DROP INDEX IF EXISTS perf.idx_customers_document;
+DROP INDEX IF EXISTS perf.idx_sales_customer;
+DROP INDEX IF EXISTS perf.idx_sales_seller_sold_at;
+DROP INDEX IF EXISTS perf.idx_sales_sold_at;
+DROP INDEX IF EXISTS perf.idx_stock_movements_product_created_at;
+DROP INDEX IF EXISTS perf.idx_stock_movements_sale;